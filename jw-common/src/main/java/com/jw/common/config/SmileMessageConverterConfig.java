@@ -0,0 +1,42 @@
+package com.jw.common.config;
+
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+/**
+ * @description: 让 Spring MVC 的 application/x-jackson-smile 消息转换器使用 Spring Boot 配置的 Jackson(spring.jackson.*)
+ * classpath 中有 jackson-dataformat-smile 时 MVC 已注册一个默认配置的 Smile 转换器，这里原位替换它，
+ * 使 Smile 与 JSON 的命名策略、日期格式等保持一致；请求按 Content-Type 选择转换器，响应按 Accept 协商
+ * 服务通过 @Import(SmileMessageConverterConfig.class) 启用
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Configuration
+public class SmileMessageConverterConfig implements WebMvcConfigurer {
+
+    private final Jackson2ObjectMapperBuilder objectMapperBuilder;
+
+    public SmileMessageConverterConfig(Jackson2ObjectMapperBuilder objectMapperBuilder) {
+        this.objectMapperBuilder = objectMapperBuilder;
+    }
+
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        MappingJackson2SmileHttpMessageConverter smile = new MappingJackson2SmileHttpMessageConverter(
+                objectMapperBuilder.factory(new SmileFactory()).build());
+        for (int i = 0; i < converters.size(); i++) {
+            if (converters.get(i) instanceof MappingJackson2SmileHttpMessageConverter) {
+                converters.set(i, smile);
+                return;
+            }
+        }
+        //自定义了转换器列表、没有默认的 Smile 转换器
+        converters.add(smile);
+    }
+}
@@ -0,0 +1,226 @@
+package com.jw.common.filter;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.FilterChain;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletException;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+import javax.servlet.http.HttpServletResponse;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Enumeration;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.ZipException;
+
+/**
+ * @description: 解压 Content-Encoding: gzip 的请求体，配合 HttpClientUtil.postJson 的请求压缩使用
+ * 需由服务自行注册，如 new FilterRegistrationBean<>(new GzipRequestFilter())；调用方的 requestGzipThreshold 默认关闭，
+ * 只有在所有接收方都注册了本过滤器后才能开启
+ * 请求体在进入后续处理前解压到内存，解压后超过 maxInflatedSize 时返回 413，防止少量压缩数据膨胀为超大请求体；
+ * 解压后的请求体已全部在内存中，异步 Servlet 的非阻塞读取同样可用
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class GzipRequestFilter extends OncePerRequestFilter {
+    /**
+     * 解压后请求体的默认上限 10MB
+     */
+    public static final long DEFAULT_MAX_INFLATED_SIZE = 10L * 1024 * 1024;
+
+    private static final String CONTENT_ENCODING = "Content-Encoding";
+    private static final int BUFFER_SIZE = 8192;
+
+    private final long maxInflatedSize;
+
+    public GzipRequestFilter() {
+        this(DEFAULT_MAX_INFLATED_SIZE);
+    }
+
+    /**
+     * @param maxInflatedSize 解压后请求体的最大字节数
+     */
+    public GzipRequestFilter(long maxInflatedSize) {
+        if (maxInflatedSize <= 0 || maxInflatedSize > Integer.MAX_VALUE - 8) {
+            throw new IllegalArgumentException("invalid maxInflatedSize: " + maxInflatedSize);
+        }
+        this.maxInflatedSize = maxInflatedSize;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String encoding = request.getHeader(CONTENT_ENCODING);
+        if (encoding == null || !("gzip".equalsIgnoreCase(encoding.trim()) || "x-gzip".equalsIgnoreCase(encoding.trim()))) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        byte[] body;
+        try {
+            body = inflate(request.getInputStream());
+        } catch (ZipException | EOFException e) {
+            log.warn("invalid gzip request body {}: {}", request.getRequestURI(), e.getMessage());
+            response.sendError(HttpServletResponse.SC_BAD_REQUEST, "invalid gzip request body");
+            return;
+        }
+        if (body == null) {
+            log.warn("gzip request body {} exceeds {} bytes after inflation", request.getRequestURI(), maxInflatedSize);
+            response.sendError(HttpServletResponse.SC_REQUEST_ENTITY_TOO_LARGE, "request body too large");
+            return;
+        }
+        filterChain.doFilter(new GzipRequestWrapper(request, body), response);
+    }
+
+    /**
+     * 解压请求体，超过上限时立即停止并返回null
+     */
+    private byte[] inflate(InputStream compressed) throws IOException {
+        try (GZIPInputStream in = new GZIPInputStream(compressed, BUFFER_SIZE)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream(BUFFER_SIZE);
+            byte[] buffer = new byte[BUFFER_SIZE];
+            long total = 0;
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                total += n;
+                if (total > maxInflatedSize) {
+                    return null;
+                }
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    /**
+     * 以解压后的内容作为请求体，Content-Length 为解压后的长度，并隐藏 Content-Encoding 头
+     */
+    private static final class GzipRequestWrapper extends HttpServletRequestWrapper {
+        private final byte[] body;
+        private ServletInputStream inputStream;
+
+        private GzipRequestWrapper(HttpServletRequest request, byte[] body) {
+            super(request);
+            this.body = body;
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            if (inputStream == null) {
+                inputStream = new BufferedServletInputStream(body);
+            }
+            return inputStream;
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String charset = getCharacterEncoding();
+            return new BufferedReader(new InputStreamReader(getInputStream(),
+                    charset == null ? StandardCharsets.UTF_8.name() : charset));
+        }
+
+        @Override
+        public int getContentLength() {
+            return body.length;
+        }
+
+        @Override
+        public long getContentLengthLong() {
+            return body.length;
+        }
+
+        @Override
+        public String getHeader(String name) {
+            if (CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return null;
+            }
+            return "Content-Length".equalsIgnoreCase(name) ? String.valueOf(body.length) : super.getHeader(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaders(String name) {
+            if (CONTENT_ENCODING.equalsIgnoreCase(name)) {
+                return Collections.emptyEnumeration();
+            }
+            return "Content-Length".equalsIgnoreCase(name)
+                    ? Collections.enumeration(Collections.singletonList(String.valueOf(body.length))) : super.getHeaders(name);
+        }
+
+        @Override
+        public Enumeration<String> getHeaderNames() {
+            List<String> names = Collections.list(super.getHeaderNames());
+            names.removeIf(CONTENT_ENCODING::equalsIgnoreCase);
+            return Collections.enumeration(names);
+        }
+    }
+
+    /**
+     * 内容已全部在内存中，总是可读；设置 ReadListener 时立即回调，与容器在数据到达时回调的语义一致
+     */
+    private static final class BufferedServletInputStream extends ServletInputStream {
+        private final byte[] body;
+        private int position;
+
+        private BufferedServletInputStream(byte[] body) {
+            this.body = body;
+        }
+
+        @Override
+        public int read() {
+            return position < body.length ? body[position++] & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            if (position >= body.length) {
+                return -1;
+            }
+            int n = Math.min(len, body.length - position);
+            System.arraycopy(body, position, b, off, n);
+            position += n;
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return body.length - position;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return position >= body.length;
+        }
+
+        @Override
+        public boolean isReady() {
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            try {
+                if (!isFinished()) {
+                    readListener.onDataAvailable();
+                }
+                if (isFinished()) {
+                    readListener.onAllDataRead();
+                }
+            } catch (IOException | RuntimeException e) {
+                readListener.onError(e);
+            }
+        }
+    }
+}
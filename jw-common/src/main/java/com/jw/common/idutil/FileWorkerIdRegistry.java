@@ -0,0 +1,132 @@
+package com.jw.common.idutil;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileLock;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description: 基于本地文件的登记中心，适用于本地开发和单机多实例；每行一条租约: workerId owner expireAt
+ * 读写期间持有文件锁，进程间互斥；同一进程内的多个实例再用静态锁串行，避免 OverlappingFileLockException
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class FileWorkerIdRegistry implements WorkerIdRegistry {
+    private static final Object JVM_LOCK = new Object();
+
+    private final Path file;
+
+    public FileWorkerIdRegistry(Path file) {
+        this.file = file;
+    }
+
+    @Override
+    public WorkerIdLease acquire(String owner, long ttlMillis) throws IOException {
+        synchronized (JVM_LOCK) {
+            try (FileChannel channel = open(); FileLock ignored = channel.lock()) {
+                long now = System.currentTimeMillis();
+                Map<Integer, WorkerIdLease> leases = read(channel);
+                for (int workerId = 0; workerId <= MAX_WORKER_ID; workerId++) {
+                if (workerId == LEGACY_WORKER_ID) {
+                    continue;
+                }
+                    WorkerIdLease existing = leases.get(workerId);
+                    if (existing == null || existing.getExpireAt() <= now) {
+                        WorkerIdLease lease = new WorkerIdLease(workerId, owner, now + ttlMillis);
+                        leases.put(workerId, lease);
+                        write(channel, leases, now);
+                        return lease;
+                    }
+                }
+                throw new IllegalStateException("no free worker id in " + file);
+            }
+        }
+    }
+
+    @Override
+    public WorkerIdLease renew(WorkerIdLease lease, long ttlMillis) throws IOException {
+        synchronized (JVM_LOCK) {
+            try (FileChannel channel = open(); FileLock ignored = channel.lock()) {
+                long now = System.currentTimeMillis();
+                Map<Integer, WorkerIdLease> leases = read(channel);
+                WorkerIdLease existing = leases.get(lease.getWorkerId());
+                //已过期但尚未被接管时仍可续约
+                if (existing == null || !existing.getOwner().equals(lease.getOwner())) {
+                    return null;
+                }
+                WorkerIdLease renewed = new WorkerIdLease(lease.getWorkerId(), lease.getOwner(), now + ttlMillis);
+                leases.put(lease.getWorkerId(), renewed);
+                write(channel, leases, now);
+                return renewed;
+            }
+        }
+    }
+
+    @Override
+    public void release(WorkerIdLease lease) throws IOException {
+        synchronized (JVM_LOCK) {
+            try (FileChannel channel = open(); FileLock ignored = channel.lock()) {
+                Map<Integer, WorkerIdLease> leases = read(channel);
+                WorkerIdLease existing = leases.get(lease.getWorkerId());
+                if (existing != null && existing.getOwner().equals(lease.getOwner())) {
+                    leases.remove(lease.getWorkerId());
+                    write(channel, leases, System.currentTimeMillis());
+                }
+            }
+        }
+    }
+
+    private FileChannel open() throws IOException {
+        Path parent = file.toAbsolutePath().getParent();
+        if (parent != null) {
+            Files.createDirectories(parent);
+        }
+        return FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    }
+
+    private static Map<Integer, WorkerIdLease> read(FileChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate((int) channel.size());
+        while (buffer.hasRemaining() && channel.read(buffer, buffer.position()) >= 0) {
+            //读满为止
+        }
+        Map<Integer, WorkerIdLease> leases = new HashMap<>(16);
+        for (String line : new String(buffer.array(), StandardCharsets.UTF_8).split("\n")) {
+            String[] fields = line.trim().split(" ");
+            if (fields.length != 3) {
+                continue;
+            }
+            try {
+                int workerId = Integer.parseInt(fields[0]);
+                leases.put(workerId, new WorkerIdLease(workerId, fields[1], Long.parseLong(fields[2])));
+            } catch (NumberFormatException e) {
+                //忽略损坏的行
+            }
+        }
+        return leases;
+    }
+
+    /**
+     * 重写整个文件，顺带清理已过期的租约
+     */
+    private static void write(FileChannel channel, Map<Integer, WorkerIdLease> leases, long now) throws IOException {
+        StringBuilder content = new StringBuilder();
+        for (WorkerIdLease lease : leases.values()) {
+            if (lease.getExpireAt() > now) {
+                content.append(lease.getWorkerId()).append(' ').append(lease.getOwner()).append(' ')
+                        .append(lease.getExpireAt()).append('\n');
+            }
+        }
+        ByteBuffer buffer = ByteBuffer.wrap(content.toString().getBytes(StandardCharsets.UTF_8));
+        channel.truncate(0);
+        while (buffer.hasRemaining()) {
+            channel.write(buffer, buffer.position());
+        }
+        channel.force(false);
+    }
+}
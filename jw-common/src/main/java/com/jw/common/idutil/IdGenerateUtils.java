@@ -16,7 +16,7 @@ import java.io.Serializable;
 @Slf4j
 public class IdGenerateUtils implements IdentifierGenerator {
 
-    public synchronized String snowflakeId(){
+    public String snowflakeId(){
         return SnowFlakeHolder.generateId();
     }
 
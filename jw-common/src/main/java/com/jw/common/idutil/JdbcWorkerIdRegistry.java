@@ -0,0 +1,129 @@
+package com.jw.common.idutil;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description: 基于数据库表的登记中心，适用于多机部署；抢占和续约都是带条件的单条语句，不依赖事务隔离级别
+ * 表结构: CREATE TABLE worker_id_lease (worker_id INT PRIMARY KEY, owner VARCHAR(64) NOT NULL, expire_at BIGINT NOT NULL)
+ * 到期时刻使用各节点的本地时钟，节点间时钟偏差应远小于租约时长
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class JdbcWorkerIdRegistry implements WorkerIdRegistry {
+    public static final String DEFAULT_TABLE = "worker_id_lease";
+
+    private final DataSource dataSource;
+    private final String selectSql;
+    private final String insertSql;
+    private final String takeOverSql;
+    private final String renewSql;
+    private final String deleteSql;
+
+    public JdbcWorkerIdRegistry(DataSource dataSource) {
+        this(dataSource, DEFAULT_TABLE);
+    }
+
+    public JdbcWorkerIdRegistry(DataSource dataSource, String table) {
+        this.dataSource = dataSource;
+        this.selectSql = "SELECT worker_id, expire_at FROM " + table;
+        this.insertSql = "INSERT INTO " + table + " (worker_id, owner, expire_at) VALUES (?, ?, ?)";
+        this.takeOverSql = "UPDATE " + table + " SET owner = ?, expire_at = ? WHERE worker_id = ? AND expire_at <= ?";
+        this.renewSql = "UPDATE " + table + " SET expire_at = ? WHERE worker_id = ? AND owner = ?";
+        this.deleteSql = "DELETE FROM " + table + " WHERE worker_id = ? AND owner = ?";
+    }
+
+    /**
+     * 优先插入未使用过的ID，没有时接管已过期的ID；并发抢占同一ID时只有一个节点的插入或更新成功，其余继续尝试下一个
+     */
+    @Override
+    public WorkerIdLease acquire(String owner, long ttlMillis) throws IOException {
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(true);
+            Map<Integer, Long> expireAt = new HashMap<>(16);
+            try (PreparedStatement select = connection.prepareStatement(selectSql);
+                 ResultSet rs = select.executeQuery()) {
+                while (rs.next()) {
+                    expireAt.put(rs.getInt(1), rs.getLong(2));
+                }
+            }
+            for (int workerId = 0; workerId <= MAX_WORKER_ID; workerId++) {
+                if (workerId == LEGACY_WORKER_ID) {
+                    continue;
+                }
+                long now = System.currentTimeMillis();
+                Long existing = expireAt.get(workerId);
+                if (existing == null) {
+                    if (insert(connection, workerId, owner, now + ttlMillis)) {
+                        return new WorkerIdLease(workerId, owner, now + ttlMillis);
+                    }
+                } else if (existing <= now) {
+                    try (PreparedStatement update = connection.prepareStatement(takeOverSql)) {
+                        update.setString(1, owner);
+                        update.setLong(2, now + ttlMillis);
+                        update.setInt(3, workerId);
+                        update.setLong(4, now);
+                        if (update.executeUpdate() == 1) {
+                            return new WorkerIdLease(workerId, owner, now + ttlMillis);
+                        }
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            throw new IOException("acquire worker id failed", e);
+        }
+        throw new IllegalStateException("no free worker id");
+    }
+
+    @Override
+    public WorkerIdLease renew(WorkerIdLease lease, long ttlMillis) throws IOException {
+        long expireAt = System.currentTimeMillis() + ttlMillis;
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement update = connection.prepareStatement(renewSql)) {
+            connection.setAutoCommit(true);
+            update.setLong(1, expireAt);
+            update.setInt(2, lease.getWorkerId());
+            update.setString(3, lease.getOwner());
+            return update.executeUpdate() == 1 ? new WorkerIdLease(lease.getWorkerId(), lease.getOwner(), expireAt) : null;
+        } catch (SQLException e) {
+            throw new IOException("renew worker id " + lease.getWorkerId() + " failed", e);
+        }
+    }
+
+    @Override
+    public void release(WorkerIdLease lease) throws IOException {
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement delete = connection.prepareStatement(deleteSql)) {
+            connection.setAutoCommit(true);
+            delete.setInt(1, lease.getWorkerId());
+            delete.setString(2, lease.getOwner());
+            delete.executeUpdate();
+        } catch (SQLException e) {
+            throw new IOException("release worker id " + lease.getWorkerId() + " failed", e);
+        }
+    }
+
+    /**
+     * 主键冲突说明已被其他节点抢先插入
+     */
+    private boolean insert(Connection connection, int workerId, String owner, long expireAt) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            insert.setInt(1, workerId);
+            insert.setString(2, owner);
+            insert.setLong(3, expireAt);
+            return insert.executeUpdate() == 1;
+        } catch (SQLException e) {
+            //SQLState 23xxx 为完整性约束冲突
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                return false;
+            }
+            throw e;
+        }
+    }
+}
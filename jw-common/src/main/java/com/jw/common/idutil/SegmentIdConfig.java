@@ -0,0 +1,58 @@
+package com.jw.common.idutil;
+
+/**
+ * @description: 号段ID配置，时间单位为毫秒
+ * 表结构: CREATE TABLE id_segment (biz_tag VARCHAR(64) PRIMARY KEY, max_id BIGINT NOT NULL)，H2 和 MySQL 通用
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class SegmentIdConfig {
+    /**
+     * 号段表名
+     */
+    private String table = "id_segment";
+    /**
+     * 每次从数据库领取的ID数量；进程重启时未用完的部分作废，ID会出现空洞
+     */
+    private int step = 1000;
+    /**
+     * 当前号段用掉该比例后异步预取下一个号段
+     */
+    private double prefetchRatio = 0.2;
+    /**
+     * 当前号段用完时等待预取结果的最长时间，超时后在调用线程中同步领取
+     */
+    private long prefetchWaitTimeout = 3000;
+
+    public String getTable() {
+        return table;
+    }
+
+    public void setTable(String table) {
+        this.table = table;
+    }
+
+    public int getStep() {
+        return step;
+    }
+
+    public void setStep(int step) {
+        this.step = step;
+    }
+
+    public double getPrefetchRatio() {
+        return prefetchRatio;
+    }
+
+    public void setPrefetchRatio(double prefetchRatio) {
+        this.prefetchRatio = prefetchRatio;
+    }
+
+    public long getPrefetchWaitTimeout() {
+        return prefetchWaitTimeout;
+    }
+
+    public void setPrefetchWaitTimeout(long prefetchWaitTimeout) {
+        this.prefetchWaitTimeout = prefetchWaitTimeout;
+    }
+}
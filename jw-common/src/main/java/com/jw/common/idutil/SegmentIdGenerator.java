@@ -0,0 +1,285 @@
+package com.jw.common.idutil;
+
+import lombok.extern.slf4j.Slf4j;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 号段ID生成器，按业务标识从数据库领取一段连续的ID，在内存中发号，生成的ID从1开始、紧凑且单调递增
+ * 发号只对当前号段做一次 getAndIncrement；号段用掉一定比例后在后台线程预取下一段(双缓冲)，用完时直接切换，
+ * 切换和预取未完成时的同步领取在锁内进行，只影响切换时刻的调用
+ * 多个节点共用同一张表时各自领取不同的号段，ID全局唯一，但只在单个节点内递增
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class SegmentIdGenerator implements Closeable {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+    /**
+     * 领取并发冲突(首次插入同一标识)时的重试次数
+     */
+    private static final int MAX_ATTEMPTS = 3;
+
+    private final DataSource dataSource;
+    private final SegmentIdConfig config;
+    private final String updateSql;
+    private final String selectSql;
+    private final String insertSql;
+    private final ThreadPoolExecutor executor;
+    private final ConcurrentHashMap<String, Sequence> sequences = new ConcurrentHashMap<>(16);
+
+    public SegmentIdGenerator(DataSource dataSource) {
+        this(dataSource, new SegmentIdConfig());
+    }
+
+    public SegmentIdGenerator(DataSource dataSource, SegmentIdConfig config) {
+        if (config.getStep() <= 0 || config.getPrefetchRatio() < 0 || config.getPrefetchRatio() >= 1) {
+            throw new IllegalArgumentException("step must be positive and prefetchRatio must be in [0, 1)");
+        }
+        this.dataSource = dataSource;
+        this.config = config;
+        this.updateSql = "UPDATE " + config.getTable() + " SET max_id = max_id + ? WHERE biz_tag = ?";
+        this.selectSql = "SELECT max_id FROM " + config.getTable() + " WHERE biz_tag = ?";
+        this.insertSql = "INSERT INTO " + config.getTable() + " (biz_tag, max_id) VALUES (?, ?)";
+        this.executor = new ThreadPoolExecutor(2, 2, 60, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "id-segment-" + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 业务标识对应的序列，首次发号时才领取号段；频繁发号时持有该对象可省去按标识查找
+     */
+    public Sequence sequence(String tag) {
+        Sequence sequence = sequences.get(tag);
+        return sequence != null ? sequence : sequences.computeIfAbsent(tag, Sequence::new);
+    }
+
+    public long nextId(String tag) {
+        return sequence(tag).nextId();
+    }
+
+    public long[] nextIds(String tag, int n) {
+        return sequence(tag).nextIds(n);
+    }
+
+    /**
+     * 关闭预取线程池，之后号段用完时在调用线程中同步领取
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    /**
+     * 在一个事务内把 max_id 增加 step 并读回，得到 [max_id - step + 1, max_id]；标识不存在时插入首个号段
+     */
+    private Segment allocate(String tag) {
+        int step = config.getStep();
+        try (Connection connection = dataSource.getConnection()) {
+            boolean autoCommit = connection.getAutoCommit();
+            connection.setAutoCommit(false);
+            try {
+                for (int attempt = 1; ; attempt++) {
+                    Long maxId = increase(connection, tag, step);
+                    if (maxId == null && insert(connection, tag, step)) {
+                        maxId = (long) step;
+                    }
+                    if (maxId != null) {
+                        connection.commit();
+                        log.debug("allocated id segment {} of {}", maxId, tag);
+                        return new Segment(maxId - step + 1, maxId, config.getPrefetchRatio());
+                    }
+                    //其他节点抢先插入了同一标识，回滚后重新领取
+                    connection.rollback();
+                    if (attempt >= MAX_ATTEMPTS) {
+                        throw new IllegalStateException("allocate id segment of " + tag + " failed: too much contention");
+                    }
+                }
+            } catch (SQLException | RuntimeException e) {
+                connection.rollback();
+                throw e;
+            } finally {
+                connection.setAutoCommit(autoCommit);
+            }
+        } catch (SQLException e) {
+            throw new IllegalStateException("allocate id segment of " + tag + " failed", e);
+        }
+    }
+
+    /**
+     * @return 增加后的 max_id，标识不存在时返回null
+     */
+    private Long increase(Connection connection, String tag, int step) throws SQLException {
+        try (PreparedStatement update = connection.prepareStatement(updateSql)) {
+            update.setInt(1, step);
+            update.setString(2, tag);
+            if (update.executeUpdate() == 0) {
+                return null;
+            }
+        }
+        try (PreparedStatement select = connection.prepareStatement(selectSql)) {
+            select.setString(1, tag);
+            try (ResultSet rs = select.executeQuery()) {
+                return rs.next() ? rs.getLong(1) : null;
+            }
+        }
+    }
+
+    /**
+     * @return false 表示主键冲突，已被其他节点插入
+     */
+    private boolean insert(Connection connection, String tag, int step) throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(insertSql)) {
+            insert.setString(1, tag);
+            insert.setLong(2, step);
+            return insert.executeUpdate() == 1;
+        } catch (SQLException e) {
+            //SQLState 23xxx 为完整性约束冲突
+            if (e.getSQLState() != null && e.getSQLState().startsWith("23")) {
+                return false;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 一段连续的ID，cursor 可能因并发发号越过 end，越过即表示已用完
+     */
+    private static final class Segment {
+        /**
+         * 尚未领取号段时的占位，第一次发号即触发同步领取
+         */
+        private static final Segment EMPTY = new Segment(1, 0, 0);
+
+        private final long end;
+        /**
+         * 发出该ID的线程负责触发预取，每个号段只会触发一次
+         */
+        private final long prefetchAt;
+        private final AtomicLong cursor;
+
+        private Segment(long start, long end, double prefetchRatio) {
+            this.end = end;
+            this.prefetchAt = start + (long) ((end - start + 1) * prefetchRatio);
+            this.cursor = new AtomicLong(start);
+        }
+    }
+
+    /**
+     * 单个业务标识的双缓冲序列
+     */
+    public final class Sequence {
+        private final String tag;
+        private volatile Segment current = Segment.EMPTY;
+        /**
+         * 预取中的下一个号段，由 this 保护
+         */
+        private CompletableFuture<Segment> next;
+
+        private Sequence(String tag) {
+            this.tag = tag;
+        }
+
+        public String getTag() {
+            return tag;
+        }
+
+        /**
+         * @throws IllegalStateException 领取号段失败
+         */
+        public long nextId() {
+            for (; ; ) {
+                Segment segment = current;
+                long id = segment.cursor.getAndIncrement();
+                if (id <= segment.end) {
+                    if (id == segment.prefetchAt) {
+                        prefetch();
+                    }
+                    return id;
+                }
+                advance(segment);
+            }
+        }
+
+        /**
+         * 批量发号，当前号段剩余足够时是一段连续的ID，不足时跨号段拼接；整体按发号顺序递增
+         *
+         * @throws IllegalStateException 领取号段失败
+         */
+        public long[] nextIds(int n) {
+            if (n < 0) {
+                throw new IllegalArgumentException("n must not be negative: " + n);
+            }
+            long[] ids = new long[n];
+            int filled = 0;
+            while (filled < n) {
+                Segment segment = current;
+                long first = segment.cursor.getAndAdd(n - filled);
+                if (first <= segment.end) {
+                    long last = Math.min(segment.end, first + (n - filled) - 1);
+                    for (long id = first; id <= last; id++) {
+                        ids[filled++] = id;
+                    }
+                    if (first <= segment.prefetchAt && segment.prefetchAt <= last) {
+                        prefetch();
+                    }
+                }
+                if (filled < n) {
+                    advance(segment);
+                }
+            }
+            return ids;
+        }
+
+        private synchronized void prefetch() {
+            if (next != null) {
+                return;
+            }
+            try {
+                next = CompletableFuture.supplyAsync(() -> allocate(tag), executor);
+            } catch (RuntimeException e) {
+                //线程池已关闭，用完时同步领取
+                log.debug("prefetch id segment of {} skipped: {}", tag, e.getMessage());
+            }
+        }
+
+        /**
+         * 号段用完后切换到预取的号段，预取未开始、失败或超时时同步领取
+         */
+        private synchronized void advance(Segment exhausted) {
+            if (current != exhausted) {
+                return;
+            }
+            Segment segment = null;
+            if (next != null) {
+                try {
+                    segment = next.get(config.getPrefetchWaitTimeout(), TimeUnit.MILLISECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("等待预取号段时被中断", e);
+                } catch (ExecutionException | TimeoutException e) {
+                    log.warn("prefetch id segment of {} failed, allocate synchronously: {}", tag, e.toString());
+                }
+                next = null;
+            }
+            current = segment != null ? segment : allocate(tag);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.jw.common.idutil;
+
+import org.hibernate.HibernateException;
+import org.hibernate.MappingException;
+import org.hibernate.engine.jdbc.connections.spi.ConnectionProvider;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+import org.hibernate.id.Configurable;
+import org.hibernate.id.IdentifierGenerator;
+import org.hibernate.id.PersistentIdentifierGenerator;
+import org.hibernate.service.ServiceRegistry;
+import org.hibernate.type.Type;
+
+import javax.sql.DataSource;
+import java.io.Serializable;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 号段ID的 Hibernate 主键生成器，ID在插入前从内存中取得，不依赖数据库自增，JDBC 批量插入仍然生效
+ * 用法: @GenericGenerator(name = "segment", strategy = "com.jw.common.idutil.SegmentIdentifierGenerator",
+ * parameters = @Parameter(name = "tag", value = "order"))，未指定 tag 时使用实体的表名；主键类型为 Long 或 String
+ * 默认使用 Hibernate 的数据源和默认配置，需要自定义配置时在 SessionFactory 创建前调用 {@link #use(SegmentIdGenerator)}
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class SegmentIdentifierGenerator implements IdentifierGenerator, Configurable {
+    public static final String TAG = "tag";
+
+    private static final Map<DataSource, SegmentIdGenerator> GENERATORS = new ConcurrentHashMap<>(4);
+    private static volatile SegmentIdGenerator shared;
+
+    private SegmentIdGenerator.Sequence sequence;
+    private boolean stringId;
+
+    /**
+     * 所有实体共用指定的号段生成器
+     */
+    public static void use(SegmentIdGenerator generator) {
+        shared = generator;
+    }
+
+    @Override
+    public void configure(Type type, Properties params, ServiceRegistry serviceRegistry) throws MappingException {
+        String tag = params.getProperty(TAG, params.getProperty(PersistentIdentifierGenerator.TABLE));
+        if (tag == null || tag.isEmpty()) {
+            throw new MappingException("segment id tag is not configured");
+        }
+        SegmentIdGenerator generator = shared;
+        if (generator == null) {
+            DataSource dataSource = serviceRegistry.getService(ConnectionProvider.class).unwrap(DataSource.class);
+            generator = GENERATORS.computeIfAbsent(dataSource, SegmentIdGenerator::new);
+        }
+        sequence = generator.sequence(tag);
+        stringId = type.getReturnedClass() == String.class;
+    }
+
+    @Override
+    public Serializable generate(SharedSessionContractImplementor session, Object object) throws HibernateException {
+        try {
+            long id = sequence.nextId();
+            return stringId ? String.valueOf(id) : id;
+        } catch (IllegalStateException e) {
+            throw new HibernateException(e.getMessage(), e);
+        }
+    }
+}
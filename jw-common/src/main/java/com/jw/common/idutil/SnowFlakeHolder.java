@@ -1,15 +1,39 @@
 package com.jw.common.idutil;
 
-import cn.hutool.core.lang.Snowflake;
-import cn.hutool.core.util.IdUtil;
-
+/**
+ * @description: 全局雪花ID，{@link IdGenerateUtils} 通过它为实体生成主键
+ * 未接入登记中心时使用固定ID {@link WorkerIdRegistry#LEGACY_WORKER_ID}，只适合单节点；多节点部署需在启动阶段、
+ * 第一次生成ID之前接入，例如在配置类中:
+ * <pre>
+ * &#64;Bean(destroyMethod = "close")
+ * public WorkerIdAllocator workerIdAllocator(DataSource dataSource) throws IOException {
+ *     WorkerIdAllocator allocator = new WorkerIdAllocator(new JdbcWorkerIdRegistry(dataSource));
+ *     SnowFlakeHolder.use(allocator);
+ *     return allocator;
+ * }
+ * </pre>
+ * 登记中心不会租出固定ID，滚动升级期间新旧节点的ID不会重复，但尚未升级的旧节点之间仍共用固定ID
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
 public class SnowFlakeHolder {
-    private static long workerId = 0;
-    private static long datacenterId = 1;
-    private static Snowflake snowflake = IdUtil.createSnowflake(workerId,datacenterId);
+    private static volatile SnowflakeIdGenerator snowflake = new SnowflakeIdGenerator(WorkerIdRegistry.LEGACY_WORKER_ID);
 
     private SnowFlakeHolder(){}
 
+    /**
+     * 改用从登记中心租用的工作节点ID，多节点部署时在启动阶段调用，避免各节点使用相同的固定ID
+     */
+    public static void use(WorkerIdAllocator allocator) {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(allocator);
+        generator.continueAfter(snowflake);
+        snowflake = generator;
+    }
+
+    public static long nextId() {
+        return snowflake.nextId();
+    }
+
     public static  String generateId(){
        return String.valueOf(snowflake.nextId());
     }
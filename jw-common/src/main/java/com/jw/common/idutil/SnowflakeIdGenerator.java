@@ -0,0 +1,136 @@
+package com.jw.common.idutil;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * @description: 无锁的雪花ID生成器，位布局和起始时间与 hutool Snowflake 相同，新旧ID保持整体递增
+ * 时间戳和序列号打包在一个 AtomicLong 中，通过 CAS 推进，不使用监视器锁，生成的ID严格递增
+ * 同一毫秒内序列号用完或时钟小幅回拨时借用后续的毫秒继续发号，但最多领先时钟 {@link #MAX_DRIFT_MILLIS} 毫秒，
+ * 达到上限后等待时钟追上；时钟回拨超过该值时与 hutool 一样抛出异常。重启或释放ID所需的时间远大于该值，不会重复发号
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class SnowflakeIdGenerator {
+    /**
+     * 与 hutool Snowflake 相同的起始时间 2010-11-04 09:42:54.657
+     */
+    static final long EPOCH = 1288834974657L;
+    static final int SEQUENCE_BITS = 12;
+    static final int WORKER_ID_BITS = 10;
+    static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    static final int TIMESTAMP_SHIFT = SEQUENCE_BITS + WORKER_ID_BITS;
+    /**
+     * 发号时间戳最多领先系统时钟的毫秒数
+     */
+    static final long MAX_DRIFT_MILLIS = 5;
+
+    /**
+     * 高位为相对起始时间的毫秒数，低 12 位为该毫秒内最后发出的序列号
+     */
+    private final AtomicLong state = new AtomicLong();
+    private final WorkerIdAllocator allocator;
+    private final long workerId;
+
+    /**
+     * 固定的工作节点ID，由部署方保证各节点不重复
+     *
+     * @param workerId 0 ~ {@link WorkerIdRegistry#MAX_WORKER_ID}
+     */
+    public SnowflakeIdGenerator(long workerId) {
+        if (workerId < 0 || workerId > WorkerIdRegistry.MAX_WORKER_ID) {
+            throw new IllegalArgumentException("workerId must be between 0 and " + WorkerIdRegistry.MAX_WORKER_ID);
+        }
+        this.allocator = null;
+        this.workerId = workerId;
+    }
+
+    /**
+     * 与 hutool {@code IdUtil.createSnowflake(workerId, datacenterId)} 生成相同布局的ID
+     *
+     * @param workerId     0 ~ 31
+     * @param datacenterId 0 ~ 31
+     */
+    public SnowflakeIdGenerator(long workerId, long datacenterId) {
+        this(checkFiveBits(datacenterId) << 5 | checkFiveBits(workerId));
+    }
+
+    /**
+     * 使用租用的工作节点ID，租约丢失后切换到新的ID；本地有效期过后到续约成功前拒绝发号
+     */
+    public SnowflakeIdGenerator(WorkerIdAllocator allocator) {
+        this.allocator = allocator;
+        this.workerId = -1;
+    }
+
+    /**
+     * @throws IllegalStateException 租用的ID已超过有效期，或时钟回拨超过 {@link #MAX_DRIFT_MILLIS}
+     */
+    public long nextId() {
+        WorkerIdAllocator.Assignment assignment = allocator != null ? allocator.current() : null;
+        long next;
+        for (; ; ) {
+            long last = state.get();
+            long lastTimestamp = last >>> SEQUENCE_BITS;
+            long now = System.currentTimeMillis() - EPOCH;
+            if (now > lastTimestamp) {
+                next = now << SEQUENCE_BITS;
+            } else if (lastTimestamp - now > MAX_DRIFT_MILLIS) {
+                throw new IllegalStateException("Clock moved backwards. Refusing to generate id for "
+                        + (lastTimestamp - now) + "ms");
+            } else if ((last & SEQUENCE_MASK) < SEQUENCE_MASK) {
+                next = last + 1;
+            } else if (lastTimestamp + 1 - now <= MAX_DRIFT_MILLIS) {
+                next = (lastTimestamp + 1) << SEQUENCE_BITS;
+            } else {
+                //借用已达上限，等时钟追上
+                Thread.yield();
+                continue;
+            }
+            if (state.compareAndSet(last, next)) {
+                break;
+            }
+        }
+        long timestamp = next >>> SEQUENCE_BITS;
+        long id = workerId;
+        if (assignment != null) {
+            //用发号的时间戳而不是当前时间比较：借用的毫秒也不能越过有效期，保证被接管后不会与新的持有者重复
+            if (timestamp + EPOCH >= assignment.validUntil) {
+                throw new IllegalStateException("worker id " + assignment.workerId + " lease expired");
+            }
+            id = assignment.workerId;
+        }
+        return timestamp << TIMESTAMP_SHIFT | id << SEQUENCE_BITS | next & SEQUENCE_MASK;
+    }
+
+    /**
+     * 从另一个生成器已发出的最后位置继续，切换生成器时避免新旧ID使用相同的工作节点ID和时间戳
+     */
+    void continueAfter(SnowflakeIdGenerator previous) {
+        state.set(previous.state.get());
+    }
+
+    public String nextIdStr() {
+        return Long.toString(nextId());
+    }
+
+    /**
+     * 从ID中取出生成时间(epoch 毫秒)
+     */
+    public static long timestampOf(long id) {
+        return (id >>> TIMESTAMP_SHIFT) + EPOCH;
+    }
+
+    /**
+     * 从ID中取出工作节点ID(含数据中心ID)
+     */
+    public static int workerIdOf(long id) {
+        return (int) (id >>> SEQUENCE_BITS & WorkerIdRegistry.MAX_WORKER_ID);
+    }
+
+    private static long checkFiveBits(long value) {
+        if (value < 0 || value > 31) {
+            throw new IllegalArgumentException("workerId and datacenterId must be between 0 and 31");
+        }
+        return value;
+    }
+}
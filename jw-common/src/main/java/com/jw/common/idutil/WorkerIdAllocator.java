@@ -0,0 +1,153 @@
+package com.jw.common.idutil;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 从登记中心租用工作节点ID，后台每 1/4 租约时长续约一次；租约丢失时重新租用新的ID
+ * 本地认为ID的有效期比登记中心的到期时刻提前 1/4 租约时长，留出时钟偏差和续约失败的余量，超过有效期后生成器拒绝发号
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class WorkerIdAllocator implements Closeable {
+    public static final long DEFAULT_TTL_MILLIS = 60_000;
+
+    private static final int MAX_OWNER_LENGTH = 64;
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final WorkerIdRegistry registry;
+    private final String owner;
+    private final long ttlMillis;
+    private final ScheduledExecutorService scheduler;
+    /**
+     * 只在构造和心跳线程中修改
+     */
+    private volatile WorkerIdLease lease;
+    private volatile Assignment current;
+    private boolean closed;
+
+    /**
+     * 租用ID并开始续约
+     */
+    public WorkerIdAllocator(WorkerIdRegistry registry) throws IOException {
+        this(registry, defaultOwner(), DEFAULT_TTL_MILLIS);
+    }
+
+    /**
+     * 租用ID并开始续约
+     *
+     * @param owner 节点标识，不能包含空白字符
+     */
+    public WorkerIdAllocator(WorkerIdRegistry registry, String owner, long ttlMillis) throws IOException {
+        if (ttlMillis < 4 || owner == null || owner.isEmpty() || owner.length() > MAX_OWNER_LENGTH
+                || owner.chars().anyMatch(Character::isWhitespace)) {
+            throw new IllegalArgumentException("invalid owner or ttl");
+        }
+        this.registry = registry;
+        this.owner = owner;
+        this.ttlMillis = ttlMillis;
+        long start = System.currentTimeMillis();
+        update(registry.acquire(owner, ttlMillis), start);
+        log.info("acquired worker id {} as {}", lease.getWorkerId(), owner);
+        this.scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "worker-id-heartbeat-" + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        long period = ttlMillis / 4;
+        scheduler.scheduleWithFixedDelay(this::heartbeat, period, period, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * 当前的工作节点ID，0 ~ {@link WorkerIdRegistry#MAX_WORKER_ID}
+     */
+    public int getWorkerId() {
+        return current.workerId;
+    }
+
+    /**
+     * 当前ID在本地的有效期(epoch 毫秒)，不晚于登记中心的到期时刻
+     */
+    public long getValidUntil() {
+        return current.validUntil;
+    }
+
+    /**
+     * ID和有效期放在同一个不可变对象中，一次读取即可得到一致的两者
+     */
+    Assignment current() {
+        return current;
+    }
+
+    /**
+     * 停止发号、停止续约并释放ID，与心跳互斥，避免释放后又被续约或重新租用
+     */
+    @Override
+    public synchronized void close() throws IOException {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        scheduler.shutdown();
+        current = new Assignment(current.workerId, 0);
+        //已发出的ID最多领先时钟 MAX_DRIFT_MILLIS，等这段时间过去再释放，其他节点立即接管也不会重复
+        try {
+            Thread.sleep(SnowflakeIdGenerator.MAX_DRIFT_MILLIS + 1);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        registry.release(lease);
+    }
+
+    private synchronized void heartbeat() {
+        if (closed) {
+            return;
+        }
+        WorkerIdLease held = lease;
+        long start = System.currentTimeMillis();
+        try {
+            WorkerIdLease renewed = registry.renew(held, ttlMillis);
+            if (renewed == null) {
+                log.error("worker id {} lease lost, acquire a new one", held.getWorkerId());
+                start = System.currentTimeMillis();
+                renewed = registry.acquire(owner, ttlMillis);
+                log.info("acquired worker id {} as {}", renewed.getWorkerId(), owner);
+            }
+            update(renewed, start);
+        } catch (IOException | RuntimeException e) {
+            log.warn("renew worker id {} failed: {}", held.getWorkerId(), e.getMessage());
+        }
+    }
+
+    private void update(WorkerIdLease lease, long start) {
+        this.lease = lease;
+        this.current = new Assignment(lease.getWorkerId(), start + ttlMillis - ttlMillis / 4);
+    }
+
+    private static String defaultOwner() {
+        //进程名形如 pid@host，再加随机后缀区分同一进程内的多个分配器
+        String owner = (ManagementFactory.getRuntimeMXBean().getName() + "-"
+                + UUID.randomUUID().toString().substring(0, 8)).replaceAll("\\s", "_");
+        //不超过数据库表 owner 列的长度，保留末尾的随机后缀
+        return owner.length() > MAX_OWNER_LENGTH ? owner.substring(owner.length() - MAX_OWNER_LENGTH) : owner;
+    }
+
+    static final class Assignment {
+        final int workerId;
+        final long validUntil;
+
+        private Assignment(int workerId, long validUntil) {
+            this.workerId = workerId;
+            this.validUntil = validUntil;
+        }
+    }
+}
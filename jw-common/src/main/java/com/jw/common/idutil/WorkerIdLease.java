@@ -0,0 +1,41 @@
+package com.jw.common.idutil;
+
+/**
+ * @description: 工作节点ID的租约，到期前需续约，否则ID可能被其他节点接管
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class WorkerIdLease {
+    private final int workerId;
+    private final String owner;
+    private final long expireAt;
+
+    public WorkerIdLease(int workerId, String owner, long expireAt) {
+        this.workerId = workerId;
+        this.owner = owner;
+        this.expireAt = expireAt;
+    }
+
+    /**
+     * 0 ~ {@link WorkerIdRegistry#MAX_WORKER_ID}，高5位为数据中心ID，低5位为机器ID
+     */
+    public int getWorkerId() {
+        return workerId;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    /**
+     * 租约到期时刻(epoch 毫秒)
+     */
+    public long getExpireAt() {
+        return expireAt;
+    }
+
+    @Override
+    public String toString() {
+        return "WorkerIdLease{workerId=" + workerId + ", owner=" + owner + ", expireAt=" + expireAt + "}";
+    }
+}
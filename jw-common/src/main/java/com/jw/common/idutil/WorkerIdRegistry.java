@@ -0,0 +1,38 @@
+package com.jw.common.idutil;
+
+import java.io.IOException;
+
+/**
+ * @description: 工作节点ID的登记中心，保证同一时刻每个ID只租给一个节点；租约过期后可被其他节点接管
+ * 本地或单机多实例使用 {@link FileWorkerIdRegistry}，多机部署使用 {@link JdbcWorkerIdRegistry}
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public interface WorkerIdRegistry {
+    /**
+     * 雪花算法中数据中心ID和机器ID共 10 位
+     */
+    int MAX_WORKER_ID = 1023;
+    /**
+     * {@link SnowFlakeHolder} 未接入登记中心时使用的固定ID(datacenterId=1, workerId=0)，登记中心不租出该ID，
+     * 滚动升级期间尚未接入的旧节点与已租用ID的新节点不会重复
+     */
+    int LEGACY_WORKER_ID = 1 << 5;
+
+    /**
+     * 租用一个空闲或已过期的ID
+     *
+     * @param owner 节点标识，续约和释放时校验
+     * @throws IllegalStateException 没有可用的ID
+     */
+    WorkerIdLease acquire(String owner, long ttlMillis) throws IOException;
+
+    /**
+     * 续约
+     *
+     * @return 新的租约，租约已丢失(已过期并被接管或已释放)时返回null
+     */
+    WorkerIdLease renew(WorkerIdLease lease, long ttlMillis) throws IOException;
+
+    void release(WorkerIdLease lease) throws IOException;
+}
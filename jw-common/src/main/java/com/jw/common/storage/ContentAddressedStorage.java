@@ -0,0 +1,242 @@
+package com.jw.common.storage;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * @description: 按内容寻址的存储，对象 key 由内容的 SHA-256 决定({prefix}/{前两位}/{哈希}.{扩展名})，相同内容只上传一次
+ * 哈希在读取输入流时同步计算；已上传的哈希记录在有界的 LRU 索引中，并追加写入索引文件(每行"哈希 key"，
+ * 移除的条目追加"-哈希")，重启后加载
+ * 索引未命中时先检查存储端是否已有该对象，多实例共享存储时也不会重复上传；通过其他途径删除对象后需调用 {@link #forget(String)}
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class ContentAddressedStorage {
+    private static final int SPOOL_BUFFER_SIZE = 8192;
+    private static final char TOMBSTONE = '-';
+
+    private final ObjectStorage storage;
+    private final MultipartUploader uploader;
+    private final String prefix;
+    private final int maxEntries;
+    private final Path indexFile;
+    /**
+     * 哈希 -> 对象 key，按访问顺序淘汰
+     */
+    private final LinkedHashMap<String, String> index;
+    private int indexFileLines;
+
+    /**
+     * @param uploader   大文件使用的分片上传器，为null时总是单次上传
+     * @param prefix     对象 key 的前缀，如 images
+     * @param indexFile  索引文件，为null时只在内存中索引
+     * @param maxEntries 内存索引的最大条目数，必须大于0
+     */
+    public ContentAddressedStorage(ObjectStorage storage, MultipartUploader uploader, String prefix, Path indexFile,
+                                   int maxEntries) throws IOException {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("maxEntries must be positive: " + maxEntries);
+        }
+        this.storage = storage;
+        this.uploader = uploader;
+        this.prefix = prefix == null || prefix.isEmpty() || prefix.endsWith("/") ? prefix : prefix + "/";
+        this.maxEntries = maxEntries;
+        this.indexFile = indexFile;
+        this.index = new LinkedHashMap<String, String>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, String> eldest) {
+                return size() > ContentAddressedStorage.this.maxEntries;
+            }
+        };
+        loadIndex();
+    }
+
+    /**
+     * 保存上传的文件，扩展名取自原始文件名，没有时取自 Content-Type；上传的文件只读取一次
+     *
+     * @return 对象 key，内容相同时返回已有的 key
+     */
+    public String store(MultipartFile file) throws IOException {
+        try (InputStream in = file.getInputStream()) {
+            return store(in, extension(file.getOriginalFilename(), file.getContentType()), file.getContentType());
+        }
+    }
+
+    public String store(byte[] content, String extension, String contentType) throws IOException {
+        String hash = DigestUtils.sha256Hex(content);
+        String existing = lookup(hash);
+        if (existing != null) {
+            return existing;
+        }
+        String key = key(hash, extension);
+        if (!storage.exists(key)) {
+            upload(key, new ByteArrayInputStream(content), content.length, contentType);
+        }
+        record(hash, key);
+        return key;
+    }
+
+    /**
+     * 保存输入流的内容，读取时同步计算哈希并写入临时文件，不关闭输入流
+     */
+    public String store(InputStream in, String extension, String contentType) throws IOException {
+        Path temp = Files.createTempFile("cas-", ".tmp");
+        try {
+            MessageDigest sha256 = DigestUtils.getSha256Digest();
+            long size = 0;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                DigestInputStream digest = new DigestInputStream(in, sha256);
+                byte[] buffer = new byte[SPOOL_BUFFER_SIZE];
+                int n;
+                while ((n = digest.read(buffer)) != -1) {
+                    out.write(buffer, 0, n);
+                    size += n;
+                }
+            }
+            String hash = Hex.encodeHexString(sha256.digest());
+            String existing = lookup(hash);
+            if (existing != null) {
+                return existing;
+            }
+            String key = key(hash, extension);
+            if (!storage.exists(key)) {
+                try (InputStream spooled = Files.newInputStream(temp)) {
+                    upload(key, spooled, size, contentType);
+                }
+            }
+            record(hash, key);
+            return key;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * 从索引中移除，对象被删除后调用；同时在索引文件中记录，重启后不会再加载该条目
+     */
+    public synchronized void forget(String hash) {
+        index.remove(hash);
+        appendIndex(TOMBSTONE + hash);
+    }
+
+    public synchronized int indexSize() {
+        return index.size();
+    }
+
+    private void upload(String key, InputStream in, long size, String contentType) throws IOException {
+        if (uploader != null) {
+            uploader.upload(key, in, contentType);
+        } else {
+            storage.putObject(key, in, size, contentType);
+        }
+    }
+
+    private String key(String hash, String extension) {
+        StringBuilder key = new StringBuilder();
+        if (prefix != null) {
+            key.append(prefix);
+        }
+        key.append(hash, 0, 2).append('/').append(hash);
+        if (extension != null && !extension.isEmpty() && extension.indexOf('/') < 0 && extension.indexOf('\\') < 0) {
+            key.append('.').append(extension);
+        }
+        return key.toString();
+    }
+
+    private synchronized String lookup(String hash) {
+        return index.get(hash);
+    }
+
+    private synchronized void record(String hash, String key) {
+        if (key.equals(index.put(hash, key))) {
+            return;
+        }
+        appendIndex(hash + ' ' + key);
+    }
+
+    private void appendIndex(String line) {
+        if (indexFile == null) {
+            return;
+        }
+        try {
+            Files.write(indexFile, (line + '\n').getBytes(StandardCharsets.UTF_8),
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+            if (++indexFileLines > maxEntries * 2) {
+                compactIndex();
+            }
+        } catch (IOException e) {
+            log.warn("write content index {} failed: {}", indexFile, e.getMessage());
+        }
+    }
+
+    private void loadIndex() throws IOException {
+        if (indexFile == null || !Files.exists(indexFile)) {
+            return;
+        }
+        List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        for (String line : lines) {
+            int space = line.indexOf(' ');
+            if (!line.isEmpty() && line.charAt(0) == TOMBSTONE) {
+                index.remove(line.substring(1));
+            } else if (space > 0) {
+                index.put(line.substring(0, space), line.substring(space + 1));
+            }
+        }
+        indexFileLines = lines.size();
+        if (indexFileLines > maxEntries * 2) {
+            compactIndex();
+        }
+    }
+
+    /**
+     * 用内存中的条目重写索引文件，丢弃已淘汰、已移除和重复的行
+     */
+    private void compactIndex() throws IOException {
+        Path temp = Files.createTempFile(indexFile.toAbsolutePath().getParent(), ".index-", ".tmp");
+        try {
+            try (Writer writer = Files.newBufferedWriter(temp, StandardCharsets.UTF_8)) {
+                for (Map.Entry<String, String> entry : index.entrySet()) {
+                    writer.write(entry.getKey() + ' ' + entry.getValue() + '\n');
+                }
+            }
+            try {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, indexFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            indexFileLines = index.size();
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static String extension(String filename, String contentType) {
+        if (filename != null && filename.lastIndexOf('.') >= 0) {
+            return filename.substring(filename.lastIndexOf('.') + 1);
+        }
+        if (contentType != null && contentType.indexOf('/') >= 0) {
+            return contentType.substring(contentType.indexOf('/') + 1);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,213 @@
+package com.jw.common.storage;
+
+import com.jw.common.util.CommonUtils;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * @description: 基于本地目录的对象存储，key 对应根目录下的相对路径，用于本地开发和测试
+ * 写入先落临时文件再原子移动，读到的对象总是完整的；分片保存在根目录的 .multipart/{uploadId} 下，合并时按顺序拼接
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class LocalObjectStorage implements ObjectStorage {
+    private static final String MULTIPART_DIR = ".multipart";
+    private static final String PART_SUFFIX = ".part";
+    private static final String ETAG_SUFFIX = ".etag";
+    private static final String KEY_FILE = "key";
+
+    private final Path root;
+
+    public LocalObjectStorage(Path root) throws IOException {
+        this.root = Files.createDirectories(root).toAbsolutePath().normalize();
+    }
+
+    public Path getRoot() {
+        return root;
+    }
+
+    @Override
+    public void putObject(String key, InputStream in, long length, String contentType) throws IOException {
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public InputStream getObject(String key) throws IOException {
+        try {
+            return Files.newInputStream(resolve(key));
+        } catch (NoSuchFileException e) {
+            throw new FileNotFoundException(key);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) {
+        return Files.isRegularFile(resolve(key));
+    }
+
+    @Override
+    public void deleteObject(String key) throws IOException {
+        Files.deleteIfExists(resolve(key));
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) throws IOException {
+        resolve(key);
+        String uploadId = CommonUtils.getUUID();
+        Path dir = Files.createDirectories(uploadDir(uploadId));
+        Files.write(dir.resolve(KEY_FILE), key.getBytes(StandardCharsets.UTF_8));
+        return uploadId;
+    }
+
+    @Override
+    public UploadedPart uploadPart(String key, String uploadId, int partNumber, byte[] data, int offset, int length)
+            throws IOException {
+        if (partNumber < 1) {
+            throw new IllegalArgumentException("partNumber must start from 1: " + partNumber);
+        }
+        Path dir = checkUpload(key, uploadId);
+        Path temp = Files.createTempFile(dir, ".part-", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                ByteBuffer buffer = ByteBuffer.wrap(data, offset, length);
+                while (buffer.hasRemaining()) {
+                    out.write(buffer);
+                }
+            }
+            MessageDigest md5 = DigestUtils.getMd5Digest();
+            md5.update(data, offset, length);
+            String etag = Hex.encodeHexString(md5.digest());
+            move(temp, dir.resolve(partNumber + PART_SUFFIX));
+            Files.write(dir.resolve(partNumber + ETAG_SUFFIX), etag.getBytes(StandardCharsets.US_ASCII));
+            return new UploadedPart(partNumber, etag, length);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    @Override
+    public List<UploadedPart> listParts(String key, String uploadId) throws IOException {
+        Path dir = checkUpload(key, uploadId);
+        List<UploadedPart> parts = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir, "*" + PART_SUFFIX)) {
+            for (Path part : stream) {
+                String name = part.getFileName().toString();
+                int partNumber = Integer.parseInt(name.substring(0, name.length() - PART_SUFFIX.length()));
+                Path etag = dir.resolve(partNumber + ETAG_SUFFIX);
+                if (Files.exists(etag)) {
+                    parts.add(new UploadedPart(partNumber, new String(Files.readAllBytes(etag), StandardCharsets.US_ASCII),
+                            Files.size(part)));
+                }
+            }
+        }
+        parts.sort(Comparator.comparingInt(UploadedPart::getPartNumber));
+        return parts;
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException {
+        Path dir = checkUpload(key, uploadId);
+        List<UploadedPart> sorted = new ArrayList<>(parts);
+        sorted.sort(Comparator.comparingInt(UploadedPart::getPartNumber));
+        Path target = resolve(key);
+        Files.createDirectories(target.getParent());
+        Path temp = Files.createTempFile(target.getParent(), ".upload-", ".tmp");
+        try {
+            try (FileChannel out = FileChannel.open(temp, StandardOpenOption.WRITE)) {
+                for (UploadedPart part : sorted) {
+                    Path file = dir.resolve(part.getPartNumber() + PART_SUFFIX);
+                    Path etag = dir.resolve(part.getPartNumber() + ETAG_SUFFIX);
+                    if (!Files.exists(etag)
+                            || !part.getEtag().equals(new String(Files.readAllBytes(etag), StandardCharsets.US_ASCII))) {
+                        throw new IOException("part " + part.getPartNumber() + " of " + key + " is missing or changed");
+                    }
+                    try (FileChannel in = FileChannel.open(file, StandardOpenOption.READ)) {
+                        long size = in.size();
+                        for (long position = 0; position < size; ) {
+                            position += in.transferTo(position, size - position, out);
+                        }
+                    }
+                }
+            }
+            move(temp, target);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+        deleteUpload(dir);
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) throws IOException {
+        deleteUpload(checkUpload(key, uploadId));
+    }
+
+    /**
+     * key 解析为根目录下的路径，不允许通过 .. 或绝对路径跳出根目录
+     */
+    private Path resolve(String key) {
+        Path path = root.resolve(key).normalize();
+        if (!path.startsWith(root) || path.equals(root) || path.startsWith(root.resolve(MULTIPART_DIR))) {
+            throw new IllegalArgumentException("invalid key: " + key);
+        }
+        return path;
+    }
+
+    private Path uploadDir(String uploadId) {
+        if (!uploadId.matches("[0-9a-f]{32}")) {
+            throw new IllegalArgumentException("invalid uploadId: " + uploadId);
+        }
+        return root.resolve(MULTIPART_DIR).resolve(uploadId);
+    }
+
+    private Path checkUpload(String key, String uploadId) throws IOException {
+        Path dir = uploadDir(uploadId);
+        Path keyFile = dir.resolve(KEY_FILE);
+        if (!Files.exists(keyFile) || !key.equals(new String(Files.readAllBytes(keyFile), StandardCharsets.UTF_8))) {
+            throw new FileNotFoundException("no such upload: " + uploadId + " for " + key);
+        }
+        return dir;
+    }
+
+    private static void deleteUpload(Path dir) throws IOException {
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir)) {
+            for (Path file : stream) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(dir);
+    }
+
+    private static void move(Path source, Path target) throws IOException {
+        try {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.jw.common.storage;
+
+/**
+ * @description: 分片上传配置，时间单位为毫秒
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class MultipartUploadConfig {
+    /**
+     * 分片大小(字节)，不超过该大小的对象直接单次上传；OSS 要求除最后一片外不小于 100KB
+     */
+    private int partSize = 8 * 1024 * 1024;
+    /**
+     * 同时上传的分片数，读取输入流的线程最多领先 concurrency + 1 个分片，内存占用约为 (concurrency + 1) * partSize
+     */
+    private int concurrency = 4;
+    /**
+     * 单个分片失败后的最大重试次数
+     */
+    private int maxRetries = 3;
+    /**
+     * 重试退避基数，实际等待时间在 [0, min(retryMaxBackoff, retryBackoff * 2^n)] 之间随机
+     */
+    private long retryBackoff = 200;
+    /**
+     * 重试退避上限
+     */
+    private long retryMaxBackoff = 5000;
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(int partSize) {
+        this.partSize = partSize;
+    }
+
+    public int getConcurrency() {
+        return concurrency;
+    }
+
+    public void setConcurrency(int concurrency) {
+        this.concurrency = concurrency;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(long retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public long getRetryMaxBackoff() {
+        return retryMaxBackoff;
+    }
+
+    public void setRetryMaxBackoff(long retryMaxBackoff) {
+        this.retryMaxBackoff = retryMaxBackoff;
+    }
+}
@@ -0,0 +1,389 @@
+package com.jw.common.storage;
+
+import com.jw.common.util.JsonUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.commons.codec.binary.Hex;
+import org.apache.commons.codec.digest.DigestUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * @description: 分片并行上传：调用线程按分片读取输入流，分片交给有界线程池上传，每个分片独立重试
+ * 分片缓冲区在实例内复用，缓冲区用完时读取线程阻塞等待，内存占用不超过 (concurrency + 1) * partSize，形成对输入流的背压
+ * 指定断点文件时可断点续传：再次上传同一内容会跳过存储端已有且 MD5 一致的分片
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class MultipartUploader implements Closeable {
+    private static final AtomicInteger THREAD_ID = new AtomicInteger();
+
+    private final ObjectStorage storage;
+    private final MultipartUploadConfig config;
+    private final ThreadPoolExecutor executor;
+    /**
+     * 可用的缓冲区数量，许可数即同时存在的分片缓冲区上限
+     */
+    private final Semaphore bufferPermits;
+    private final Queue<byte[]> freeBuffers = new ConcurrentLinkedQueue<>();
+
+    public MultipartUploader(ObjectStorage storage) {
+        this(storage, new MultipartUploadConfig());
+    }
+
+    public MultipartUploader(ObjectStorage storage, MultipartUploadConfig config) {
+        if (config.getPartSize() <= 0 || config.getConcurrency() <= 0) {
+            throw new IllegalArgumentException("partSize and concurrency must be positive");
+        }
+        this.storage = storage;
+        this.config = config;
+        this.bufferPermits = new Semaphore(config.getConcurrency() + 1);
+        this.executor = new ThreadPoolExecutor(config.getConcurrency(), config.getConcurrency(), 60, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<>(), r -> {
+            Thread thread = new Thread(r, "storage-upload-" + THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        this.executor.allowCoreThreadTimeOut(true);
+    }
+
+    /**
+     * 上传输入流的全部内容，不关闭输入流
+     *
+     * @return 上传的字节数
+     */
+    public long upload(String key, InputStream in, String contentType) throws IOException {
+        return upload(key, in, contentType, null);
+    }
+
+    /**
+     * 上传输入流的全部内容，不关闭输入流
+     *
+     * @param checkpoint 断点文件，为null时不续传，失败时取消上传；不为null时失败后保留已上传的分片，
+     *                   使用同一断点文件和相同内容再次调用即可续传，成功后删除断点文件
+     * @return 上传的字节数
+     */
+    public long upload(String key, InputStream in, String contentType, Path checkpoint) throws IOException {
+        int partSize = config.getPartSize();
+        String uploadId = resume(key, checkpoint);
+        Map<Integer, UploadedPart> existing = new HashMap<>(16);
+        if (uploadId != null) {
+            try {
+                for (UploadedPart part : storage.listParts(key, uploadId)) {
+                    existing.put(part.getPartNumber(), part);
+                }
+            } catch (IOException e) {
+                log.warn("upload {} of {} can not be resumed, start over: {}", uploadId, key, e.getMessage());
+                uploadId = null;
+            }
+        }
+        byte[] first = acquireBuffer();
+        int read;
+        boolean handedOff = false;
+        try {
+            read = readFully(in, first);
+            if (uploadId == null && read < partSize) {
+                storage.putObject(key, new ByteArrayInputStream(first, 0, read), read, contentType);
+                deleteCheckpoint(checkpoint);
+                return read;
+            }
+            if (uploadId == null) {
+                uploadId = storage.initiateMultipartUpload(key, contentType);
+                saveCheckpoint(checkpoint, new UploadCheckpoint(key, uploadId, partSize));
+            }
+            handedOff = true;
+        } finally {
+            if (!handedOff) {
+                releaseBuffer(first);
+            }
+        }
+        Upload upload = new Upload(key, uploadId);
+        long total = 0;
+        try {
+            byte[] buffer = first;
+            for (int partNumber = 1; ; partNumber++) {
+                if (partNumber > 1) {
+                    upload.checkFailure();
+                    buffer = acquireBuffer();
+                    try {
+                        read = readFully(in, buffer);
+                    } catch (IOException | RuntimeException e) {
+                        releaseBuffer(buffer);
+                        throw e;
+                    }
+                    if (read == 0) {
+                        releaseBuffer(buffer);
+                        break;
+                    }
+                }
+                total += read;
+                UploadedPart uploaded = existing.get(partNumber);
+                if (uploaded != null && uploaded.getSize() == read && sameContent(uploaded, buffer, read)) {
+                    upload.parts.add(uploaded);
+                    releaseBuffer(buffer);
+                } else {
+                    upload.submit(partNumber, buffer, read);
+                }
+                if (read < partSize) {
+                    break;
+                }
+            }
+            List<UploadedPart> parts = upload.await();
+            storage.completeMultipartUpload(key, uploadId, parts);
+        } catch (IOException | RuntimeException e) {
+            //等已提交的分片全部结束后再取消上传
+            upload.cancel();
+            if (checkpoint == null) {
+                abortQuietly(key, uploadId);
+            }
+            throw e;
+        }
+        deleteCheckpoint(checkpoint);
+        return total;
+    }
+
+    /**
+     * 关闭上传线程池，进行中的分片会继续完成
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+    }
+
+    private String resume(String key, Path checkpoint) throws IOException {
+        if (checkpoint == null || !Files.exists(checkpoint)) {
+            return null;
+        }
+        UploadCheckpoint saved;
+        try {
+            saved = JsonUtil.parse(Files.readAllBytes(checkpoint), UploadCheckpoint.class);
+        } catch (IllegalArgumentException e) {
+            log.warn("ignore broken upload checkpoint {}: {}", checkpoint, e.getMessage());
+            return null;
+        }
+        if (saved == null || !key.equals(saved.getKey()) || saved.getPartSize() != config.getPartSize()) {
+            return null;
+        }
+        return saved.getUploadId();
+    }
+
+    private UploadedPart uploadPart(String key, String uploadId, int partNumber, byte[] data, int length)
+            throws IOException {
+        for (int attempt = 0; ; attempt++) {
+            try {
+                return storage.uploadPart(key, uploadId, partNumber, data, 0, length);
+            } catch (IOException e) {
+                if (attempt >= config.getMaxRetries() || e instanceof InterruptedIOException) {
+                    throw e;
+                }
+                log.warn("upload part {} of {} failed, retry {}: {}", partNumber, key, attempt + 1, e.getMessage());
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) throws InterruptedIOException {
+        long ceiling = Math.min(config.getRetryMaxBackoff(), config.getRetryBackoff() << Math.min(attempt, 20));
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(ceiling + 1));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("分片上传重试退避时被中断");
+        }
+    }
+
+    private byte[] acquireBuffer() throws InterruptedIOException {
+        try {
+            bufferPermits.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("等待分片缓冲区时被中断");
+        }
+        byte[] buffer = freeBuffers.poll();
+        return buffer != null ? buffer : new byte[config.getPartSize()];
+    }
+
+    private void releaseBuffer(byte[] buffer) {
+        freeBuffers.offer(buffer);
+        bufferPermits.release();
+    }
+
+    private void abortQuietly(String key, String uploadId) {
+        try {
+            storage.abortMultipartUpload(key, uploadId);
+        } catch (IOException | RuntimeException e) {
+            log.warn("abort multipart upload {} of {} failed: {}", uploadId, key, e.getMessage());
+        }
+    }
+
+    private static boolean sameContent(UploadedPart part, byte[] data, int length) {
+        MessageDigest md5 = DigestUtils.getMd5Digest();
+        md5.update(data, 0, length);
+        String etag = part.getEtag();
+        //OSS 的分片 ETag 为带引号的大写 MD5
+        return etag != null && Hex.encodeHexString(md5.digest()).equalsIgnoreCase(etag.replace("\"", ""));
+    }
+
+    private static int readFully(InputStream in, byte[] buffer) throws IOException {
+        int total = 0;
+        while (total < buffer.length) {
+            int n = in.read(buffer, total, buffer.length - total);
+            if (n < 0) {
+                break;
+            }
+            total += n;
+        }
+        return total;
+    }
+
+    private static void saveCheckpoint(Path checkpoint, UploadCheckpoint value) throws IOException {
+        if (checkpoint == null) {
+            return;
+        }
+        Path parent = checkpoint.toAbsolutePath().getParent();
+        Files.createDirectories(parent);
+        Path temp = Files.createTempFile(parent, ".checkpoint-", ".tmp");
+        try {
+            Files.write(temp, JsonUtil.toBytes(value));
+            try {
+                Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temp, checkpoint, StandardCopyOption.REPLACE_EXISTING);
+            }
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private static void deleteCheckpoint(Path checkpoint) throws IOException {
+        if (checkpoint != null) {
+            Files.deleteIfExists(checkpoint);
+        }
+    }
+
+    /**
+     * 一次上传中已提交的分片任务
+     */
+    private final class Upload {
+        private final String key;
+        private final String uploadId;
+        private final List<UploadedPart> parts = new ArrayList<>();
+        private final List<Future<UploadedPart>> futures = new ArrayList<>();
+        private volatile boolean failed;
+        private volatile boolean cancelled;
+
+        private Upload(String key, String uploadId) {
+            this.key = key;
+            this.uploadId = uploadId;
+        }
+
+        private void submit(int partNumber, byte[] buffer, int length) {
+            try {
+                futures.add(executor.submit(() -> {
+                    try {
+                        if (cancelled) {
+                            throw new InterruptedIOException("upload cancelled");
+                        }
+                        return uploadPart(key, uploadId, partNumber, buffer, length);
+                    } catch (IOException | RuntimeException e) {
+                        failed = true;
+                        throw e;
+                    } finally {
+                        releaseBuffer(buffer);
+                    }
+                }));
+            } catch (RuntimeException e) {
+                releaseBuffer(buffer);
+                throw e;
+            }
+        }
+
+        /**
+         * 已有分片失败时尽早停止读取输入流
+         */
+        private void checkFailure() throws IOException {
+            if (!failed) {
+                return;
+            }
+            for (Future<UploadedPart> future : futures) {
+                if (future.isDone()) {
+                    get(future);
+                }
+            }
+        }
+
+        private List<UploadedPart> await() throws IOException {
+            List<UploadedPart> result = new ArrayList<>(parts);
+            for (Future<UploadedPart> future : futures) {
+                result.add(get(future));
+            }
+            return result;
+        }
+
+        /**
+         * 未开始的分片任务直接结束并归还缓冲区，并等待进行中的分片结束，之后再取消上传才不会与分片写入竞争
+         * 等待期间被中断时仍等到全部结束，返回前恢复中断标记
+         */
+        private void cancel() {
+            cancelled = true;
+            boolean interrupted = false;
+            for (Future<UploadedPart> future : futures) {
+                while (true) {
+                    try {
+                        future.get();
+                        break;
+                    } catch (InterruptedException e) {
+                        interrupted = true;
+                    } catch (ExecutionException | CancellationException e) {
+                        break;
+                    }
+                }
+            }
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        private UploadedPart get(Future<UploadedPart> future) throws IOException {
+            try {
+                return future.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待分片上传时被中断");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
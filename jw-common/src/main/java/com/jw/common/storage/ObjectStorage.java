@@ -0,0 +1,60 @@
+package com.jw.common.storage;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.List;
+
+/**
+ * @description: 对象存储的抽象，线上使用 {@link OssObjectStorage}，本地开发和测试使用 {@link LocalObjectStorage}
+ * 大文件通过 {@link MultipartUploader} 分片并行上传
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public interface ObjectStorage {
+
+    /**
+     * 单次上传
+     *
+     * @param length      内容长度，未知时传 -1
+     * @param contentType 可以为null
+     */
+    void putObject(String key, InputStream in, long length, String contentType) throws IOException;
+
+    /**
+     * 读取对象，调用方负责关闭返回的流
+     *
+     * @throws java.io.FileNotFoundException 对象不存在
+     */
+    InputStream getObject(String key) throws IOException;
+
+    boolean exists(String key) throws IOException;
+
+    void deleteObject(String key) throws IOException;
+
+    /**
+     * 开始分片上传
+     *
+     * @return uploadId
+     */
+    String initiateMultipartUpload(String key, String contentType) throws IOException;
+
+    /**
+     * 上传一个分片，同一分片号重复上传时覆盖
+     *
+     * @param partNumber 从1开始
+     */
+    UploadedPart uploadPart(String key, String uploadId, int partNumber, byte[] data, int offset, int length)
+            throws IOException;
+
+    /**
+     * 已上传的分片，按分片号升序，用于断点续传
+     */
+    List<UploadedPart> listParts(String key, String uploadId) throws IOException;
+
+    /**
+     * 按分片号顺序合并
+     */
+    void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException;
+
+    void abortMultipartUpload(String key, String uploadId) throws IOException;
+}
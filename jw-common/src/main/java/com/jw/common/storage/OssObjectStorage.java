@@ -0,0 +1,150 @@
+package com.jw.common.storage;
+
+import com.aliyun.oss.ClientException;
+import com.aliyun.oss.OSS;
+import com.aliyun.oss.OSSErrorCode;
+import com.aliyun.oss.model.AbortMultipartUploadRequest;
+import com.aliyun.oss.model.CompleteMultipartUploadRequest;
+import com.aliyun.oss.model.InitiateMultipartUploadRequest;
+import com.aliyun.oss.model.ListPartsRequest;
+import com.aliyun.oss.model.ObjectMetadata;
+import com.aliyun.oss.model.PartETag;
+import com.aliyun.oss.model.PartListing;
+import com.aliyun.oss.model.PartSummary;
+import com.aliyun.oss.model.UploadPartRequest;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * @description: 阿里云 OSS 实现，客户端由调用方创建和关闭；SDK 的运行时异常统一转换为 IOException
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class OssObjectStorage implements ObjectStorage {
+    private final OSS client;
+    private final String bucket;
+
+    public OssObjectStorage(OSS client, String bucket) {
+        this.client = client;
+        this.bucket = bucket;
+    }
+
+    @Override
+    public void putObject(String key, InputStream in, long length, String contentType) throws IOException {
+        try {
+            client.putObject(bucket, key, in, metadata(length, contentType));
+        } catch (ClientException e) {
+            throw new IOException("putObject " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public InputStream getObject(String key) throws IOException {
+        try {
+            return client.getObject(bucket, key).getObjectContent();
+        } catch (ClientException e) {
+            if (OSSErrorCode.NO_SUCH_KEY.equals(e.getErrorCode())) {
+                throw new FileNotFoundException(key);
+            }
+            throw new IOException("getObject " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public boolean exists(String key) throws IOException {
+        try {
+            return client.doesObjectExist(bucket, key);
+        } catch (ClientException e) {
+            throw new IOException("doesObjectExist " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public void deleteObject(String key) throws IOException {
+        try {
+            client.deleteObject(bucket, key);
+        } catch (ClientException e) {
+            throw new IOException("deleteObject " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public String initiateMultipartUpload(String key, String contentType) throws IOException {
+        try {
+            return client.initiateMultipartUpload(new InitiateMultipartUploadRequest(bucket, key,
+                    metadata(-1, contentType))).getUploadId();
+        } catch (ClientException e) {
+            throw new IOException("initiateMultipartUpload " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public UploadedPart uploadPart(String key, String uploadId, int partNumber, byte[] data, int offset, int length)
+            throws IOException {
+        try {
+            PartETag etag = client.uploadPart(new UploadPartRequest(bucket, key, uploadId, partNumber,
+                    new ByteArrayInputStream(data, offset, length), length)).getPartETag();
+            return new UploadedPart(etag.getPartNumber(), etag.getETag(), length);
+        } catch (ClientException e) {
+            throw new IOException("uploadPart " + partNumber + " of " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public List<UploadedPart> listParts(String key, String uploadId) throws IOException {
+        List<UploadedPart> parts = new ArrayList<>();
+        try {
+            ListPartsRequest request = new ListPartsRequest(bucket, key, uploadId);
+            PartListing listing;
+            do {
+                listing = client.listParts(request);
+                for (PartSummary part : listing.getParts()) {
+                    parts.add(new UploadedPart(part.getPartNumber(), part.getETag(), part.getSize()));
+                }
+                request.setPartNumberMarker(listing.getNextPartNumberMarker());
+            } while (listing.isTruncated());
+        } catch (ClientException e) {
+            throw new IOException("listParts of " + key + " failed", e);
+        }
+        return parts;
+    }
+
+    @Override
+    public void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException {
+        List<PartETag> etags = new ArrayList<>(parts.size());
+        for (UploadedPart part : parts) {
+            etags.add(new PartETag(part.getPartNumber(), part.getEtag()));
+        }
+        etags.sort((a, b) -> Integer.compare(a.getPartNumber(), b.getPartNumber()));
+        try {
+            client.completeMultipartUpload(new CompleteMultipartUploadRequest(bucket, key, uploadId, etags));
+        } catch (ClientException e) {
+            throw new IOException("completeMultipartUpload " + key + " failed", e);
+        }
+    }
+
+    @Override
+    public void abortMultipartUpload(String key, String uploadId) throws IOException {
+        try {
+            client.abortMultipartUpload(new AbortMultipartUploadRequest(bucket, key, uploadId));
+        } catch (ClientException e) {
+            throw new IOException("abortMultipartUpload " + key + " failed", e);
+        }
+    }
+
+    private static ObjectMetadata metadata(long length, String contentType) {
+        ObjectMetadata metadata = new ObjectMetadata();
+        if (length >= 0) {
+            metadata.setContentLength(length);
+        }
+        if (contentType != null) {
+            metadata.setContentType(contentType);
+        }
+        return metadata;
+    }
+}
@@ -0,0 +1,45 @@
+package com.jw.common.storage;
+
+/**
+ * @description: 分片上传的断点，保存 uploadId 和分片大小；已完成的分片以存储端 listParts 的结果为准
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class UploadCheckpoint {
+    private String key;
+    private String uploadId;
+    private int partSize;
+
+    public UploadCheckpoint() {
+    }
+
+    public UploadCheckpoint(String key, String uploadId, int partSize) {
+        this.key = key;
+        this.uploadId = uploadId;
+        this.partSize = partSize;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public void setKey(String key) {
+        this.key = key;
+    }
+
+    public String getUploadId() {
+        return uploadId;
+    }
+
+    public void setUploadId(String uploadId) {
+        this.uploadId = uploadId;
+    }
+
+    public int getPartSize() {
+        return partSize;
+    }
+
+    public void setPartSize(int partSize) {
+        this.partSize = partSize;
+    }
+}
@@ -0,0 +1,35 @@
+package com.jw.common.storage;
+
+/**
+ * @description: 已上传的分片
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class UploadedPart {
+    private final int partNumber;
+    private final String etag;
+    private final long size;
+
+    public UploadedPart(int partNumber, String etag, long size) {
+        this.partNumber = partNumber;
+        this.etag = etag;
+        this.size = size;
+    }
+
+    public int getPartNumber() {
+        return partNumber;
+    }
+
+    public String getEtag() {
+        return etag;
+    }
+
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public String toString() {
+        return "UploadedPart{partNumber=" + partNumber + ", etag=" + etag + ", size=" + size + "}";
+    }
+}
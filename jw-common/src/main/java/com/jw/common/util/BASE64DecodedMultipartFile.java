@@ -11,26 +11,47 @@ import java.io.*;
  */
 public class BASE64DecodedMultipartFile implements MultipartFile {
     private final byte[] imgContent;
-    private final String header;
+    /**
+     * 由 data:image/png;base64 形式的头解析出的类型和扩展名，构造时解析一次
+     */
+    private final String contentType;
+    private final String extension;
 
     public BASE64DecodedMultipartFile(byte[] imgContent, String header) {
         this.imgContent = imgContent;
-        this.header = header.split(";")[0];
+        this.contentType = contentType(header);
+        this.extension = extension(contentType);
+    }
+
+    /**
+     * data:image/png;base64 -> image/png
+     */
+    static String contentType(String header) {
+        int start = header.indexOf(':') + 1;
+        int end = header.indexOf(';');
+        return header.substring(start, end < 0 ? header.length() : end);
+    }
+
+    /**
+     * image/png -> png
+     */
+    static String extension(String contentType) {
+        return contentType.substring(contentType.indexOf('/') + 1);
     }
 
     @Override
     public String getName() {
-        return System.currentTimeMillis() + Math.random() + "." + header.split("/")[1];
+        return System.currentTimeMillis() + Math.random() + "." + extension;
     }
 
     @Override
     public String getOriginalFilename() {
-        return System.currentTimeMillis() + (int) Math.random() * 10000 + "." + header.split("/")[1];
+        return System.currentTimeMillis() + (int) Math.random() * 10000 + "." + extension;
     }
 
     @Override
     public String getContentType() {
-        return header.split(":")[1];
+        return contentType;
     }
 
     @Override
@@ -55,6 +76,8 @@ public class BASE64DecodedMultipartFile implements MultipartFile {
 
     @Override
     public void transferTo(File dest) throws IOException, IllegalStateException {
-        new FileOutputStream(dest).write(imgContent);
+        try (OutputStream out = new FileOutputStream(dest)) {
+            out.write(imgContent);
+        }
     }
 }
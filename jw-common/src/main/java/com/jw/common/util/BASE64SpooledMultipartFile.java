@@ -0,0 +1,196 @@
+package com.jw.common.util;
+
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * @description: base64图片文件，解码后不超过阈值时保存在内存，超过时直接从base64字符串解码写入临时文件，不在堆中保留整份数据
+ * transferTo 对临时文件做原子移动(跨文件系统时退化为普通移动)，之后文件内容不可再读取；未移动时使用完需调用 close 删除临时文件
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class BASE64SpooledMultipartFile implements MultipartFile, Closeable {
+    public static final long DEFAULT_THRESHOLD = 256 * 1024;
+
+    private static final String TEMP_FILE_PREFIX = "base64-";
+
+    private final String contentType;
+    private final String extension;
+    private final String name;
+    private final String originalFilename;
+    private final long size;
+    private final byte[] content;
+    private Path file;
+    private boolean moved;
+
+    private BASE64SpooledMultipartFile(String header, byte[] content, Path file, long size) {
+        this.contentType = BASE64DecodedMultipartFile.contentType(header);
+        this.extension = BASE64DecodedMultipartFile.extension(contentType);
+        this.name = System.currentTimeMillis() + Math.random() + "." + extension;
+        this.originalFilename = System.currentTimeMillis() + "." + extension;
+        this.content = content;
+        this.file = file;
+        this.size = size;
+    }
+
+    /**
+     * @param dataUri data:image/png;base64,xxxx 形式的字符串
+     */
+    public static BASE64SpooledMultipartFile of(String dataUri) throws IOException {
+        return of(dataUri, DEFAULT_THRESHOLD);
+    }
+
+    /**
+     * @param dataUri   data:image/png;base64,xxxx 形式的字符串
+     * @param threshold 解码后超过该字节数时写入临时文件
+     */
+    public static BASE64SpooledMultipartFile of(String dataUri, long threshold) throws IOException {
+        int comma = dataUri.indexOf(',');
+        if (comma < 0) {
+            throw new IllegalArgumentException("not a base64 data uri");
+        }
+        return of(CharBuffer.wrap(dataUri, comma + 1, dataUri.length()), dataUri.substring(0, comma), threshold);
+    }
+
+    /**
+     * @param base64    base64内容，直接按字符读取解码，不复制
+     * @param header    data:image/png;base64 形式的头
+     * @param threshold 解码后超过该字节数时写入临时文件
+     */
+    public static BASE64SpooledMultipartFile of(CharSequence base64, String header, long threshold) throws IOException {
+        long expected = Base64Util.decodedSize(base64);
+        if (expected <= Math.min(threshold, Integer.MAX_VALUE - 8)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream((int) expected);
+            Base64Util.decode(base64, out);
+            byte[] content = out.toByteArray();
+            return new BASE64SpooledMultipartFile(header, content, null, content.length);
+        }
+        Path file = Files.createTempFile(TEMP_FILE_PREFIX, "." + BASE64DecodedMultipartFile.extension(
+                BASE64DecodedMultipartFile.contentType(header)));
+        try (OutputStream out = Files.newOutputStream(file)) {
+            long size = Base64Util.decode(base64, out);
+            return new BASE64SpooledMultipartFile(header, null, file, size);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(file);
+            throw e;
+        }
+    }
+
+    /**
+     * 是否已写入临时文件
+     */
+    public boolean isSpilled() {
+        return content == null;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public String getOriginalFilename() {
+        return originalFilename;
+    }
+
+    @Override
+    public String getContentType() {
+        return contentType;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public long getSize() {
+        return size;
+    }
+
+    @Override
+    public byte[] getBytes() throws IOException {
+        return content != null ? content.clone() : Files.readAllBytes(file());
+    }
+
+    @Override
+    public InputStream getInputStream() throws IOException {
+        return content != null ? new ByteArrayInputStream(content) : Files.newInputStream(file());
+    }
+
+    @Override
+    public void transferTo(File dest) throws IOException, IllegalStateException {
+        transferTo(dest.toPath());
+    }
+
+    @Override
+    public void transferTo(Path dest) throws IOException, IllegalStateException {
+        if (content != null) {
+            Files.write(dest, content);
+            return;
+        }
+        Path source = file();
+        try {
+            Files.move(source, dest, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(source, dest, StandardCopyOption.REPLACE_EXISTING);
+        }
+        moved = true;
+        file = null;
+    }
+
+    /**
+     * 复制到指定通道，不移动临时文件，可重复调用
+     */
+    public void copyTo(FileChannel target) throws IOException {
+        if (content != null) {
+            ByteBuffer buffer = ByteBuffer.wrap(content);
+            while (buffer.hasRemaining()) {
+                target.write(buffer);
+            }
+            return;
+        }
+        try (FileChannel source = FileChannel.open(file(), StandardOpenOption.READ)) {
+            long position = 0;
+            while (position < size) {
+                position += source.transferTo(position, size - position, target);
+            }
+        }
+    }
+
+    /**
+     * 删除未被移动的临时文件
+     */
+    @Override
+    public void close() throws IOException {
+        if (file != null) {
+            Files.deleteIfExists(file);
+            file = null;
+        }
+    }
+
+    private Path file() {
+        if (moved) {
+            throw new IllegalStateException("File has already been moved - cannot be read again");
+        }
+        if (file == null) {
+            throw new IllegalStateException("File has been closed");
+        }
+        return file;
+    }
+}
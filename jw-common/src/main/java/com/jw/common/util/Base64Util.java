@@ -7,11 +7,20 @@ package com.jw.common.util;
  */
 
 import org.apache.commons.codec.binary.Base64;
+import org.apache.commons.codec.binary.Base64InputStream;
+import org.apache.commons.codec.binary.Base64OutputStream;
 import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
 import java.io.UnsupportedEncodingException;
+import java.nio.channels.Channels;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
 
 public class Base64Util {
+    private static final int BUFFER_SIZE = 8192;
 
     /**
      * 编码
@@ -69,20 +78,69 @@ public class Base64Util {
     }
 
     /**
-     * 判断是否base64过的原文，原理为解密再加密，得到原字符串则代表的是已加密过的
+     * 判断是否base64过的原文，即解密(UTF-8)再加密能得到原字符串
+     * 单次扫描，不解码出新字符串：要求标准字母表、带填充、无换行、末尾未使用的位为0，且解出的字节是合法的UTF-8
      *
      * @param base64
      * @return
      */
     public static boolean isBase64(final String base64) {
-        if (StringUtils.isEmpty(base64)) {
+        if (StringUtils.isEmpty(base64) || (base64.length() & 3) != 0) {
             return false;
         }
-        String de = decode(base64);
-
-        String en = encode(de).replaceAll("[\\s*\t\n\r]", "");
+        int length = base64.length();
+        int padding = base64.charAt(length - 1) != '=' ? 0 : base64.charAt(length - 2) == '=' ? 2 : 1;
+        //剩余的UTF-8后续字节数，以及下一个字节的取值范围
+        int pending = 0;
+        int lower = 0x80;
+        int upper = 0xBF;
+        for (int i = 0; i < length; i += 4) {
+            int data = i + 4 == length ? 4 - padding : 4;
+            int bits = 0;
+            for (int j = 0; j < 4; j++) {
+                int value = j < data ? base64Value(base64.charAt(i + j)) : 0;
+                if (value < 0) {
+                    return false;
+                }
+                bits = bits << 6 | value;
+            }
+            if (data == 2 && (bits & 0xFFFF) != 0 || data == 3 && (bits & 0xFF) != 0) {
+                return false;
+            }
+            for (int k = 0; k < data - 1; k++) {
+                int b = bits >>> (16 - k * 8) & 0xFF;
+                if (pending > 0) {
+                    if (b < lower || b > upper) {
+                        return false;
+                    }
+                    pending--;
+                    lower = 0x80;
+                    upper = 0xBF;
+                } else if (b >= 0x80) {
+                    if (b < 0xC2 || b > 0xF4) {
+                        return false;
+                    }
+                    pending = b < 0xE0 ? 1 : b < 0xF0 ? 2 : 3;
+                    //排除超长编码、代理区和超出 U+10FFFF 的码点
+                    lower = b == 0xE0 ? 0xA0 : b == 0xF0 ? 0x90 : 0x80;
+                    upper = b == 0xED ? 0x9F : b == 0xF4 ? 0x8F : 0xBF;
+                }
+            }
+        }
+        return pending == 0;
+    }
 
-        return base64.equals(en);
+    private static int base64Value(char c) {
+        if (c >= 'A' && c <= 'Z') {
+            return c - 'A';
+        }
+        if (c >= 'a' && c <= 'z') {
+            return c - 'a' + 26;
+        }
+        if (c >= '0' && c <= '9') {
+            return c - '0' + 52;
+        }
+        return c == '+' ? 62 : c == '/' ? 63 : -1;
     }
 
     //上面的相反判断
@@ -91,7 +149,104 @@ public class Base64Util {
     }
 
 
-    //得到一个base64文件的实际大小
+    /**
+     * 编码流：读取时返回 in 中数据的base64(不分行)，用于边读边编码
+     */
+    public static InputStream encodingStream(InputStream in) {
+        return new Base64InputStream(in, true, 0, null);
+    }
+
+    /**
+     * 解码流：读取时返回 in 中base64解码后的数据，忽略换行等非base64字符
+     */
+    public static InputStream decodingStream(InputStream in) {
+        return new Base64InputStream(in, false);
+    }
+
+    /**
+     * 编码流：写入原始数据，向 out 输出base64(不分行)；close 时补齐末尾并关闭 out
+     */
+    public static OutputStream encodingStream(OutputStream out) {
+        return new Base64OutputStream(out, true, 0, null);
+    }
+
+    /**
+     * 解码流：写入base64，向 out 输出解码后的数据；close 时处理末尾并关闭 out
+     */
+    public static OutputStream decodingStream(OutputStream out) {
+        return new Base64OutputStream(out, false);
+    }
+
+    /**
+     * 将 in 的数据编码后写入 out，两者都不关闭
+     *
+     * @return 写入的base64字符数
+     */
+    public static long encode(InputStream in, OutputStream out) throws IOException {
+        return copy(encodingStream(in), out);
+    }
+
+    /**
+     * 将 in 中的base64解码后写入 out，两者都不关闭
+     *
+     * @return 写入的字节数
+     */
+    public static long decode(InputStream in, OutputStream out) throws IOException {
+        return copy(decodingStream(in), out);
+    }
+
+    /**
+     * 直接读取字符串中的base64解码后写入 out，不先转换成 byte[]，内存占用与字符串长度无关
+     *
+     * @return 写入的字节数
+     */
+    public static long decode(CharSequence base64, OutputStream out) throws IOException {
+        return copy(decodingStream(new AsciiInputStream(base64)), out);
+    }
+
+    public static long encode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        return encode(Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    public static long decode(ReadableByteChannel in, WritableByteChannel out) throws IOException {
+        return decode(Channels.newInputStream(in), Channels.newOutputStream(out));
+    }
+
+    public static long decode(CharSequence base64, WritableByteChannel out) throws IOException {
+        return decode(base64, Channels.newOutputStream(out));
+    }
+
+    /**
+     * 解码后的字节数，只看长度和末尾的填充，O(1)；要求不含换行、空白及 data:xxx;base64, 文件头
+     * 未填充的base64(长度不是4的倍数)按剩余字符数计算
+     */
+    public static long decodedSize(CharSequence base64) {
+        int length = base64.length();
+        if (length == 0) {
+            return 0;
+        }
+        int padding = base64.charAt(length - 1) != '=' ? 0 : length > 1 && base64.charAt(length - 2) == '=' ? 2 : 1;
+        int data = length - padding;
+        return (long) data / 4 * 3 + Math.max(0, data % 4 - 1);
+    }
+
+    private static long copy(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = new byte[BUFFER_SIZE];
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 得到一个base64文件的实际大小
+     *
+     * @deprecated 结果为近似值，使用 {@link #decodedSize(CharSequence)}
+     */
+    @Deprecated
     public static long base64file_size(String base64String) {
         //1.获取base64字符串长度(不含data:audio/wav;base64,文件头)
         int size0 = base64String.length();
@@ -109,4 +264,45 @@ public class Base64Util {
         return size0 - ((long) size0 / 8) * 2;
     }
 
+    /**
+     * 按 ASCII 逐字符读取 CharSequence，base64 只含 ASCII 字符，非 ASCII 字符会被解码流忽略
+     */
+    private static final class AsciiInputStream extends InputStream {
+        private final CharSequence source;
+        private int position;
+
+        private AsciiInputStream(CharSequence source) {
+            this.source = source;
+        }
+
+        @Override
+        public int read() {
+            if (position >= source.length()) {
+                return -1;
+            }
+            char c = source.charAt(position++);
+            return c < 0x80 ? c : ' ';
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int n = Math.min(len, source.length() - position);
+            if (n <= 0) {
+                return -1;
+            }
+            for (int i = 0; i < n; i++) {
+                char c = source.charAt(position++);
+                b[off + i] = c < 0x80 ? (byte) c : (byte) ' ';
+            }
+            return n;
+        }
+
+        @Override
+        public int available() {
+            return source.length() - position;
+        }
+    }
 }
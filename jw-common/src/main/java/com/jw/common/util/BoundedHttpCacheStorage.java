@@ -0,0 +1,96 @@
+package com.jw.common.util;
+
+import org.apache.http.client.cache.HttpCacheEntry;
+import org.apache.http.client.cache.HttpCacheStorage;
+import org.apache.http.client.cache.HttpCacheUpdateCallback;
+import org.apache.http.client.cache.Resource;
+
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * @description: 按占用字节数限制大小的内存缓存存储，超出上限时淘汰最近最少使用的条目
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+class BoundedHttpCacheStorage implements HttpCacheStorage {
+    /**
+     * 响应头、请求地址等元数据的估算开销
+     */
+    private static final int ENTRY_OVERHEAD = 512;
+
+    private final long maxBytes;
+    private final HttpCacheStats stats;
+    private final LinkedHashMap<String, Sized> entries = new LinkedHashMap<>(64, 0.75f, true);
+    private long bytes;
+
+    BoundedHttpCacheStorage(long maxBytes, HttpCacheStats stats) {
+        this.maxBytes = maxBytes;
+        this.stats = stats;
+    }
+
+    @Override
+    public synchronized void putEntry(String key, HttpCacheEntry entry) {
+        Sized sized = new Sized(entry);
+        Sized old = entries.put(key, sized);
+        if (old != null) {
+            bytes -= old.size;
+        }
+        bytes += sized.size;
+        Iterator<Map.Entry<String, Sized>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            Map.Entry<String, Sized> eldest = it.next();
+            if (eldest.getKey().equals(key)) {
+                continue;
+            }
+            bytes -= eldest.getValue().size;
+            it.remove();
+            stats.evictions.increment();
+        }
+    }
+
+    @Override
+    public synchronized HttpCacheEntry getEntry(String key) {
+        Sized sized = entries.get(key);
+        return sized == null ? null : sized.entry;
+    }
+
+    @Override
+    public synchronized void removeEntry(String key) {
+        Sized old = entries.remove(key);
+        if (old != null) {
+            bytes -= old.size;
+        }
+    }
+
+    @Override
+    public synchronized void updateEntry(String key, HttpCacheUpdateCallback callback) throws IOException {
+        Sized existing = entries.get(key);
+        putEntry(key, callback.update(existing == null ? null : existing.entry));
+    }
+
+    synchronized int entries() {
+        return entries.size();
+    }
+
+    synchronized long bytes() {
+        return bytes;
+    }
+
+    private static long sizeOf(HttpCacheEntry entry) {
+        Resource resource = entry.getResource();
+        return ENTRY_OVERHEAD + (resource == null ? 0 : resource.length());
+    }
+
+    private static final class Sized {
+        private final HttpCacheEntry entry;
+        private final long size;
+
+        private Sized(HttpCacheEntry entry) {
+            this.entry = entry;
+            this.size = sizeOf(entry);
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package com.jw.common.util;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @description: 类的反射元数据缓存，首次访问时解析父类泛型参数、枚举的 getCode 方法，之后直接读取
+ * 通过 ClassValue 挂在 Class 对象上，随类卸载一起回收，devtools 重启时不会持有旧的类加载器
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public final class ClassMetadata {
+    private static final String METHOD_GET_CODE = "getCode";
+    private static final MethodType CODE_GETTER_TYPE = MethodType.methodType(Object.class, Enum.class);
+
+    private static final ClassValue<ClassMetadata> CACHE = new ClassValue<ClassMetadata>() {
+        @Override
+        protected ClassMetadata computeValue(Class<?> type) {
+            return new ClassMetadata(type);
+        }
+    };
+
+    private final Class<?> type;
+    /**
+     * 父类的泛型参数，不是具体类的参数(如类型变量、通配符)为 Object.class
+     */
+    private final Class<?>[] superClassGenericTypes;
+    /**
+     * 枚举的 getCode 方法，类型为 (Enum)Object，不是枚举或没有该方法时为null
+     */
+    private final MethodHandle codeGetter;
+    private volatile Map<Object, Enum<?>> codeIndex;
+
+    private ClassMetadata(Class<?> type) {
+        this.type = type;
+        this.superClassGenericTypes = resolveSuperClassGenericTypes(type);
+        this.codeGetter = type.isEnum() ? resolveCodeGetter(type) : null;
+    }
+
+    public static ClassMetadata of(Class<?> type) {
+        return CACHE.get(type);
+    }
+
+    /**
+     * 指定枚举常量所属枚举类的元数据，带方法体的常量也返回枚举类本身的元数据
+     */
+    public static ClassMetadata of(Enum<?> constant) {
+        return CACHE.get(constant.getDeclaringClass());
+    }
+
+    public Class<?> getType() {
+        return type;
+    }
+
+    /**
+     * 指定下标的父类泛型类型，下标越界或无法确定时返回 Object.class
+     */
+    public Class<?> getSuperClassGenericType(int index) {
+        if (index < 0 || index >= superClassGenericTypes.length) {
+            return Object.class;
+        }
+        return superClassGenericTypes[index];
+    }
+
+    public boolean hasCode() {
+        return codeGetter != null;
+    }
+
+    /**
+     * 调用枚举常量的 getCode 方法，没有该方法或调用失败时返回null
+     */
+    public Object getCode(Enum<?> constant) {
+        if (codeGetter == null) {
+            return null;
+        }
+        try {
+            return (Object) codeGetter.invokeExact((Enum) constant);
+        } catch (Error e) {
+            throw e;
+        } catch (Throwable e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按 getCode 的返回值查找枚举常量，code 需与 getCode 返回值的类型一致(equals 相等)，找不到时返回null
+     * 多个常量的 code 相同时取声明在前的常量
+     */
+    @SuppressWarnings("unchecked")
+    public <E extends Enum<E>> E fromCode(Object code) {
+        if (code == null || codeGetter == null) {
+            return null;
+        }
+        Map<Object, Enum<?>> index = codeIndex;
+        if (index == null) {
+            index = buildCodeIndex();
+            codeIndex = index;
+        }
+        return (E) index.get(code);
+    }
+
+    private Map<Object, Enum<?>> buildCodeIndex() {
+        Object[] constants = type.getEnumConstants();
+        Map<Object, Enum<?>> index = new HashMap<>(Math.max(8, constants.length * 4 / 3 + 1));
+        for (Object constant : constants) {
+            Object code = getCode((Enum<?>) constant);
+            if (code != null) {
+                index.putIfAbsent(code, (Enum<?>) constant);
+            }
+        }
+        return Collections.unmodifiableMap(index);
+    }
+
+    private static Class<?>[] resolveSuperClassGenericTypes(Class<?> type) {
+        Type genType = type.getGenericSuperclass();
+        if (!(genType instanceof ParameterizedType)) {
+            return new Class<?>[0];
+        }
+        Type[] params = ((ParameterizedType) genType).getActualTypeArguments();
+        Class<?>[] types = new Class<?>[params.length];
+        for (int i = 0; i < params.length; i++) {
+            types[i] = params[i] instanceof Class ? (Class<?>) params[i] : Object.class;
+        }
+        return types;
+    }
+
+    private static MethodHandle resolveCodeGetter(Class<?> type) {
+        try {
+            Method getCode = type.getMethod(METHOD_GET_CODE);
+            if (!getCode.isAccessible()) {
+                getCode.setAccessible(true);
+            }
+            return MethodHandles.lookup().unreflect(getCode).asType(CODE_GETTER_TYPE);
+        } catch (NoSuchMethodException | IllegalAccessException | RuntimeException e) {
+            return null;
+        }
+    }
+}
@@ -4,13 +4,13 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.lang.Nullable;
 import java.lang.reflect.*;
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
 import java.util.function.Function;
-import java.util.regex.Pattern;
+import java.util.function.ToLongFunction;
 
 @Slf4j
 public final class CommonUtils {
-    private final static Pattern PATTERN_INTEGER = Pattern.compile("^[-\\+]?[\\d]*$");
-    private final static Pattern PATTERN_NUMBER = Pattern.compile("-?[0-9]+.？[0-9]*");
+    private final static char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
     private final static String METHOD_GET = "get", METHOD_IS = "is", BASE_TYPE_STRING = "String", BASE_TYPE_BOOLEAN = "boolean",
             BASE_TYPE_INTEGER = "Integer", BASE_TYPE_INT = "int";
 
@@ -43,7 +43,7 @@ public final class CommonUtils {
     }
 
     /**
-     * 数组转map
+     * 数组转map，key 重复时后出现的覆盖先出现的
      * @param list     数据源
      * @param getKey   获取key的方法
      * @param getValue 获取value的方法
@@ -56,32 +56,89 @@ public final class CommonUtils {
         if (CommonUtils.isEmpty(list)) {
             return new HashMap<>(8);
         }
-        Map<K, V> map = new HashMap<>(list.size());
-        list.forEach(item -> map.put(getKey.apply(item), getValue.apply(item)));
-        return map;
+        return ListConversions.toMap(list, getKey, getValue, null);
+    }
+
+    /**
+     * 同 {@link #listConvertMap(List, Function, Function)}，数据量较大时在指定线程池中并行转换，getKey/getValue 需无副作用
+     */
+    public static <K, V, R> Map<K, V> listConvertMap(List<R> list, Function<R, K> getKey, Function<R, V> getValue,
+                                                     ForkJoinPool pool) {
+        if (CommonUtils.isEmpty(list)) {
+            return new HashMap<>(8);
+        }
+        return ListConversions.toMap(list, getKey, getValue, pool);
     }
 
     public static <K, V> Map<K, V> listConvertMap(List<V> list, Function<V, K> getKey) {
         return listConvertMap(list, getKey, Function.identity());
     }
 
+    /**
+     * 可选的 +/- 号后跟任意个 ASCII 数字，与原正则 ^[-\+]?[\d]*$ 一致(单独的符号也返回true)
+     */
     public static boolean isInteger(String str) {
-        return !isBlank(str) && PATTERN_INTEGER.matcher(str).matches();
+        if (isBlank(str)) {
+            return false;
+        }
+        char first = str.charAt(0);
+        for (int i = first == '-' || first == '+' ? 1 : 0; i < str.length(); i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
     }
 
+    /**
+     * 与原正则 -?[0-9]+.？[0-9]* 一致：可选的负号、数字、任意一个非换行字符、全角问号、任意个数字
+     */
     public static boolean isNumeric(String str) {
-        return !isBlank(str) && PATTERN_NUMBER.matcher(str).matches();
+        if (isBlank(str)) {
+            return false;
+        }
+        //全角问号之后只能是数字，所以只可能是最后一个
+        int mark = str.lastIndexOf('？');
+        int start = str.charAt(0) == '-' ? 1 : 0;
+        if (mark - 1 <= start || isLineTerminator(str.charAt(mark - 1))) {
+            return false;
+        }
+        return isDigits(str, start, mark - 1) && isDigits(str, mark + 1, str.length());
+    }
+
+    private static boolean isDigits(String str, int from, int to) {
+        for (int i = from; i < to; i++) {
+            char c = str.charAt(i);
+            if (c < '0' || c > '9') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 正则中 . 不匹配的行结束符
+     */
+    private static boolean isLineTerminator(char c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
     }
 
     public static <R, E> List<R> listConvert(List<E> sourceList, Function<E, R> getValue) {
         if (isEmpty(sourceList)) {
             return new ArrayList<>();
         }
-        List<R> rList = new ArrayList<>(sourceList.size());
-        for (E item : sourceList) {
-            rList.add(getValue.apply(item));
+        return ListConversions.convert(sourceList, getValue, null);
+    }
+
+    /**
+     * 数据量较大时在指定线程池中并行转换，结果保持原顺序，getValue 需无副作用
+     */
+    public static <R, E> List<R> listConvert(List<E> sourceList, Function<E, R> getValue, ForkJoinPool pool) {
+        if (isEmpty(sourceList)) {
+            return new ArrayList<>();
         }
-        return rList;
+        return ListConversions.convert(sourceList, getValue, pool);
     }
 
     public static <K, V, R> List<R> mapConvertList(Map<K, V> source, Function<Map.Entry<K, V>, R> getValue) {
@@ -99,27 +156,96 @@ public final class CommonUtils {
         return listConvertListMap(list, getKey, Function.identity());
     }
 
+    /**
+     * 按 key 分组，组内保持原顺序
+     */
     public static <K, V, R> Map<K, List<R>> listConvertListMap(List<V> list, Function<V, K> getKey,
                                                                Function<V, R> getValue) {
+        return listConvertListMap(list, getKey, getValue, null);
+    }
+
+    /**
+     * 按 key 分组，组内保持原顺序；数据量较大时在指定线程池中并行分组后按顺序合并，getKey/getValue 需无副作用
+     *
+     * @param pool 并行使用的线程池，null 表示顺序执行
+     */
+    public static <K, V, R> Map<K, List<R>> listConvertListMap(List<V> list, Function<V, K> getKey,
+                                                               Function<V, R> getValue, ForkJoinPool pool) {
         if (list == null || list.isEmpty()) {
             return new HashMap<>(8);
         }
-        Map<K, List<R>> map = new HashMap<>(list.size());
-        K key;
+        return ListConversions.group(list, getKey, getValue, pool);
+    }
+
+    /**
+     * 以 long(如雪花ID)为 key 的 listConvertMap，key 不装箱，key 重复时后出现的覆盖先出现的
+     */
+    public static <V, R> LongHashMap<V> listConvertLongMap(List<R> list, ToLongFunction<R> getKey,
+                                                          Function<R, V> getValue) {
+        if (isEmpty(list)) {
+            return new LongHashMap<>();
+        }
+        LongHashMap<V> map = new LongHashMap<>(list.size());
+        for (R item : list) {
+            map.put(getKey.applyAsLong(item), getValue.apply(item));
+        }
+        return map;
+    }
+
+    public static <V> LongHashMap<V> listConvertLongMap(List<V> list, ToLongFunction<V> getKey) {
+        return listConvertLongMap(list, getKey, Function.identity());
+    }
+
+    /**
+     * 以 long 为 key 分组，组内保持原顺序
+     */
+    public static <V, R> LongHashMap<List<R>> listConvertLongListMap(List<V> list, ToLongFunction<V> getKey,
+                                                                    Function<V, R> getValue) {
+        if (isEmpty(list)) {
+            return new LongHashMap<>();
+        }
+        LongHashMap<List<R>> map = new LongHashMap<>();
         for (V v : list) {
-            key = getKey.apply(v);
-            map.putIfAbsent(key, new ArrayList<>());
-            map.get(key).add(getValue.apply(v));
+            map.computeIfAbsent(getKey.applyAsLong(v), key -> new ArrayList<>()).add(getValue.apply(v));
         }
         return map;
     }
 
+    public static <V> LongHashMap<List<V>> listConvertLongListMap(List<V> list, ToLongFunction<V> getKey) {
+        return listConvertLongListMap(list, getKey, Function.identity());
+    }
+
+    /**
+     * 提取 long 字段(如ID)去重，常用于内存关联前的过滤
+     */
+    public static <V> LongHashSet listConvertLongSet(List<V> list, ToLongFunction<V> getKey) {
+        if (isEmpty(list)) {
+            return new LongHashSet();
+        }
+        LongHashSet set = new LongHashSet(list.size());
+        for (V v : list) {
+            set.add(getKey.applyAsLong(v));
+        }
+        return set;
+    }
+
     /**
      * 获取去下划线的uuid
      * @return
      */
     public static String getUUID() {
-        return UUID.randomUUID().toString().replaceAll("-", "");
+        UUID uuid = UUID.randomUUID();
+        char[] chars = new char[32];
+        hex(chars, 0, uuid.getMostSignificantBits());
+        hex(chars, 16, uuid.getLeastSignificantBits());
+        return new String(chars);
+    }
+
+    private static void hex(char[] chars, int from, long bits) {
+        for (int i = from + 15; i >= from; i--) {
+            chars[i] = HEX_DIGITS[(int) bits & 0xF];
+            bits >>>= 4;
+        }
     }
 
 
@@ -160,9 +286,7 @@ public final class CommonUtils {
         if (CommonUtils.isEmpty(values)) {
             return Collections.emptyList();
         }
-        List<R> result = new ArrayList<>(values.size());
-        values.forEach(value -> result.add(call.apply(value)));
-        return result;
+        return ListConversions.convert(values, call, null);
     }
 
     public static <T> T getOrElse(T value, T defValue) {
@@ -183,28 +307,25 @@ public final class CommonUtils {
      * @throws IndexOutOfBoundsException
      */
     public static Class<Object> getSuperClassGenericType(Class clazz, int index) throws IndexOutOfBoundsException {
-        Type genType = clazz.getGenericSuperclass();
-        if (!(genType instanceof ParameterizedType)) {
-            return Object.class;
-        }
-        Type[] params = ((ParameterizedType) genType).getActualTypeArguments();
-        if (index >= params.length || index < 0) {
-            return Object.class;
-        }
-        if (!(params[index] instanceof Class)) {
-            return Object.class;
-        }
-        return (Class<Object>) params[index];
+        return (Class<Object>) ClassMetadata.of(clazz).getSuperClassGenericType(index);
     }
 
+    /**
+     * 获取枚举的 code(getCode 方法的返回值)
+     * @param enumParam 枚举常量
+     * @return 没有 getCode 方法时返回null
+     */
+    public static Object getEnumCode(Enum<?> enumParam) {
+        return enumParam == null ? null : ClassMetadata.of(enumParam).getCode(enumParam);
+    }
 
-
-    private static <T> Object checkCodeFieldAndGet(Enum enumParam) {
-        try {
-            Method getCode = enumParam.getClass().getMethod("getCode");
-            return getCode.invoke(enumParam);
-        } catch (NoSuchMethodException | IllegalAccessException | InvocationTargetException e) {
-        }
-        return null;
+    /**
+     * 根据 code 获取枚举常量
+     * @param enumClass 枚举类
+     * @param code      与 getCode 返回值类型一致的 code
+     * @return 找不到时返回null
+     */
+    public static <E extends Enum<E>> E getEnumByCode(Class<E> enumClass, Object code) {
+        return ClassMetadata.of(enumClass).fromCode(code);
     }
 }
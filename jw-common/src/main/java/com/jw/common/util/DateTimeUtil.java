@@ -2,8 +2,10 @@ package com.jw.common.util;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.time.DayOfWeek;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
@@ -11,6 +13,10 @@ import java.time.ZoneId;
 import java.util.Calendar;
 import java.util.Date;
 import java.util.Objects;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.LongUnaryOperator;
 
 /**
  * @description:
@@ -21,7 +27,12 @@ import java.util.Objects;
 public class DateTimeUtil {
 
     /**
-     * 默认时间格式
+     * 批量分桶指定线程池时，超过该长度拆分后并行处理
+     */
+    private static final int PARALLEL_THRESHOLD = 1 << 15;
+
+    /**
+     * 默认时间格式，仅为兼容 {@link #format()} 保留，新代码使用 {@link FixedDateFormat}
      */
     private static ThreadLocal<SimpleDateFormat> dataFormat =
             ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
@@ -29,11 +40,6 @@ public class DateTimeUtil {
     private static ThreadLocal<SimpleDateFormat> yyyyMMddFormat =
             ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd"));
 
-    /**
-     * 一天的毫秒数
-     */
-    private static final int DAY_MILLISECOND = 1000 * 3600 * 24;
-
     /**
      * 指定时分秒
      *
@@ -46,14 +52,36 @@ public class DateTimeUtil {
         return time(new Date(), hour, minute, second);
     }
 
+    /**
+     * @deprecated 使用 {@link #format(Date)} 或 {@link FixedDateFormat#DATE_TIME}，不依赖 ThreadLocal
+     */
+    @Deprecated
     public static SimpleDateFormat format() {
         return dataFormat.get();
     }
 
+    /**
+     * @deprecated 使用 {@link #formatDate(Date)} 或 {@link FixedDateFormat#DATE}
+     */
+    @Deprecated
     public static SimpleDateFormat yyyyMMdd() {
         return yyyyMMddFormat.get();
     }
 
+    /**
+     * yyyy-MM-dd HH:mm:ss
+     */
+    public static String format(Date date) {
+        return FixedDateFormat.DATE_TIME.format(date);
+    }
+
+    /**
+     * yyyy-MM-dd
+     */
+    public static String formatDate(Date date) {
+        return FixedDateFormat.DATE.format(date);
+    }
+
     /**
      * 指定时分秒
      *
@@ -64,13 +92,182 @@ public class DateTimeUtil {
      * @return 指定的时间
      */
     public static Date time(Date date, int hour, int minute, int second) {
-        Calendar calendar = Calendar.getInstance();
-        calendar.setTime(date);
-        calendar.set(Calendar.HOUR_OF_DAY, hour);
-        calendar.set(Calendar.MINUTE, minute);
-        calendar.set(Calendar.SECOND, second);
-        calendar.set(Calendar.MILLISECOND, 0);
-        return calendar.getTime();
+        return new Date(timeMillis(date.getTime(), hour, minute, second));
+    }
+
+    /**
+     * 以下 *Millis 方法基于默认时区的偏移表计算，不创建 Calendar/Date，适合批量调用
+     *
+     * @param epochMillis 时刻
+     * @return 当天指定时分秒的时刻
+     */
+    public static long timeMillis(long epochMillis, int hour, int minute, int second) {
+        return ZoneOffsetTable.systemDefault().atTime(epochMillis, hour, minute, second, 0);
+    }
+
+    /**
+     * 当天零点
+     */
+    public static long startOfDayMillis(long epochMillis) {
+        return ZoneOffsetTable.systemDefault().startOfDay(epochMillis);
+    }
+
+    /**
+     * 当天 23:59:59.999
+     */
+    public static long endOfDayMillis(long epochMillis) {
+        return ZoneOffsetTable.systemDefault().endOfDay(epochMillis);
+    }
+
+    /**
+     * 当月第一天零点
+     */
+    public static long monthStartMillis(long epochMillis) {
+        return ZoneOffsetTable.systemDefault().monthStart(epochMillis);
+    }
+
+    /**
+     * 当月最后一天 23:59:59.999
+     */
+    public static long monthEndMillis(long epochMillis) {
+        return ZoneOffsetTable.systemDefault().monthEnd(epochMillis);
+    }
+
+    /**
+     * 两个时刻所在日期相差的天数，按本地日期计算，不受夏令时当天时长影响
+     */
+    public static int diffDay(long end, long start) {
+        ZoneOffsetTable table = ZoneOffsetTable.systemDefault();
+        return (int) (table.epochDay(end) - table.epochDay(start));
+    }
+
+    public static int diffMonth(long end, long start) {
+        ZoneOffsetTable table = ZoneOffsetTable.systemDefault();
+        return (int) (table.epochMonth(end) - table.epochMonth(start));
+    }
+
+    /**
+     * 批量计算每个时刻所在的本地日期，结果为距 1970-01-01 的天数，可用 {@link LocalDate#ofEpochDay(long)} 还原
+     *
+     * @param epochMillis 时刻数组，在调用线程中顺序计算
+     * @return 与入参等长的天数数组
+     */
+    public static long[] dayBuckets(long[] epochMillis) {
+        return dayBuckets(epochMillis, null);
+    }
+
+    /**
+     * 同 {@link #dayBuckets(long[])}，数组较大时拆分后在指定线程池中并行计算
+     *
+     * @param pool 为null时顺序计算
+     */
+    public static long[] dayBuckets(long[] epochMillis, ForkJoinPool pool) {
+        return buckets(epochMillis, ZoneOffsetTable.systemDefault()::epochDay, pool);
+    }
+
+    /**
+     * 批量计算每个时刻所在周的第一天，结果为该天距 1970-01-01 的天数
+     *
+     * @param firstDayOfWeek 每周的第一天
+     */
+    public static long[] weekBuckets(long[] epochMillis, DayOfWeek firstDayOfWeek) {
+        return weekBuckets(epochMillis, firstDayOfWeek, null);
+    }
+
+    public static long[] weekBuckets(long[] epochMillis, DayOfWeek firstDayOfWeek, ForkJoinPool pool) {
+        return buckets(epochMillis, weekKey(ZoneOffsetTable.systemDefault(), firstDayOfWeek), pool);
+    }
+
+    /**
+     * 批量计算每个时刻所在的月份，结果为距 1970-01 的月数
+     */
+    public static long[] monthBuckets(long[] epochMillis) {
+        return monthBuckets(epochMillis, null);
+    }
+
+    public static long[] monthBuckets(long[] epochMillis, ForkJoinPool pool) {
+        return buckets(epochMillis, ZoneOffsetTable.systemDefault()::epochMonth, pool);
+    }
+
+    /**
+     * 按天统计时刻个数，counts[i] 为 from 所在日期之后第 i 天的个数，范围外的时刻忽略
+     *
+     * @param epochMillis 时刻数组，不要求有序
+     * @param fromMillis  起始时刻，取其所在的日期
+     * @param days        统计的天数
+     */
+    public static int[] countByDay(long[] epochMillis, long fromMillis, int days) {
+        return countByDay(epochMillis, fromMillis, days, null);
+    }
+
+    /**
+     * 同 {@link #countByDay(long[], long, int)}，数组较大时拆分后在指定线程池中并行统计
+     *
+     * @param pool 为null时顺序统计
+     */
+    public static int[] countByDay(long[] epochMillis, long fromMillis, int days, ForkJoinPool pool) {
+        ZoneOffsetTable table = ZoneOffsetTable.systemDefault();
+        return counts(epochMillis, table::epochDay, table.epochDay(fromMillis), 1, days, pool);
+    }
+
+    /**
+     * 按周统计时刻个数，counts[i] 为 from 所在周之后第 i 周的个数
+     */
+    public static int[] countByWeek(long[] epochMillis, long fromMillis, int weeks, DayOfWeek firstDayOfWeek) {
+        return countByWeek(epochMillis, fromMillis, weeks, firstDayOfWeek, null);
+    }
+
+    public static int[] countByWeek(long[] epochMillis, long fromMillis, int weeks, DayOfWeek firstDayOfWeek,
+                                    ForkJoinPool pool) {
+        LongUnaryOperator key = weekKey(ZoneOffsetTable.systemDefault(), firstDayOfWeek);
+        return counts(epochMillis, key, key.applyAsLong(fromMillis), 7, weeks, pool);
+    }
+
+    /**
+     * 按月统计时刻个数，counts[i] 为 from 所在月之后第 i 个月的个数
+     */
+    public static int[] countByMonth(long[] epochMillis, long fromMillis, int months) {
+        return countByMonth(epochMillis, fromMillis, months, null);
+    }
+
+    public static int[] countByMonth(long[] epochMillis, long fromMillis, int months, ForkJoinPool pool) {
+        ZoneOffsetTable table = ZoneOffsetTable.systemDefault();
+        return counts(epochMillis, table::epochMonth, table.epochMonth(fromMillis), 1, months, pool);
+    }
+
+    private static LongUnaryOperator weekKey(ZoneOffsetTable table, DayOfWeek firstDayOfWeek) {
+        Objects.requireNonNull(firstDayOfWeek);
+        //1970-01-01 为星期四
+        int shift = DayOfWeek.THURSDAY.getValue() - firstDayOfWeek.getValue();
+        return epochMillis -> {
+            long day = table.epochDay(epochMillis);
+            return day - Math.floorMod(day + shift, 7);
+        };
+    }
+
+    private static long[] buckets(long[] epochMillis, LongUnaryOperator key, ForkJoinPool pool) {
+        long[] result = new long[epochMillis.length];
+        if (parallel(epochMillis, pool)) {
+            pool.invoke(new BucketTask(epochMillis, result, key, 0, epochMillis.length));
+        } else {
+            BucketTask.fill(epochMillis, result, key, 0, epochMillis.length);
+        }
+        return result;
+    }
+
+    private static int[] counts(long[] epochMillis, LongUnaryOperator key, long from, int step, int size,
+                                ForkJoinPool pool) {
+        if (size < 0) {
+            throw new IllegalArgumentException("size must not be negative: " + size);
+        }
+        if (parallel(epochMillis, pool)) {
+            return pool.invoke(new CountTask(epochMillis, key, from, step, size, 0, epochMillis.length));
+        }
+        return CountTask.count(epochMillis, key, from, step, size, 0, epochMillis.length);
+    }
+
+    private static boolean parallel(long[] epochMillis, ForkJoinPool pool) {
+        return pool != null && pool.getParallelism() > 1 && epochMillis.length > PARALLEL_THRESHOLD;
     }
 
     /**
@@ -101,13 +298,7 @@ public class DateTimeUtil {
      * @return
      */
     public static Date lastestTime(Date time) {
-        Calendar can = Calendar.getInstance();
-        can.setTime((time == null) ? new Date() : time);
-        can.set(Calendar.HOUR_OF_DAY, 23);
-        can.set(Calendar.MINUTE, 59);
-        can.set(Calendar.SECOND, 59);
-        can.set(Calendar.MILLISECOND, 999);
-        return can.getTime();
+        return new Date(endOfDayMillis(time == null ? System.currentTimeMillis() : time.getTime()));
     }
 
     /**
@@ -117,13 +308,7 @@ public class DateTimeUtil {
      * @return
      */
     public static Date earliestTime(Date time) {
-        Calendar can = Calendar.getInstance();
-        can.setTime((time == null) ? new Date() : time);
-        can.set(Calendar.HOUR_OF_DAY, 0);
-        can.set(Calendar.MINUTE, 0);
-        can.set(Calendar.SECOND, 0);
-        can.set(Calendar.MILLISECOND, 0);
-        return can.getTime();
+        return new Date(startOfDayMillis(time == null ? System.currentTimeMillis() : time.getTime()));
     }
 
     /**
@@ -133,14 +318,7 @@ public class DateTimeUtil {
      * @return 月份的第一天不传表示当月第一天
      */
     public static Date firstDay(Date date) {
-        Calendar can = Calendar.getInstance();
-        can.setTime((date == null) ? new Date() : date);
-        can.set(Calendar.DAY_OF_MONTH, 1);
-        can.set(Calendar.SECOND, 0);
-        can.set(Calendar.MINUTE, 0);
-        can.set(Calendar.HOUR_OF_DAY, 0);
-        can.set(Calendar.MILLISECOND, 0);
-        return can.getTime();
+        return new Date(monthStartMillis(date == null ? System.currentTimeMillis() : date.getTime()));
     }
 
     /**
@@ -150,19 +328,12 @@ public class DateTimeUtil {
      * @return 月份的最后一天的最后一秒
      */
     public static Date lastDay(Date date) {
-        Calendar can = Calendar.getInstance();
-        can.setTime((date == null) ? new Date() : date);
-        can.set(Calendar.DAY_OF_MONTH, can.getActualMaximum(Calendar.DAY_OF_MONTH));
-        can.set(Calendar.HOUR_OF_DAY, 23);
-        can.set(Calendar.SECOND, 59);
-        can.set(Calendar.MINUTE, 59);
-        can.set(Calendar.MILLISECOND, 999);
-        return can.getTime();
+        return new Date(monthEndMillis(date == null ? System.currentTimeMillis() : date.getTime()));
     }
 
     public static Date date(String date) {
         try {
-            return dataFormat.get().parse(date);
+            return FixedDateFormat.DATE_TIME.parse(date);
         } catch (ParseException e) {
             throw new IllegalArgumentException(e);
         }
@@ -192,9 +363,7 @@ public class DateTimeUtil {
         if (date == null) {
             return LocalDate.now();
         } else {
-            Calendar c = Calendar.getInstance();
-            c.setTime(date);
-            return LocalDate.of(c.get(Calendar.YEAR), c.get(Calendar.MONTH) + 1, c.get(Calendar.DAY_OF_MONTH));
+            return LocalDate.ofEpochDay(ZoneOffsetTable.systemDefault().epochDay(date.getTime()));
         }
     }
 
@@ -203,7 +372,7 @@ public class DateTimeUtil {
     }
 
     /**
-     * 获取两个时间之间的差值
+     * 获取两个时间之间相差的天数
      *
      * @param end   结束时间
      * @param start 开始时间
@@ -212,9 +381,7 @@ public class DateTimeUtil {
     public static int diffDay(Date end, Date start) {
         Objects.requireNonNull(end);
         Objects.requireNonNull(start);
-        end = earliestTime(end);
-        start = earliestTime(start);
-        return Long.valueOf((end.getTime() - start.getTime()) / DAY_MILLISECOND).intValue();
+        return diffDay(end.getTime(), start.getTime());
     }
 
     /**
@@ -227,13 +394,7 @@ public class DateTimeUtil {
     public static int diffMonth(Date end, Date start) {
         Objects.requireNonNull(end);
         Objects.requireNonNull(start);
-        Calendar can = Calendar.getInstance();
-        can.setTime(end);
-        int ey = can.get(Calendar.YEAR);
-        int em = can.get(Calendar.MONTH);
-
-        can.setTime(start);
-        return (ey - can.get(Calendar.YEAR)) * 12 + (em - can.get(Calendar.MONTH));
+        return diffMonth(end.getTime(), start.getTime());
     }
 
     public static LocalDate toLocalDate(Date date) {
@@ -249,23 +410,24 @@ public class DateTimeUtil {
     }
 
     public static Date toDate(LocalDate date) {
-        Calendar c = Calendar.getInstance();
-        c.set(Calendar.YEAR, date.getYear());
-        c.set(Calendar.MONTH, date.getMonthValue() - 1);
-        c.set(Calendar.DAY_OF_MONTH, date.getDayOfMonth());
-        c.set(Calendar.HOUR_OF_DAY, 0);
-        c.set(Calendar.MINUTE, 0);
-        c.set(Calendar.SECOND, 0);
-        c.set(Calendar.MILLISECOND, 0);
-        return c.getTime();
+        return new Date(ZoneOffsetTable.systemDefault().toEpochMillis(date.toEpochDay() * ZoneOffsetTable.DAY_MILLIS,
+                true));
     }
 
     public static Date toDate(LocalDateTime date) {
         return Date.from(date.atZone(ZoneId.systemDefault()).toInstant());
     }
 
+    /**
+     * 固定格式使用共享的 {@link FixedDateFormat}，其他格式新建 SimpleDateFormat
+     */
+    private static DateFormat dateFormat(String format) {
+        FixedDateFormat fixed = FixedDateFormat.forPattern(format);
+        return fixed != null ? fixed.toDateFormat() : new SimpleDateFormat(format);
+    }
+
     public static String getMidMonth(int currentMonth,String format,Boolean flog){
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        DateFormat sdf = dateFormat(format);
         Calendar calendar = Calendar.getInstance();
         calendar.setTime(new Date());// 设置当前日期
         if(flog){
@@ -279,7 +441,7 @@ public class DateTimeUtil {
     }
 
     public static String getPreviousMonth(String date,String format){
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        DateFormat sdf = dateFormat(format);
         Date parse = null;
         String monthFirst = "";
         try {
@@ -302,7 +464,7 @@ public class DateTimeUtil {
     }
 
     public static String getYearMonth(String date,String format){
-        SimpleDateFormat sdf = new SimpleDateFormat(format);
+        DateFormat sdf = dateFormat(format);
         Date parse = null;
         try {
             parse = sdf.parse(date);
@@ -392,4 +554,85 @@ public class DateTimeUtil {
             return this;
         }
     }
+
+    private static final class BucketTask extends RecursiveAction {
+        private final long[] epochMillis;
+        private final long[] result;
+        private final LongUnaryOperator key;
+        private final int from;
+        private final int to;
+
+        private BucketTask(long[] epochMillis, long[] result, LongUnaryOperator key, int from, int to) {
+            this.epochMillis = epochMillis;
+            this.result = result;
+            this.key = key;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_THRESHOLD) {
+                fill(epochMillis, result, key, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new BucketTask(epochMillis, result, key, from, mid),
+                    new BucketTask(epochMillis, result, key, mid, to));
+        }
+
+        private static void fill(long[] epochMillis, long[] result, LongUnaryOperator key, int from, int to) {
+            for (int i = from; i < to; i++) {
+                result[i] = key.applyAsLong(epochMillis[i]);
+            }
+        }
+    }
+
+    private static final class CountTask extends RecursiveTask<int[]> {
+        private final long[] epochMillis;
+        private final LongUnaryOperator key;
+        private final long first;
+        private final int step;
+        private final int size;
+        private final int from;
+        private final int to;
+
+        private CountTask(long[] epochMillis, LongUnaryOperator key, long first, int step, int size, int from, int to) {
+            this.epochMillis = epochMillis;
+            this.key = key;
+            this.first = first;
+            this.step = step;
+            this.size = size;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from > PARALLEL_THRESHOLD) {
+                int mid = (from + to) >>> 1;
+                CountTask right = new CountTask(epochMillis, key, first, step, size, mid, to);
+                right.fork();
+                int[] counts = new CountTask(epochMillis, key, first, step, size, from, mid).compute();
+                int[] other = right.join();
+                for (int i = 0; i < size; i++) {
+                    counts[i] += other[i];
+                }
+                return counts;
+            }
+            return count(epochMillis, key, first, step, size, from, to);
+        }
+
+        private static int[] count(long[] epochMillis, LongUnaryOperator key, long first, int step, int size,
+                                   int from, int to) {
+            int[] counts = new int[size];
+            for (int i = from; i < to; i++) {
+                long index = (key.applyAsLong(epochMillis[i]) - first) / step;
+                if (index >= 0 && index < size) {
+                    counts[(int) index]++;
+                }
+            }
+            return counts;
+        }
+    }
 }
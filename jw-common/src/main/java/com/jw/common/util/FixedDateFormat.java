@@ -0,0 +1,277 @@
+package com.jw.common.util;
+
+import java.text.DateFormat;
+import java.text.FieldPosition;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.ParsePosition;
+import java.text.SimpleDateFormat;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.TimeZone;
+
+/**
+ * @description: 固定格式 yyyy-MM-dd HH:mm:ss / yyyy-MM-dd 的格式化与解析，不可变且线程安全，可在任意线程(含虚拟线程)共享
+ * 格式化缓存最近一次结果(按秒或按天)，同一秒内重复格式化直接返回；解析手工读取定长数字
+ * 非定长或超出范围的输入(如 2020-2-5、2020-02-30、附加内容)及 1900~2100 年以外的时间交给 SimpleDateFormat 处理，结果与原来一致
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public final class FixedDateFormat {
+    public static final String DATE_TIME_PATTERN = "yyyy-MM-dd HH:mm:ss";
+    public static final String DATE_PATTERN = "yyyy-MM-dd";
+
+    public static final FixedDateFormat DATE_TIME = new FixedDateFormat(DATE_TIME_PATTERN, 1000);
+    public static final FixedDateFormat DATE = new FixedDateFormat(DATE_PATTERN, ZoneOffsetTable.DAY_MILLIS);
+
+    private final String pattern;
+    /**
+     * 缓存粒度，单位毫秒
+     */
+    private final long unit;
+    private volatile Cached cached;
+
+    private FixedDateFormat(String pattern, long unit) {
+        this.pattern = pattern;
+        this.unit = unit;
+    }
+
+    /**
+     * 固定格式的实例，其他格式返回null
+     */
+    public static FixedDateFormat forPattern(String pattern) {
+        if (DATE_TIME_PATTERN.equals(pattern)) {
+            return DATE_TIME;
+        }
+        return DATE_PATTERN.equals(pattern) ? DATE : null;
+    }
+
+    public String getPattern() {
+        return pattern;
+    }
+
+    public String format(Date date) {
+        return format(date.getTime());
+    }
+
+    public String format(long epochMillis) {
+        return format(epochMillis, ZoneOffsetTable.systemDefault());
+    }
+
+    String format(long epochMillis, ZoneOffsetTable table) {
+        long local = table.toLocalMillis(epochMillis);
+        long key = Math.floorDiv(local, unit);
+        Cached last = cached;
+        if (last != null && last.key == key && last.table == table) {
+            return last.text;
+        }
+        String text = format(epochMillis, local, table);
+        cached = new Cached(table, key, text);
+        return text;
+    }
+
+    public Date parse(String text) throws ParseException {
+        return new Date(parseMillis(text));
+    }
+
+    public long parseMillis(String text) throws ParseException {
+        return parseMillis(text, ZoneOffsetTable.systemDefault());
+    }
+
+    long parseMillis(String text, ZoneOffsetTable table) throws ParseException {
+        long local = parseLocal(text);
+        if (local == Long.MIN_VALUE || !ZoneOffsetTable.covers(local)) {
+            return fallback(table).parse(text).getTime();
+        }
+        return table.toEpochMillis(local, true);
+    }
+
+    /**
+     * 供 Jackson 等需要 DateFormat 的场景使用，clone 只创建一个轻量对象，不复制 Calendar/NumberFormat
+     */
+    public DateFormat toDateFormat() {
+        return new SharedDateFormat(this, null);
+    }
+
+    private SimpleDateFormat fallback(ZoneOffsetTable table) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        if (table != ZoneOffsetTable.systemDefault()) {
+            format.setTimeZone(TimeZone.getTimeZone(table.getZone()));
+        }
+        return format;
+    }
+
+    private String format(long epochMillis, long local, ZoneOffsetTable table) {
+        if (!ZoneOffsetTable.covers(epochMillis)) {
+            //1900 年以前及 2100 年以后交给 SimpleDateFormat，与 java.util.TimeZone 的历史偏移保持一致
+            return fallback(table).format(new Date(epochMillis));
+        }
+        long civil = ZoneOffsetTable.civilFromDays(Math.floorDiv(local, ZoneOffsetTable.DAY_MILLIS));
+        long year = civil >> 9;
+        char[] buf = new char[pattern.length()];
+        digits(buf, 0, (int) year, 4);
+        buf[4] = '-';
+        digits(buf, 5, (int) (civil >> 5) & 0xF, 2);
+        buf[7] = '-';
+        digits(buf, 8, (int) civil & 0x1F, 2);
+        if (buf.length > 10) {
+            int seconds = (int) (Math.floorMod(local, ZoneOffsetTable.DAY_MILLIS) / 1000);
+            buf[10] = ' ';
+            digits(buf, 11, seconds / 3600, 2);
+            buf[13] = ':';
+            digits(buf, 14, seconds / 60 % 60, 2);
+            buf[16] = ':';
+            digits(buf, 17, seconds % 60, 2);
+        }
+        return new String(buf);
+    }
+
+    /**
+     * 解析定长的规范格式，返回本地毫秒数；不是规范格式或字段超出范围时返回 Long.MIN_VALUE
+     */
+    private long parseLocal(String text) {
+        if (text == null || text.length() != pattern.length()
+                || text.charAt(4) != '-' || text.charAt(7) != '-') {
+            return Long.MIN_VALUE;
+        }
+        int year = number(text, 0, 4);
+        int month = number(text, 5, 2);
+        int day = number(text, 8, 2);
+        if (month < 1 || month > 12 || day < 1 || day > lengthOfMonth(year, month)) {
+            return Long.MIN_VALUE;
+        }
+        long local = ZoneOffsetTable.daysFromCivil(year, month, day) * ZoneOffsetTable.DAY_MILLIS;
+        if (text.length() == 10) {
+            return local;
+        }
+        if (text.charAt(10) != ' ' || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return Long.MIN_VALUE;
+        }
+        int hour = number(text, 11, 2);
+        int minute = number(text, 14, 2);
+        int second = number(text, 17, 2);
+        if (hour < 0 || hour > 23 || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return Long.MIN_VALUE;
+        }
+        return local + hour * 3600_000L + minute * 60_000L + second * 1000L;
+    }
+
+    /**
+     * 读取定长数字，含非数字字符时返回-1
+     */
+    private static int number(String text, int from, int length) {
+        int value = 0;
+        for (int i = from; i < from + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    private static void digits(char[] buf, int from, int value, int length) {
+        for (int i = from + length - 1; i >= from; i--) {
+            buf[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int lengthOfMonth(int year, int month) {
+        if (month == 2) {
+            return (year % 4 == 0 && year % 100 != 0) || year % 400 == 0 ? 29 : 28;
+        }
+        return month == 4 || month == 6 || month == 9 || month == 11 ? 30 : 31;
+    }
+
+    private static final class Cached {
+        private final ZoneOffsetTable table;
+        private final long key;
+        private final String text;
+
+        private Cached(ZoneOffsetTable table, long key, String text) {
+            this.table = table;
+            this.key = key;
+            this.text = text;
+        }
+    }
+
+    /**
+     * DateFormat 适配，未指定时区时跟随系统默认时区；复制时只创建一个小对象，不复制 Calendar/NumberFormat
+     */
+    private static final class SharedDateFormat extends DateFormat {
+        /**
+         * 仅为满足 DateFormat 的字段约定，格式化与解析不使用
+         */
+        private static final Calendar PLACEHOLDER_CALENDAR = Calendar.getInstance();
+        private static final NumberFormat PLACEHOLDER_NUMBER_FORMAT = NumberFormat.getIntegerInstance();
+
+        private final FixedDateFormat format;
+        private ZoneOffsetTable table;
+
+        private SharedDateFormat(FixedDateFormat format, ZoneOffsetTable table) {
+            this.format = format;
+            this.table = table;
+            this.calendar = PLACEHOLDER_CALENDAR;
+            this.numberFormat = PLACEHOLDER_NUMBER_FORMAT;
+        }
+
+        private ZoneOffsetTable table() {
+            return table == null ? ZoneOffsetTable.systemDefault() : table;
+        }
+
+        @Override
+        public StringBuffer format(Date date, StringBuffer toAppendTo, FieldPosition fieldPosition) {
+            return toAppendTo.append(format.format(date.getTime(), table()));
+        }
+
+        @Override
+        public Date parse(String source, ParsePosition pos) {
+            String text = pos.getIndex() == 0 ? source : source.substring(pos.getIndex());
+            try {
+                Date date = new Date(format.parseMillis(text, table()));
+                pos.setIndex(source.length());
+                return date;
+            } catch (ParseException e) {
+                pos.setErrorIndex(pos.getIndex() + e.getErrorOffset());
+                return null;
+            }
+        }
+
+        @Override
+        public void setTimeZone(TimeZone zone) {
+            this.table = ZoneOffsetTable.of(zone.toZoneId());
+        }
+
+        @Override
+        public TimeZone getTimeZone() {
+            return TimeZone.getTimeZone(table().getZone());
+        }
+
+        @Override
+        public void setLenient(boolean lenient) {
+        }
+
+        @Override
+        public boolean isLenient() {
+            return true;
+        }
+
+        @Override
+        public Object clone() {
+            return new SharedDateFormat(format, table);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            return obj instanceof SharedDateFormat && ((SharedDateFormat) obj).format == format
+                    && ((SharedDateFormat) obj).table == table;
+        }
+
+        @Override
+        public int hashCode() {
+            return format.hashCode();
+        }
+    }
+}
@@ -0,0 +1,444 @@
+package com.jw.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.Header;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.DeflateDecompressingEntity;
+import org.apache.http.client.entity.GzipDecompressingEntity;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.concurrent.FutureCallback;
+import org.apache.http.impl.nio.client.CloseableHttpAsyncClient;
+import org.apache.http.impl.nio.client.HttpAsyncClients;
+import org.apache.http.impl.nio.conn.PoolingNHttpClientConnectionManager;
+import org.apache.http.impl.nio.reactor.DefaultConnectingIOReactor;
+import org.apache.http.impl.nio.reactor.IOReactorConfig;
+import org.apache.http.util.EntityUtils;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * @description: 基于 NIO 的异步 HTTP 工具，返回 CompletableFuture，不占用调用线程
+ * 回调在 I/O 线程上执行，耗时的后续处理请使用 thenApplyAsync 等方法切换到业务线程池
+ * 异步请求的耗时从提交请求开始计算，包含等待连接及建立连接的时间
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class HttpAsyncClientUtil {
+
+    private static volatile CloseableHttpAsyncClient httpAsyncClient;
+
+    private static volatile PoolingNHttpClientConnectionManager connectionManager;
+
+    private static volatile HttpClientConfig config;
+
+    /**
+     * 空闲连接回收及批量请求超时共用的调度线程
+     */
+    private static final ScheduledExecutorService SCHEDULER = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "http-async-scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        init(new HttpClientConfig());
+        HttpClientMetrics.bindPool("async", () -> connectionManager.getTotalStats());
+        SCHEDULER.scheduleWithFixedDelay(HttpAsyncClientUtil::evictConnections, 5, 5, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(HttpAsyncClientUtil::close, "http-async-shutdown"));
+    }
+
+    private HttpAsyncClientUtil() {
+    }
+
+    /**
+     * 按配置重建异步客户端，应在应用启动时调用，旧客户端会被关闭
+     *
+     * @param httpClientConfig 连接池及超时配置
+     */
+    public static synchronized void init(HttpClientConfig httpClientConfig) {
+        IOReactorConfig ioReactorConfig = IOReactorConfig.custom()
+                .setIoThreadCount(httpClientConfig.getIoThreadCount())
+                .setConnectTimeout(httpClientConfig.getConnectTimeout())
+                .setSoTimeout(httpClientConfig.getSocketTimeout())
+                .build();
+        PoolingNHttpClientConnectionManager manager;
+        try {
+            manager = new PoolingNHttpClientConnectionManager(new DefaultConnectingIOReactor(ioReactorConfig));
+        } catch (IOException e) {
+            throw new IllegalStateException("初始化异步HttpClient失败", e);
+        }
+        manager.setMaxTotal(httpClientConfig.getMaxTotal());
+        manager.setDefaultMaxPerRoute(httpClientConfig.getMaxPerRoute());
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(httpClientConfig.getConnectTimeout())
+                .setSocketTimeout(httpClientConfig.getSocketTimeout())
+                .setConnectionRequestTimeout(httpClientConfig.getConnectionRequestTimeout())
+                .build();
+        CloseableHttpAsyncClient client = HttpAsyncClients.custom()
+                .setConnectionManager(manager)
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(HttpClientUtil.keepAliveStrategy(httpClientConfig.getKeepAlive()))
+                .build();
+        client.start();
+        CloseableHttpAsyncClient old = httpAsyncClient;
+        httpAsyncClient = client;
+        connectionManager = manager;
+        config = httpClientConfig;
+        closeQuietly(old);
+    }
+
+    public static synchronized void close() {
+        closeQuietly(httpAsyncClient);
+    }
+
+    public static PoolingNHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
+    public static CompletableFuture<String> post(String url, Map<String, String> paramMap) {
+        return executeForString(() -> HttpClientUtil.postRequest(url, paramMap));
+    }
+
+    public static CompletableFuture<String> post(String url, String data) {
+        return executeForString(() -> HttpClientUtil.postRequest(url, data));
+    }
+
+    /**
+     * 以 application/json 发送UTF-8字节，开启 HttpClientConfig.requestGzipThreshold 且请求体达到该大小时 gzip 压缩
+     */
+    public static CompletableFuture<String> postJson(String url, String json) {
+        return executeForString(() -> HttpClientUtil.jsonRequest(url, json.getBytes(StandardCharsets.UTF_8),
+                config.getRequestGzipThreshold()));
+    }
+
+    public static CompletableFuture<String> postJson(String url, Object body) {
+        return executeForString(() -> HttpClientUtil.jsonRequest(url, JsonUtil.toBytes(body),
+                config.getRequestGzipThreshold()));
+    }
+
+    public static CompletableFuture<String> get(String url) {
+        return executeForString(() -> HttpClientUtil.getRequest(url));
+    }
+
+    /**
+     * 响应体直接从字节解码为指定类型，状态码非2xx时以 HttpResponseException 异常完成
+     */
+    public static <T> CompletableFuture<T> get(String url, Class<T> type) {
+        return executeFor(() -> HttpClientUtil.getRequest(url), HttpClientUtil.streamHandler(in -> JsonUtil.parse(in, type)));
+    }
+
+    public static CompletableFuture<String> get(String url, Map<String, String> paramMap) {
+        return executeForString(() -> HttpClientUtil.getRequest(url, paramMap));
+    }
+
+    public static CompletableFuture<String> put(String url, Map<String, String> paramMap) {
+        return executeForString(() -> HttpClientUtil.putRequest(url, paramMap));
+    }
+
+    public static CompletableFuture<String> delete(String url) {
+        return executeForString(() -> HttpClientUtil.deleteRequest(url));
+    }
+
+    public static CompletableFuture<String> delete(String url, Map<String, String> paramMap) {
+        return executeForString(() -> HttpClientUtil.deleteRequest(url, paramMap));
+    }
+
+    /**
+     * 异步执行请求，响应体已完整读入内存，gzip/deflate 响应已解压；取消返回的 future 会中断底层请求
+     *
+     * @param request 请求
+     * @return 响应
+     */
+    public static CompletableFuture<HttpResponse> execute(HttpUriRequest request) {
+        CompletableFuture<HttpResponse> result = new CompletableFuture<>();
+        String host = HttpClientMetrics.hostOf(URIUtils.extractHost(request.getURI()));
+        if (!request.containsHeader(HttpHeaders.ACCEPT_ENCODING)) {
+            request.addHeader(HttpHeaders.ACCEPT_ENCODING, "gzip,deflate");
+        }
+        long start = System.nanoTime();
+        Future<HttpResponse> future = httpAsyncClient.execute(request, new FutureCallback<HttpResponse>() {
+            @Override
+            public void completed(HttpResponse response) {
+                HttpClientMetrics.recordRequest(host, request.getMethod(), response.getStatusLine().getStatusCode(),
+                        System.nanoTime() - start);
+                decompress(response);
+                result.complete(response);
+            }
+
+            @Override
+            public void failed(Exception ex) {
+                HttpClientMetrics.recordError(host, request.getMethod(), ex);
+                result.completeExceptionally(ex);
+            }
+
+            @Override
+            public void cancelled() {
+                result.cancel(false);
+            }
+        });
+        result.whenComplete((response, ex) -> {
+            if (result.isCancelled()) {
+                future.cancel(true);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 并发扇出一批异步调用，同时在途的调用数不超过 maxConcurrency，到达截止时间后未完成的调用被取消
+     * 返回的 future 不会异常完成，成功与失败的结果都收集在 {@link BatchResult} 中
+     *
+     * @param calls          调用列表，仅在获得并发许可时才会被触发
+     * @param maxConcurrency 最大并发数
+     * @param timeout        整批共享的截止时间
+     * @param unit           时间单位
+     * @param <T>            结果类型
+     * @return 批量结果，下标与 calls 一致
+     */
+    public static <T> CompletableFuture<BatchResult<T>> fanOut(List<? extends Supplier<? extends CompletableFuture<T>>> calls,
+                                                               int maxConcurrency, long timeout, TimeUnit unit) {
+        if (maxConcurrency <= 0) {
+            throw new IllegalArgumentException("maxConcurrency must be positive");
+        }
+        FanOut<T> fanOut = new FanOut<>(calls);
+        if (calls.isEmpty()) {
+            fanOut.finish();
+            return fanOut.promise;
+        }
+        Future<?> deadline = SCHEDULER.schedule(fanOut::finish, timeout, unit);
+        fanOut.promise.whenComplete((result, ex) -> deadline.cancel(false));
+        for (int i = 0, n = Math.min(maxConcurrency, calls.size()); i < n; i++) {
+            fanOut.launchNext();
+        }
+        return fanOut.promise;
+    }
+
+    private static CompletableFuture<String> executeForString(RequestSupplier supplier) {
+        return executeFor(supplier, HttpClientUtil::getHttpEntityContent);
+    }
+
+    private static <T> CompletableFuture<T> executeFor(RequestSupplier supplier, ResponseHandler<T> handler) {
+        HttpUriRequest request;
+        try {
+            request = supplier.get();
+        } catch (IOException e) {
+            CompletableFuture<T> failed = new CompletableFuture<>();
+            failed.completeExceptionally(e);
+            return failed;
+        }
+        CompletableFuture<HttpResponse> responseFuture = execute(request);
+        CompletableFuture<T> result = responseFuture.thenApply(response -> {
+            try {
+                return handler.handleResponse(response);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            } finally {
+                EntityUtils.consumeQuietly(response.getEntity());
+            }
+        });
+        result.whenComplete((content, ex) -> {
+            if (result.isCancelled()) {
+                responseFuture.cancel(false);
+            }
+        });
+        return result;
+    }
+
+    /**
+     * 异步客户端没有同步客户端的 ResponseContentEncoding 拦截器，按 Content-Encoding 替换为解压实体
+     */
+    private static void decompress(HttpResponse response) {
+        HttpEntity entity = response.getEntity();
+        Header encoding = response.getFirstHeader(HttpHeaders.CONTENT_ENCODING);
+        if (entity == null || encoding == null) {
+            return;
+        }
+        String codec = encoding.getValue().trim().toLowerCase(Locale.ROOT);
+        if ("gzip".equals(codec) || "x-gzip".equals(codec)) {
+            response.setEntity(new GzipDecompressingEntity(entity));
+        } else if ("deflate".equals(codec)) {
+            response.setEntity(new DeflateDecompressingEntity(entity));
+        } else {
+            return;
+        }
+        response.removeHeaders(HttpHeaders.CONTENT_LENGTH);
+        response.removeHeaders(HttpHeaders.CONTENT_ENCODING);
+        response.removeHeaders(HttpHeaders.CONTENT_MD5);
+    }
+
+    private static void evictConnections() {
+        PoolingNHttpClientConnectionManager manager = connectionManager;
+        if (manager == null) {
+            return;
+        }
+        manager.closeExpiredConnections();
+        manager.closeIdleConnections(config.getMaxIdleTime(), TimeUnit.MILLISECONDS);
+    }
+
+    private static void closeQuietly(CloseableHttpAsyncClient client) {
+        if (client == null) {
+            return;
+        }
+        try {
+            client.close();
+        } catch (IOException e) {
+            log.warn("关闭异步HttpClient失败", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface RequestSupplier {
+        HttpUriRequest get() throws IOException;
+    }
+
+    /**
+     * 一次扇出的执行状态
+     */
+    private static final class FanOut<T> {
+        private final List<? extends Supplier<? extends CompletableFuture<T>>> calls;
+        private final AtomicReferenceArray<CompletableFuture<? extends T>> futures;
+        private final AtomicInteger next = new AtomicInteger();
+        private final AtomicInteger remaining;
+        private final CompletableFuture<BatchResult<T>> promise = new CompletableFuture<>();
+        /**
+         * 在取消未完成的调用之前置位，被取消调用的回调据此不再启动新的调用
+         */
+        private final AtomicBoolean finished = new AtomicBoolean();
+
+        private FanOut(List<? extends Supplier<? extends CompletableFuture<T>>> calls) {
+            this.calls = calls;
+            this.futures = new AtomicReferenceArray<>(calls.size());
+            this.remaining = new AtomicInteger(calls.size());
+        }
+
+        /**
+         * 占用一个并发名额依次启动调用。注册回调时已完成的调用(如立即失败)由当前循环继续启动下一个，
+         * 未完成的调用由其完成回调接着启动，调用栈深度不随调用数增长
+         */
+        private void launchNext() {
+            for (; ; ) {
+                int index = next.getAndIncrement();
+                if (index >= calls.size() || finished.get()) {
+                    return;
+                }
+                CompletableFuture<? extends T> future;
+                try {
+                    future = calls.get(index).get();
+                } catch (RuntimeException e) {
+                    CompletableFuture<T> failed = new CompletableFuture<>();
+                    failed.completeExceptionally(e);
+                    future = failed;
+                }
+                futures.set(index, future);
+                //回调和当前循环谁先把 launching 置为 false，谁就不负责启动下一个
+                AtomicBoolean launching = new AtomicBoolean(true);
+                future.whenComplete((value, ex) -> {
+                    if (remaining.decrementAndGet() == 0) {
+                        finish();
+                    } else if (!launching.compareAndSet(true, false)) {
+                        launchNext();
+                    }
+                });
+                //启动期间已到截止时间，finish 可能没看到这个调用，在这里取消
+                if (finished.get()) {
+                    future.cancel(true);
+                    return;
+                }
+                if (launching.compareAndSet(true, false)) {
+                    return;
+                }
+            }
+        }
+
+        private void finish() {
+            if (!finished.compareAndSet(false, true)) {
+                return;
+            }
+            int size = calls.size();
+            List<T> results = new ArrayList<>(size);
+            Map<Integer, Throwable> errors = new HashMap<>(8);
+            for (int i = 0; i < size; i++) {
+                CompletableFuture<? extends T> future = futures.get(i);
+                if (future == null) {
+                    results.add(null);
+                    errors.put(i, new TimeoutException("not started before deadline"));
+                } else if (!future.isDone()) {
+                    future.cancel(true);
+                    results.add(null);
+                    errors.put(i, new TimeoutException("deadline exceeded"));
+                } else if (future.isCompletedExceptionally()) {
+                    results.add(null);
+                    errors.put(i, causeOf(future));
+                } else {
+                    results.add(future.getNow(null));
+                }
+            }
+            promise.complete(new BatchResult<>(results, errors));
+        }
+
+        private static Throwable causeOf(CompletableFuture<?> future) {
+            try {
+                future.join();
+                return null;
+            } catch (CancellationException e) {
+                return e;
+            } catch (RuntimeException e) {
+                return e.getCause() == null ? e : e.getCause();
+            }
+        }
+    }
+
+    /**
+     * 批量调用结果，未成功的下标在 results 中为 null，对应异常记录在 errors 中
+     */
+    public static final class BatchResult<T> {
+        private final List<T> results;
+        private final Map<Integer, Throwable> errors;
+
+        private BatchResult(List<T> results, Map<Integer, Throwable> errors) {
+            this.results = Collections.unmodifiableList(results);
+            this.errors = Collections.unmodifiableMap(errors);
+        }
+
+        public List<T> getResults() {
+            return results;
+        }
+
+        public Map<Integer, Throwable> getErrors() {
+            return errors;
+        }
+
+        public boolean isComplete() {
+            return errors.isEmpty();
+        }
+
+        public int getSucceeded() {
+            return results.size() - errors.size();
+        }
+    }
+}
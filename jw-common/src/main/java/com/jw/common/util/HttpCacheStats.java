@@ -0,0 +1,68 @@
+package com.jw.common.util;
+
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * @description: HttpClientUtil 响应缓存统计，用于评估命中率和调整缓存大小
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class HttpCacheStats {
+    /**
+     * 直接由缓存返回
+     */
+    final LongAdder hits = new LongAdder();
+    /**
+     * 缓存未命中，请求了源站
+     */
+    final LongAdder misses = new LongAdder();
+    /**
+     * 缓存过期，经条件请求(If-None-Match/If-Modified-Since)确认未变化
+     */
+    final LongAdder validated = new LongAdder();
+    /**
+     * 与同一地址的在途请求合并，未单独发出
+     */
+    final LongAdder coalesced = new LongAdder();
+    /**
+     * 因超出内存上限被淘汰的条目
+     */
+    final LongAdder evictions = new LongAdder();
+
+    volatile BoundedHttpCacheStorage storage;
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getValidated() {
+        return validated.sum();
+    }
+
+    public long getCoalesced() {
+        return coalesced.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public int getEntries() {
+        return storage == null ? 0 : storage.entries();
+    }
+
+    public long getBytes() {
+        return storage == null ? 0 : storage.bytes();
+    }
+
+    @Override
+    public String toString() {
+        return "HttpCacheStats{hits=" + getHits() + ", misses=" + getMisses() + ", validated=" + getValidated()
+                + ", coalesced=" + getCoalesced() + ", evictions=" + getEvictions() + ", entries=" + getEntries()
+                + ", bytes=" + getBytes() + '}';
+    }
+}
@@ -0,0 +1,262 @@
+package com.jw.common.util;
+
+/**
+ * @description: HttpClientUtil 连接池及超时配置，单位均为毫秒
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class HttpClientConfig {
+    /**
+     * 连接池最大连接数
+     */
+    private int maxTotal = 200;
+    /**
+     * 每个路由(host:port)最大连接数
+     */
+    private int maxPerRoute = 50;
+    /**
+     * 建立连接超时
+     */
+    private int connectTimeout = 5000;
+    /**
+     * 读取数据超时
+     */
+    private int socketTimeout = 60000;
+    /**
+     * 从连接池获取连接超时
+     */
+    private int connectionRequestTimeout = 5000;
+    /**
+     * 服务端未返回 Keep-Alive 时连接的默认保活时间
+     */
+    private long keepAlive = 30000;
+    /**
+     * 空闲超过该时间的连接会被后台线程回收
+     */
+    private long maxIdleTime = 60000;
+    /**
+     * 连接空闲超过该时间后再次使用前先做可用性校验
+     */
+    private int validateAfterInactivity = 2000;
+    /**
+     * 异步客户端 I/O 线程数
+     */
+    private int ioThreadCount = Runtime.getRuntime().availableProcessors();
+    /**
+     * 响应缓存占用内存上限(字节)，超出后按最近最少使用淘汰
+     */
+    private long cacheMaxBytes = 64L * 1024 * 1024;
+    /**
+     * 单个响应超过该大小(字节)时不缓存
+     */
+    private long cacheMaxObjectSize = 1024L * 1024;
+    /**
+     * JSON 请求体达到该大小(字节)时使用 gzip 压缩发送，默认 -1 不压缩
+     * 需两端同时开启：Tomcat 不会解压请求体，接收方服务必须先注册 {@link com.jw.common.filter.GzipRequestFilter}
+     */
+    private int requestGzipThreshold = -1;
+    /**
+     * 幂等请求(GET/HEAD/PUT/DELETE/OPTIONS)失败后的最大重试次数，非幂等请求仅在连接未建立时重试
+     */
+    private int maxRetries = 2;
+    /**
+     * 重试退避基数，实际等待时间在 [0, min(retryMaxBackoff, retryBackoff * 2^n)] 之间随机
+     */
+    private long retryBackoff = 100;
+    /**
+     * 重试退避上限
+     */
+    private long retryMaxBackoff = 2000;
+    /**
+     * 重试预算：每个请求存入的重试额度，0.1 表示重试量不超过请求量的 10%
+     */
+    private double retryBudgetRatio = 0.1;
+    /**
+     * 重试预算：低流量时每秒保底的重试次数
+     */
+    private int retryBudgetMinPerSecond = 10;
+    /**
+     * 同一 host 连续失败达到该次数后熔断，0 表示不启用
+     */
+    private int circuitFailureThreshold = 20;
+    /**
+     * 熔断持续时间，到期后放行一个探测请求
+     */
+    private long circuitOpenTime = 10000;
+    /**
+     * 对冲请求：主请求超过该 host 历史耗时的该分位值仍未返回时发出第二个请求
+     */
+    private double hedgePercentile = 0.95;
+    /**
+     * 对冲请求的最小等待时间，样本不足时也使用该值
+     */
+    private long hedgeMinDelay = 10;
+
+    public int getMaxTotal() {
+        return maxTotal;
+    }
+
+    public void setMaxTotal(int maxTotal) {
+        this.maxTotal = maxTotal;
+    }
+
+    public int getMaxPerRoute() {
+        return maxPerRoute;
+    }
+
+    public void setMaxPerRoute(int maxPerRoute) {
+        this.maxPerRoute = maxPerRoute;
+    }
+
+    public int getConnectTimeout() {
+        return connectTimeout;
+    }
+
+    public void setConnectTimeout(int connectTimeout) {
+        this.connectTimeout = connectTimeout;
+    }
+
+    public int getSocketTimeout() {
+        return socketTimeout;
+    }
+
+    public void setSocketTimeout(int socketTimeout) {
+        this.socketTimeout = socketTimeout;
+    }
+
+    public int getConnectionRequestTimeout() {
+        return connectionRequestTimeout;
+    }
+
+    public void setConnectionRequestTimeout(int connectionRequestTimeout) {
+        this.connectionRequestTimeout = connectionRequestTimeout;
+    }
+
+    public long getKeepAlive() {
+        return keepAlive;
+    }
+
+    public void setKeepAlive(long keepAlive) {
+        this.keepAlive = keepAlive;
+    }
+
+    public long getMaxIdleTime() {
+        return maxIdleTime;
+    }
+
+    public void setMaxIdleTime(long maxIdleTime) {
+        this.maxIdleTime = maxIdleTime;
+    }
+
+    public int getValidateAfterInactivity() {
+        return validateAfterInactivity;
+    }
+
+    public void setValidateAfterInactivity(int validateAfterInactivity) {
+        this.validateAfterInactivity = validateAfterInactivity;
+    }
+
+    public int getIoThreadCount() {
+        return ioThreadCount;
+    }
+
+    public void setIoThreadCount(int ioThreadCount) {
+        this.ioThreadCount = ioThreadCount;
+    }
+
+    public long getCacheMaxBytes() {
+        return cacheMaxBytes;
+    }
+
+    public void setCacheMaxBytes(long cacheMaxBytes) {
+        this.cacheMaxBytes = cacheMaxBytes;
+    }
+
+    public long getCacheMaxObjectSize() {
+        return cacheMaxObjectSize;
+    }
+
+    public void setCacheMaxObjectSize(long cacheMaxObjectSize) {
+        this.cacheMaxObjectSize = cacheMaxObjectSize;
+    }
+
+    public int getRequestGzipThreshold() {
+        return requestGzipThreshold;
+    }
+
+    public void setRequestGzipThreshold(int requestGzipThreshold) {
+        this.requestGzipThreshold = requestGzipThreshold;
+    }
+
+    public int getMaxRetries() {
+        return maxRetries;
+    }
+
+    public void setMaxRetries(int maxRetries) {
+        this.maxRetries = maxRetries;
+    }
+
+    public long getRetryBackoff() {
+        return retryBackoff;
+    }
+
+    public void setRetryBackoff(long retryBackoff) {
+        this.retryBackoff = retryBackoff;
+    }
+
+    public long getRetryMaxBackoff() {
+        return retryMaxBackoff;
+    }
+
+    public void setRetryMaxBackoff(long retryMaxBackoff) {
+        this.retryMaxBackoff = retryMaxBackoff;
+    }
+
+    public double getRetryBudgetRatio() {
+        return retryBudgetRatio;
+    }
+
+    public void setRetryBudgetRatio(double retryBudgetRatio) {
+        this.retryBudgetRatio = retryBudgetRatio;
+    }
+
+    public int getRetryBudgetMinPerSecond() {
+        return retryBudgetMinPerSecond;
+    }
+
+    public void setRetryBudgetMinPerSecond(int retryBudgetMinPerSecond) {
+        this.retryBudgetMinPerSecond = retryBudgetMinPerSecond;
+    }
+
+    public int getCircuitFailureThreshold() {
+        return circuitFailureThreshold;
+    }
+
+    public void setCircuitFailureThreshold(int circuitFailureThreshold) {
+        this.circuitFailureThreshold = circuitFailureThreshold;
+    }
+
+    public long getCircuitOpenTime() {
+        return circuitOpenTime;
+    }
+
+    public void setCircuitOpenTime(long circuitOpenTime) {
+        this.circuitOpenTime = circuitOpenTime;
+    }
+
+    public double getHedgePercentile() {
+        return hedgePercentile;
+    }
+
+    public void setHedgePercentile(double hedgePercentile) {
+        this.hedgePercentile = hedgePercentile;
+    }
+
+    public long getHedgeMinDelay() {
+        return hedgeMinDelay;
+    }
+
+    public void setHedgeMinDelay(long hedgeMinDelay) {
+        this.hedgeMinDelay = hedgeMinDelay;
+    }
+}
@@ -0,0 +1,245 @@
+package com.jw.common.util;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.HttpException;
+import org.apache.http.HttpHost;
+import org.apache.http.HttpRequest;
+import org.apache.http.HttpResponse;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.pool.PoolStats;
+import org.apache.http.protocol.HttpContext;
+import org.apache.http.protocol.HttpCoreContext;
+import org.apache.http.protocol.HttpRequestExecutor;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * @description: 出站 HTTP 指标，默认注册到 Micrometer 全局注册表，由 actuator 的 /actuator/metrics 等端点暴露
+ * host 标签最多取 {@link #setMaxHosts(int)} 个不同的值，之后出现的 host 记为 other，避免任意 URL 导致指标数量无限增长；
+ * 百分位直方图默认关闭，按需通过 {@link #setPercentileHistogram(boolean)} 开启
+ * <ul>
+ *     <li>http.client.requests: 发送请求到收到响应头的耗时，按 host/method/status 区分，其计数即状态码计数</li>
+ *     <li>http.client.connect: 建立连接(含 TLS 握手)耗时，按 host 区分</li>
+ *     <li>http.client.errors: 请求异常次数，按 host/method/exception 区分</li>
+ *     <li>http.client.bytes.sent / http.client.bytes.received: 已知长度的请求/响应体字节数</li>
+ *     <li>http.client.pool.leased/available/pending/max: 连接池状态，按 pool 区分</li>
+ * </ul>
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public final class HttpClientMetrics {
+
+    public static final String OTHER_HOST = "other";
+
+    private static volatile MeterRegistry registry = Metrics.globalRegistry;
+    private static volatile int maxHosts = 100;
+    private static volatile boolean percentileHistogram;
+
+    /**
+     * 已作为标签使用的 host
+     */
+    private static final Set<String> HOSTS = ConcurrentHashMap.newKeySet();
+
+    /**
+     * gauge 只持有弱引用，这里保持强引用避免被回收
+     */
+    private static final Map<String, Supplier<PoolStats>> POOLS = new ConcurrentHashMap<>(4);
+
+    private HttpClientMetrics() {
+    }
+
+    /**
+     * 指定注册表，需在发出请求之前调用，已注册的指标不会迁移
+     */
+    public static void setRegistry(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+    }
+
+    /**
+     * host 标签的最大取值个数，默认 100，超出后记为 {@link #OTHER_HOST}
+     */
+    public static void setMaxHosts(int max) {
+        maxHosts = max;
+    }
+
+    /**
+     * 是否为耗时指标发布百分位直方图，每个 host/method/status 组合各有一组桶，默认关闭；需在发出请求之前调用
+     */
+    public static void setPercentileHistogram(boolean enabled) {
+        percentileHistogram = enabled;
+    }
+
+    /**
+     * 已出现过的 host 原样返回；新 host 在未达上限时加入，否则返回 {@link #OTHER_HOST}
+     */
+    static String hostTag(String host) {
+        if (HOSTS.contains(host)) {
+            return host;
+        }
+        if (HOSTS.size() >= maxHosts) {
+            return OTHER_HOST;
+        }
+        HOSTS.add(host);
+        return host;
+    }
+
+    static void recordRequest(String host, String method, int status, long nanos) {
+        Timer.builder("http.client.requests")
+                .tags("host", hostTag(host), "method", method, "status", String.valueOf(status))
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    static void recordConnect(String host, long nanos) {
+        Timer.builder("http.client.connect")
+                .tags("host", hostTag(host))
+                .publishPercentileHistogram(percentileHistogram)
+                .register(registry)
+                .record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    static void recordError(String host, String method, Throwable e) {
+        Counter.builder("http.client.errors")
+                .tags("host", hostTag(host), "method", method, "exception", e.getClass().getSimpleName())
+                .register(registry)
+                .increment();
+    }
+
+    static void recordBytes(String host, String method, long sent, long received) {
+        if (sent > 0) {
+            DistributionSummary.builder("http.client.bytes.sent")
+                    .baseUnit("bytes")
+                    .tags("host", hostTag(host), "method", method)
+                    .register(registry)
+                    .record(sent);
+        }
+        if (received > 0) {
+            DistributionSummary.builder("http.client.bytes.received")
+                    .baseUnit("bytes")
+                    .tags("host", hostTag(host), "method", method)
+                    .register(registry)
+                    .record(received);
+        }
+    }
+
+    /**
+     * 注册连接池 gauge，同名连接池只注册一次，重建连接池时 supplier 应返回最新实例的统计
+     */
+    static void bindPool(String pool, Supplier<PoolStats> stats) {
+        if (POOLS.putIfAbsent(pool, stats) != null) {
+            return;
+        }
+        Supplier<PoolStats> holder = POOLS.get(pool);
+        Gauge.builder("http.client.pool.leased", holder, s -> s.get().getLeased()).tags("pool", pool).register(registry);
+        Gauge.builder("http.client.pool.available", holder, s -> s.get().getAvailable()).tags("pool", pool).register(registry);
+        Gauge.builder("http.client.pool.pending", holder, s -> s.get().getPending()).tags("pool", pool).register(registry);
+        Gauge.builder("http.client.pool.max", holder, s -> s.get().getMax()).tags("pool", pool).register(registry);
+    }
+
+    static String hostOf(HttpHost host) {
+        return host == null ? "unknown" : host.toHostString();
+    }
+
+    private static long contentLength(HttpEntity entity) {
+        return entity == null ? -1 : entity.getContentLength();
+    }
+
+    /**
+     * 记录发送请求到收到响应头的耗时，不含从连接池获取连接及建立连接的时间
+     */
+    static class MeteredRequestExecutor extends HttpRequestExecutor {
+        @Override
+        public HttpResponse execute(HttpRequest request, HttpClientConnection conn, HttpContext context)
+                throws IOException, HttpException {
+            String host = hostOf(HttpCoreContext.adapt(context).getTargetHost());
+            String method = request.getRequestLine().getMethod();
+            long start = System.nanoTime();
+            HttpResponse response;
+            try {
+                response = super.execute(request, conn, context);
+            } catch (IOException | HttpException | RuntimeException e) {
+                recordError(host, method, e);
+                throw e;
+            }
+            recordRequest(host, method, response.getStatusLine().getStatusCode(), System.nanoTime() - start);
+            long sent = request instanceof HttpEntityEnclosingRequest
+                    ? contentLength(((HttpEntityEnclosingRequest) request).getEntity()) : -1;
+            recordBytes(host, method, sent, contentLength(response.getEntity()));
+            return response;
+        }
+    }
+
+    /**
+     * 包装连接工厂以记录建立连接耗时，支持 TLS 的工厂包装后仍支持 TLS
+     */
+    static ConnectionSocketFactory metered(ConnectionSocketFactory delegate) {
+        return delegate instanceof LayeredConnectionSocketFactory
+                ? new MeteredLayeredSocketFactory((LayeredConnectionSocketFactory) delegate)
+                : new MeteredSocketFactory(delegate);
+    }
+
+    /**
+     * 记录建立连接耗时
+     */
+    static class MeteredSocketFactory implements ConnectionSocketFactory {
+        private final ConnectionSocketFactory delegate;
+
+        MeteredSocketFactory(ConnectionSocketFactory delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createSocket(HttpContext context) throws IOException {
+            return delegate.createSocket(context);
+        }
+
+        @Override
+        public Socket connectSocket(int connectTimeout, Socket sock, HttpHost host, InetSocketAddress remoteAddress,
+                                    InetSocketAddress localAddress, HttpContext context) throws IOException {
+            long start = System.nanoTime();
+            try {
+                return delegate.connectSocket(connectTimeout, sock, host, remoteAddress, localAddress, context);
+            } catch (IOException e) {
+                recordError(hostOf(host), "CONNECT", e);
+                throw e;
+            } finally {
+                recordConnect(hostOf(host), System.nanoTime() - start);
+            }
+        }
+
+    }
+
+    /**
+     * 记录建立连接耗时，包含 TLS 握手
+     */
+    static class MeteredLayeredSocketFactory extends MeteredSocketFactory implements LayeredConnectionSocketFactory {
+        private final LayeredConnectionSocketFactory delegate;
+
+        MeteredLayeredSocketFactory(LayeredConnectionSocketFactory delegate) {
+            super(delegate);
+            this.delegate = delegate;
+        }
+
+        @Override
+        public Socket createLayeredSocket(Socket socket, String target, int port, HttpContext context) throws IOException {
+            return delegate.createLayeredSocket(socket, target, port, context);
+        }
+    }
+}
@@ -1,29 +1,65 @@
 package com.jw.common.util;
 
+import com.fasterxml.jackson.databind.JavaType;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.http.HttpEntity;
+import org.apache.http.HttpHeaders;
 import org.apache.http.HttpResponse;
 import org.apache.http.NameValuePair;
+import org.apache.http.StatusLine;
 import org.apache.http.client.ClientProtocolException;
-import org.apache.http.client.HttpClient;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.cache.CacheResponseStatus;
+import org.apache.http.client.cache.HttpCacheContext;
 import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.entity.GzipCompressingEntity;
 import org.apache.http.client.entity.UrlEncodedFormEntity;
+import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpDelete;
 import org.apache.http.client.methods.HttpGet;
 import org.apache.http.client.methods.HttpPost;
 import org.apache.http.client.methods.HttpPut;
+import org.apache.http.client.methods.HttpRequestBase;
 import org.apache.http.client.utils.URLEncodedUtils;
+import org.apache.http.config.Registry;
+import org.apache.http.config.RegistryBuilder;
+import org.apache.http.conn.ConnectionKeepAliveStrategy;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.apache.http.entity.AbstractHttpEntity;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.entity.ContentType;
 import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.DefaultConnectionKeepAliveStrategy;
 import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.client.cache.CacheConfig;
+import org.apache.http.impl.client.cache.CachingHttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
 import org.apache.http.message.BasicNameValuePair;
+import org.apache.http.util.EntityUtils;
 
 import java.io.*;
 import java.net.URI;
 import java.net.URLEncoder;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
 
 /**
  * @description:
@@ -33,9 +69,101 @@ import java.util.Set;
 @Slf4j
 public class HttpClientUtil {
 
+    /**
+     * 全局共享的连接池客户端，所有请求复用连接
+     */
+    private static volatile CloseableHttpClient httpClient;
+
+    private static volatile PoolingHttpClientConnectionManager connectionManager;
+
+    private static volatile HttpClientConfig config;
+
+    private static volatile HttpResilience resilience;
+
+    /**
+     * 响应缓存，首次调用 getCached 时创建
+     */
+    private static volatile ResponseCache responseCache;
+
+    /**
+     * 流式下载复用的缓冲区，峰值内存与响应大小无关
+     */
+    private static final ThreadLocal<byte[]> TRANSFER_BUFFER = ThreadLocal.withInitial(() -> new byte[8192]);
+
+    static {
+        init(new HttpClientConfig());
+        HttpClientMetrics.bindPool("sync", () -> connectionManager.getTotalStats());
+        Runtime.getRuntime().addShutdownHook(new Thread(HttpClientUtil::close, "http-client-shutdown"));
+    }
+
     private HttpClientUtil() {
     }
 
+    /**
+     * 按配置重建客户端，应在应用启动时调用，旧客户端会被关闭
+     *
+     * @param httpClientConfig 连接池及超时配置
+     */
+    public static synchronized void init(HttpClientConfig httpClientConfig) {
+        Registry<ConnectionSocketFactory> socketFactories = RegistryBuilder.<ConnectionSocketFactory>create()
+                .register("http", HttpClientMetrics.metered(PlainConnectionSocketFactory.getSocketFactory()))
+                .register("https", HttpClientMetrics.metered(SSLConnectionSocketFactory.getSocketFactory()))
+                .build();
+        PoolingHttpClientConnectionManager manager = new PoolingHttpClientConnectionManager(socketFactories);
+        manager.setMaxTotal(httpClientConfig.getMaxTotal());
+        manager.setDefaultMaxPerRoute(httpClientConfig.getMaxPerRoute());
+        manager.setValidateAfterInactivity(httpClientConfig.getValidateAfterInactivity());
+        //设置请求和传输超时时间
+        RequestConfig requestConfig = RequestConfig.custom()
+                .setConnectTimeout(httpClientConfig.getConnectTimeout())
+                .setSocketTimeout(httpClientConfig.getSocketTimeout())
+                .setConnectionRequestTimeout(httpClientConfig.getConnectionRequestTimeout())
+                .build();
+        //默认发送 Accept-Encoding: gzip,deflate 并透明解压响应
+        CloseableHttpClient client = HttpClients.custom()
+                .setConnectionManager(manager)
+                .setRequestExecutor(new HttpClientMetrics.MeteredRequestExecutor())
+                .setDefaultRequestConfig(requestConfig)
+                .setKeepAliveStrategy(keepAliveStrategy(httpClientConfig.getKeepAlive()))
+                .disableAutomaticRetries()
+                .evictExpiredConnections()
+                .evictIdleConnections(httpClientConfig.getMaxIdleTime(), TimeUnit.MILLISECONDS)
+                .build();
+        CloseableHttpClient old = httpClient;
+        httpClient = client;
+        connectionManager = manager;
+        config = httpClientConfig;
+        resilience = new HttpResilience(httpClientConfig);
+        responseCache = null;
+        closeQuietly(old);
+    }
+
+    /**
+     * 关闭客户端并释放连接池
+     */
+    public static synchronized void close() {
+        closeQuietly(httpClient);
+    }
+
+    /**
+     * 响应缓存统计，未启用缓存时返回null
+     */
+    public static HttpCacheStats getCacheStats() {
+        ResponseCache cache = responseCache;
+        return cache == null ? null : cache.stats;
+    }
+
+    public static HttpClientConfig getConfig() {
+        return config;
+    }
+
+    /**
+     * 连接池当前状态，包含 leased/available/pending/max
+     */
+    public static PoolingHttpClientConnectionManager getConnectionManager() {
+        return connectionManager;
+    }
+
     public static void main(String[] args) {
     }
 
@@ -49,20 +177,7 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String post(String url, Map<String, String> paramMap) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpPost httpPost = new HttpPost(url);
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpPost.setConfig(requestConfig);
-        List<NameValuePair> formParams = setHttpParams(paramMap);
-        UrlEncodedFormEntity param = new UrlEncodedFormEntity(formParams, "UTF-8");
-        httpPost.setEntity(param);
-        HttpResponse response = httpClient.execute(httpPost);
-        String httpEntityContent = getHttpEntityContent(response);
-        //关闭http请求
-        httpPost.abort();
-        return httpEntityContent;
-
+        return execute(postRequest(url, paramMap));
     }
 
     /**
@@ -75,17 +190,73 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String post(String url, String data) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
+        return execute(postRequest(url, data));
+    }
+
+    /**
+     * 以 application/json 发送UTF-8字节，不做URL编码；开启 HttpClientConfig.requestGzipThreshold 且请求体达到该大小时 gzip 压缩
+     *
+     * @param url  地址
+     * @param json JSON串
+     * @return 响应内容
+     * @throws IOException
+     */
+    public static String postJson(String url, String json) throws IOException {
+        return execute(jsonRequest(url, json.getBytes(StandardCharsets.UTF_8), config.getRequestGzipThreshold()));
+    }
+
+    /**
+     * 对象经 JsonUtil 序列化为UTF-8字节后发送，压缩规则同 {@link #postJson(String, String)}
+     */
+    public static String postJson(String url, Object body) throws IOException {
+        return execute(jsonRequest(url, JsonUtil.toBytes(body), config.getRequestGzipThreshold()));
+    }
+
+    public static <T> T postJson(String url, Object body, Class<T> type) throws IOException {
+        return execute(jsonRequest(url, JsonUtil.toBytes(body), config.getRequestGzipThreshold()),
+                streamHandler(in -> JsonUtil.parse(in, type)));
+    }
+
+    /**
+     * 按指定格式发送请求体，并通过 Accept 协商响应格式；对方不支持 Smile 时返回 JSON，按响应 Content-Type 解码
+     *
+     * @param url   地址
+     * @param body  请求对象
+     * @param type  响应类型
+     * @param codec 请求体格式及首选响应格式
+     * @return 响应对象，无响应体时返回null
+     * @throws HttpResponseException 响应状态码非2xx
+     * @throws IOException
+     */
+    public static <T> T post(String url, Object body, Class<T> type, JsonCodec codec) throws IOException {
+        Objects.requireNonNull(body, "body");
+        HttpPost httpPost = bodyRequest(url, JsonUtil.toBytes(body, codec), ContentType.create(codec.getMediaType()),
+                config.getRequestGzipThreshold());
+        httpPost.setHeader(HttpHeaders.ACCEPT, codec.getAccept());
+        return execute(httpPost, codecHandler(type));
+    }
+
+    public static <T> T get(String url, Class<T> type, JsonCodec codec) throws IOException {
+        HttpGet httpGet = getRequest(url);
+        httpGet.setHeader(HttpHeaders.ACCEPT, codec.getAccept());
+        return execute(httpGet, codecHandler(type));
+    }
+
+    /**
+     * 边序列化边写入连接，内存中不保留完整请求体，适合大批量上传；长度未知，以分块方式发送
+     * 重试时会重新序列化，请求完成前不应修改 body
+     *
+     * @param url  地址
+     * @param body 请求对象
+     * @param gzip 是否 gzip 压缩，接收方需注册 GzipRequestFilter
+     * @return 响应内容
+     * @throws IOException
+     */
+    public static String postJsonStream(String url, Object body, boolean gzip) throws IOException {
         HttpPost httpPost = new HttpPost(url);
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpPost.setConfig(requestConfig);
-        httpPost.setHeader("Content-Type", "text/json; charset=utf-8");
-        httpPost.setEntity(new StringEntity(URLEncoder.encode(data, "UTF-8")));
-        HttpResponse response = httpClient.execute(httpPost);
-        String httpEntityContent = getHttpEntityContent(response);
-        httpPost.abort();
-        return httpEntityContent;
+        HttpEntity entity = new JsonStreamEntity(body);
+        httpPost.setEntity(gzip ? new GzipCompressingEntity(entity) : entity);
+        return execute(httpPost);
     }
 
     /**
@@ -97,16 +268,7 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String get(String url) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpGet httpGet = new HttpGet();
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpGet.setConfig(requestConfig);
-        httpGet.setURI(URI.create(url));
-        HttpResponse response = httpClient.execute(httpGet);
-        String httpEntityContent = getHttpEntityContent(response);
-        httpGet.abort();
-        return httpEntityContent;
+        return execute(getRequest(url));
     }
 
     /**
@@ -119,18 +281,7 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String get(String url, Map<String, String> paramMap) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpGet httpGet = new HttpGet();
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpGet.setConfig(requestConfig);
-        List<NameValuePair> formparams = setHttpParams(paramMap);
-        String param = URLEncodedUtils.format(formparams, "UTF-8");
-        httpGet.setURI(URI.create(url + "?" + param));
-        HttpResponse response = httpClient.execute(httpGet);
-        String httpEntityContent = getHttpEntityContent(response);
-        httpGet.abort();
-        return httpEntityContent;
+        return execute(getRequest(url, paramMap));
     }
 
     /**
@@ -143,18 +294,7 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String put(String url, Map<String, String> paramMap) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpPut httpPut = new HttpPut(url);
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpPut.setConfig(requestConfig);
-        List<NameValuePair> formparams = setHttpParams(paramMap);
-        UrlEncodedFormEntity param = new UrlEncodedFormEntity(formparams, "UTF-8");
-        httpPut.setEntity(param);
-        HttpResponse response = httpClient.execute(httpPut);
-        String httpEntityContent = getHttpEntityContent(response);
-        httpPut.abort();
-        return httpEntityContent;
+        return execute(putRequest(url, paramMap));
     }
 
     /**
@@ -166,16 +306,7 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String delete(String url) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
-        HttpDelete httpDelete = new HttpDelete();
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpDelete.setConfig(requestConfig);
-        httpDelete.setURI(URI.create(url));
-        HttpResponse response = httpClient.execute(httpDelete);
-        String httpEntityContent = getHttpEntityContent(response);
-        httpDelete.abort();
-        return httpEntityContent;
+        return execute(deleteRequest(url));
     }
 
     /**
@@ -188,21 +319,192 @@ public class HttpClientUtil {
      * @throws IOException
      */
     public static String delete(String url, Map<String, String> paramMap) throws ClientProtocolException, IOException {
-        HttpClient httpClient = HttpClients.createDefault();
+        return execute(deleteRequest(url, paramMap));
+    }
+
+    /**
+     * 对冲的HTTP GET：请求超过该 host 历史耗时的分位值(HttpClientConfig.hedgePercentile)仍未返回时，
+     * 再发出一个相同请求，取先返回的结果，用于对尾延迟敏感的幂等查询
+     *
+     * @param url 地址
+     * @return 响应内容
+     * @throws IOException
+     */
+    public static String getHedged(String url) throws IOException {
+        CloseableHttpClient client = httpClient;
+        return resilience.hedge(() -> getRequest(url), HttpClientUtil::getHttpEntityContent, client::execute);
+    }
+
+    public static <T> T getHedged(String url, Class<T> type) throws IOException {
+        CloseableHttpClient client = httpClient;
+        return resilience.hedge(() -> getRequest(url), streamHandler(in -> JsonUtil.parse(in, type)), client::execute);
+    }
+
+    /**
+     * 带缓存的HTTP GET，遵循 Cache-Control/Expires，过期后通过 ETag/Last-Modified 条件请求重新验证
+     * 同一地址的并发未命中只会发出一次请求，其余调用等待并共享结果
+     *
+     * @param url 地址
+     * @return 响应内容
+     * @throws IOException
+     */
+    public static String getCached(String url) throws IOException {
+        return responseCache().get(url);
+    }
+
+    public static String getCached(String url, Map<String, String> paramMap) throws IOException {
+        return responseCache().get(getRequest(url, paramMap).getURI().toString());
+    }
+
+    /**
+     * 封装HTTP GET方法，响应体直接从流中解码为指定类型
+     *
+     * @param url  地址
+     * @param type 响应类型
+     * @return 响应对象，无响应体时返回null
+     * @throws HttpResponseException 响应状态码非2xx
+     * @throws IOException
+     */
+    public static <T> T get(String url, Class<T> type) throws IOException {
+        return execute(getRequest(url), streamHandler(in -> JsonUtil.parse(in, type)));
+    }
+
+    public static <T> T get(String url, Map<String, String> paramMap, Class<T> type) throws IOException {
+        return execute(getRequest(url, paramMap), streamHandler(in -> JsonUtil.parse(in, type)));
+    }
+
+    public static <T> T get(String url, JavaType javaType) throws IOException {
+        return execute(getRequest(url), streamHandler(in -> JsonUtil.parse(in, javaType)));
+    }
+
+    /**
+     * 下载到输出流，输出流由调用方关闭
+     *
+     * @param url 地址
+     * @param out 输出流
+     * @return 写入的字节数
+     * @throws HttpResponseException 响应状态码非2xx
+     * @throws IOException
+     */
+    public static long download(String url, OutputStream out) throws IOException {
+        ResponseHandler<Long> handler = response -> {
+            HttpEntity entity = checkedEntity(response);
+            if (entity == null) {
+                return 0L;
+            }
+            try (InputStream in = entity.getContent()) {
+                return transfer(in, out);
+            }
+        };
+        //已写出的数据无法撤回，下载不重试
+        return resilience.execute(getRequest(url), handler, httpClient::execute, false);
+    }
+
+    /**
+     * 下载到文件，先写入同目录临时文件，完成后再替换目标文件，失败时不会留下半截文件
+     *
+     * @param url    地址
+     * @param target 目标文件
+     * @return 写入的字节数
+     * @throws IOException
+     */
+    public static long download(String url, Path target) throws IOException {
+        Path part = target.resolveSibling(target.getFileName() + ".part");
+        long size;
+        try (OutputStream out = Files.newOutputStream(part)) {
+            size = download(url, out);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(part);
+            throw e;
+        }
+        Files.move(part, target, StandardCopyOption.REPLACE_EXISTING);
+        return size;
+    }
+
+    /**
+     * 构造请求，同步与异步客户端共用
+     */
+    static HttpPost postRequest(String url, Map<String, String> paramMap) throws UnsupportedEncodingException {
+        HttpPost httpPost = new HttpPost(url);
+        List<NameValuePair> formParams = setHttpParams(paramMap);
+        UrlEncodedFormEntity param = new UrlEncodedFormEntity(formParams, "UTF-8");
+        httpPost.setEntity(param);
+        return httpPost;
+    }
+
+    static HttpPost postRequest(String url, String data) throws UnsupportedEncodingException {
+        HttpPost httpPost = new HttpPost(url);
+        httpPost.setHeader("Content-Type", "text/json; charset=utf-8");
+        httpPost.setEntity(new StringEntity(URLEncoder.encode(data, "UTF-8")));
+        return httpPost;
+    }
+
+    /**
+     * JSON 请求体预先压缩为字节数组，长度已知且可重复发送，异步客户端也可使用
+     *
+     * @param gzipThreshold 达到该字节数时压缩，负数表示不压缩
+     */
+    static HttpPost jsonRequest(String url, byte[] json, int gzipThreshold) throws IOException {
+        return bodyRequest(url, json == null ? "null".getBytes(StandardCharsets.UTF_8) : json,
+                ContentType.APPLICATION_JSON, gzipThreshold);
+    }
+
+    static HttpPost bodyRequest(String url, byte[] body, ContentType contentType, int gzipThreshold) throws IOException {
+        HttpPost httpPost = new HttpPost(url);
+        if (gzipThreshold >= 0 && body.length >= gzipThreshold) {
+            ByteArrayEntity entity = new ByteArrayEntity(gzip(body), contentType);
+            entity.setContentEncoding("gzip");
+            httpPost.setEntity(entity);
+        } else {
+            httpPost.setEntity(new ByteArrayEntity(body, contentType));
+        }
+        return httpPost;
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(data.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes, 8192)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    static HttpGet getRequest(String url) {
+        HttpGet httpGet = new HttpGet();
+        httpGet.setURI(URI.create(url));
+        return httpGet;
+    }
+
+    static HttpGet getRequest(String url, Map<String, String> paramMap) throws UnsupportedEncodingException {
+        HttpGet httpGet = new HttpGet();
+        List<NameValuePair> formparams = setHttpParams(paramMap);
+        String param = URLEncodedUtils.format(formparams, "UTF-8");
+        httpGet.setURI(URI.create(url + "?" + param));
+        return httpGet;
+    }
+
+    static HttpPut putRequest(String url, Map<String, String> paramMap) throws UnsupportedEncodingException {
+        HttpPut httpPut = new HttpPut(url);
+        List<NameValuePair> formparams = setHttpParams(paramMap);
+        UrlEncodedFormEntity param = new UrlEncodedFormEntity(formparams, "UTF-8");
+        httpPut.setEntity(param);
+        return httpPut;
+    }
+
+    static HttpDelete deleteRequest(String url) {
+        HttpDelete httpDelete = new HttpDelete();
+        httpDelete.setURI(URI.create(url));
+        return httpDelete;
+    }
+
+    static HttpDelete deleteRequest(String url, Map<String, String> paramMap) throws UnsupportedEncodingException {
         HttpDelete httpDelete = new HttpDelete();
-        //设置请求和传输超时时间
-        RequestConfig requestConfig = RequestConfig.custom().setSocketTimeout(60000).setConnectTimeout(60000).build();
-        httpDelete.setConfig(requestConfig);
         List<NameValuePair> formparams = setHttpParams(paramMap);
         String param = URLEncodedUtils.format(formparams, "UTF-8");
         httpDelete.setURI(URI.create(url + "?" + param));
-        HttpResponse response = httpClient.execute(httpDelete);
-        String httpEntityContent = getHttpEntityContent(response);
-        httpDelete.abort();
-        return httpEntityContent;
+        return httpDelete;
     }
 
-
     /**
      * 设置请求参数
      *
@@ -219,28 +521,286 @@ public class HttpClientUtil {
     }
 
     /**
-     * 获得响应HTTP实体内容
+     * 执行请求，响应体读取完毕后连接归还连接池，异常时连接被中断不再复用
+     *
+     * @param request 请求
+     * @return 响应内容
+     * @throws IOException
+     */
+    private static String execute(HttpRequestBase request) throws IOException {
+        return execute(request, HttpClientUtil::getHttpEntityContent);
+    }
+
+    /**
+     * 经过重试、熔断策略执行请求
+     */
+    private static <T> T execute(HttpRequestBase request, ResponseHandler<T> handler) throws IOException {
+        CloseableHttpClient client = httpClient;
+        return resilience.execute(request, handler, client::execute, true);
+    }
+
+    private static ResponseCache responseCache() {
+        ResponseCache cache = responseCache;
+        if (cache == null) {
+            synchronized (HttpClientUtil.class) {
+                cache = responseCache;
+                if (cache == null) {
+                    cache = new ResponseCache(config, connectionManager, resilience);
+                    responseCache = cache;
+                }
+            }
+        }
+        return cache;
+    }
+
+    /**
+     * 将响应流交给解码器处理，状态码非2xx时抛出 HttpResponseException
+     */
+    static <T> ResponseHandler<T> streamHandler(Function<InputStream, T> decoder) {
+        return response -> {
+            HttpEntity entity = checkedEntity(response);
+            if (entity == null) {
+                return null;
+            }
+            try (InputStream in = entity.getContent()) {
+                return decoder.apply(in);
+            }
+        };
+    }
+
+    /**
+     * 按响应的 Content-Type 选择 JSON 或 Smile 解码
+     */
+    static <T> ResponseHandler<T> codecHandler(Class<T> type) {
+        return response -> {
+            HttpEntity entity = checkedEntity(response);
+            if (entity == null) {
+                return null;
+            }
+            JsonCodec codec = JsonCodec.forContentType(entity.getContentType() == null ? null : entity.getContentType().getValue());
+            try (InputStream in = entity.getContent()) {
+                return JsonUtil.parse(in, type, codec);
+            }
+        };
+    }
+
+    /**
+     * 校验状态码，非2xx时抛出异常；返回的实体由 ResponseHandler 调用方负责消费
+     */
+    private static HttpEntity checkedEntity(HttpResponse response) throws HttpResponseException {
+        StatusLine statusLine = response.getStatusLine();
+        if (statusLine.getStatusCode() >= 300) {
+            throw new HttpResponseException(statusLine.getStatusCode(), statusLine.getReasonPhrase());
+        }
+        HttpEntity entity = response.getEntity();
+        return entity == null || entity.getContentLength() == 0 ? null : entity;
+    }
+
+    private static long transfer(InputStream in, OutputStream out) throws IOException {
+        byte[] buffer = TRANSFER_BUFFER.get();
+        long total = 0;
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+            total += n;
+        }
+        return total;
+    }
+
+    /**
+     * 服务端返回 Keep-Alive 超时则按其设置，否则使用默认保活时间
+     */
+    static ConnectionKeepAliveStrategy keepAliveStrategy(long defaultKeepAlive) {
+        return (response, context) -> {
+            long keepAlive = DefaultConnectionKeepAliveStrategy.INSTANCE.getKeepAliveDuration(response, context);
+            return keepAlive > 0 ? keepAlive : defaultKeepAlive;
+        };
+    }
+
+    private static void closeQuietly(Closeable closeable) {
+        if (closeable == null) {
+            return;
+        }
+        try {
+            closeable.close();
+        } catch (IOException e) {
+            log.warn("关闭HttpClient失败", e);
+        }
+    }
+
+    /**
+     * 获得响应HTTP实体内容，按 Content-Type 中的字符集解码，未指定或不支持时为UTF-8，原样保留换行
      *
      * @param response
      * @return
      * @throws IOException
-     * @throws UnsupportedEncodingException
      */
-    private static String getHttpEntityContent(HttpResponse response) throws IOException, UnsupportedEncodingException {
+    static String getHttpEntityContent(HttpResponse response) throws IOException {
         HttpEntity entity = response.getEntity();
-        if (entity != null) {
-            InputStream is = entity.getContent();
-            BufferedReader br = new BufferedReader(new InputStreamReader(is, "UTF-8"));
-            String line = br.readLine();
-            StringBuilder sb = new StringBuilder();
-            while (line != null) {
-                sb.append(line + "\n");
-                line = br.readLine();
+        if (entity == null) {
+            return "";
+        }
+        ContentType contentType = ContentType.getLenient(entity);
+        Charset charset = contentType == null || contentType.getCharset() == null
+                ? StandardCharsets.UTF_8 : contentType.getCharset();
+        long length = entity.getContentLength();
+        StringBuilder sb = new StringBuilder(length > 0 && length < Integer.MAX_VALUE ? (int) length : 256);
+        try (Reader reader = new InputStreamReader(entity.getContent(), charset)) {
+            char[] buffer = new char[4096];
+            int n;
+            while ((n = reader.read(buffer)) != -1) {
+                sb.append(buffer, 0, n);
             }
-            return sb.toString();
         }
-        return "";
+        return sb.toString();
+    }
+
+    /**
+     * 写出时直接序列化到连接的输出流
+     */
+    private static final class JsonStreamEntity extends AbstractHttpEntity {
+        private final Object body;
+
+        private JsonStreamEntity(Object body) {
+            this.body = body;
+            setContentType(ContentType.APPLICATION_JSON.toString());
+            setChunked(true);
+        }
+
+        @Override
+        public boolean isRepeatable() {
+            return true;
+        }
+
+        @Override
+        public long getContentLength() {
+            return -1;
+        }
+
+        /**
+         * 仅供不支持 writeTo 的调用方使用，会在内存中生成完整请求体
+         */
+        @Override
+        public InputStream getContent() {
+            byte[] json = JsonUtil.toBytes(body);
+            return new ByteArrayInputStream(json == null ? "null".getBytes(StandardCharsets.UTF_8) : json);
+        }
+
+        @Override
+        public void writeTo(OutputStream out) throws IOException {
+            JsonUtil.write(out, body);
+            out.flush();
+        }
+
+        @Override
+        public boolean isStreaming() {
+            return false;
+        }
     }
 
+    /**
+     * 响应缓存客户端，与普通请求共用连接池；命中缓存时不访问源站，需要访问源站时与普通请求一样经过重试和熔断
+     */
+    private static final class ResponseCache {
+        private final CloseableHttpClient client;
+        private final HttpResilience resilience;
+        private final HttpCacheStats stats;
+        private final ConcurrentHashMap<String, CompletableFuture<String>> inFlight = new ConcurrentHashMap<>();
+
+        private ResponseCache(HttpClientConfig httpClientConfig, PoolingHttpClientConnectionManager manager,
+                              HttpResilience resilience) {
+            this.resilience = resilience;
+            this.stats = new HttpCacheStats();
+            BoundedHttpCacheStorage storage = new BoundedHttpCacheStorage(httpClientConfig.getCacheMaxBytes(), stats);
+            stats.storage = storage;
+            CacheConfig cacheConfig = CacheConfig.custom()
+                    .setMaxObjectSize(httpClientConfig.getCacheMaxObjectSize())
+                    .setSharedCache(false)
+                    .build();
+            RequestConfig requestConfig = RequestConfig.custom()
+                    .setConnectTimeout(httpClientConfig.getConnectTimeout())
+                    .setSocketTimeout(httpClientConfig.getSocketTimeout())
+                    .setConnectionRequestTimeout(httpClientConfig.getConnectionRequestTimeout())
+                    .build();
+            this.client = CachingHttpClientBuilder.create()
+                    .setCacheConfig(cacheConfig)
+                    .setHttpCacheStorage(storage)
+                    .setConnectionManager(manager)
+                    .setConnectionManagerShared(true)
+                    .setRequestExecutor(new HttpClientMetrics.MeteredRequestExecutor())
+                    .setDefaultRequestConfig(requestConfig)
+                    .setKeepAliveStrategy(keepAliveStrategy(httpClientConfig.getKeepAlive()))
+                    .disableAutomaticRetries()
+                    .build();
+        }
+
+        private String get(String uri) throws IOException {
+            CompletableFuture<String> mine = new CompletableFuture<>();
+            CompletableFuture<String> pending = inFlight.putIfAbsent(uri, mine);
+            if (pending != null) {
+                stats.coalesced.increment();
+                return await(pending);
+            }
+            try {
+                String content = fetch(uri);
+                mine.complete(content);
+                return content;
+            } catch (IOException | RuntimeException e) {
+                mine.completeExceptionally(e);
+                throw e;
+            } finally {
+                inFlight.remove(uri, mine);
+            }
+        }
 
-}
\ No newline at end of file
+        private String fetch(String uri) throws IOException {
+            //先只查缓存(only-if-cached 未命中时由缓存模块返回 504)，命中时不受熔断影响
+            HttpGet cachedOnly = getRequest(uri);
+            cachedOnly.setHeader(HttpHeaders.CACHE_CONTROL, "only-if-cached");
+            HttpCacheContext cacheContext = HttpCacheContext.create();
+            try (CloseableHttpResponse response = client.execute(cachedOnly, cacheContext)) {
+                if (cacheContext.getCacheResponseStatus() == CacheResponseStatus.CACHE_HIT) {
+                    stats.hits.increment();
+                    return getHttpEntityContent(response);
+                }
+                EntityUtils.consume(response.getEntity());
+            }
+            HttpCacheContext context = HttpCacheContext.create();
+            String content = resilience.execute(getRequest(uri), HttpClientUtil::getHttpEntityContent,
+                    (request, handler) -> client.execute(request, handler, context), true);
+            if (context.getCacheResponseStatus() == null) {
+                stats.misses.increment();
+                return content;
+            }
+            switch (context.getCacheResponseStatus()) {
+                case CACHE_HIT:
+                    stats.hits.increment();
+                    break;
+                case VALIDATED:
+                    stats.validated.increment();
+                    break;
+                default:
+                    stats.misses.increment();
+            }
+            return content;
+        }
+
+        private static String await(CompletableFuture<String> pending) throws IOException {
+            try {
+                return pending.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("等待合并请求结果时被中断");
+            } catch (ExecutionException e) {
+                Throwable cause = e.getCause();
+                if (cause instanceof IOException) {
+                    throw (IOException) cause;
+                }
+                if (cause instanceof RuntimeException) {
+                    throw (RuntimeException) cause;
+                }
+                throw new IOException(cause);
+            }
+        }
+    }
+}
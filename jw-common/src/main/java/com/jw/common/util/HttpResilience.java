@@ -0,0 +1,436 @@
+package com.jw.common.util;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.http.HttpEntity;
+import org.apache.http.HttpEntityEnclosingRequest;
+import org.apache.http.client.ClientProtocolException;
+import org.apache.http.client.ResponseHandler;
+import org.apache.http.client.methods.HttpRequestBase;
+import org.apache.http.client.utils.URIUtils;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.Future;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * @description: 出站请求的容错策略：带抖动退避的重试、全局重试预算、按 host 熔断、幂等 GET 的对冲请求
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+@Slf4j
+public class HttpResilience {
+
+    private static final AtomicInteger HEDGE_THREAD_ID = new AtomicInteger();
+
+    private final HttpClientConfig config;
+    private final RetryBudget retryBudget;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>(16);
+    private final ThreadPoolExecutor hedgeExecutor;
+
+    public HttpResilience(HttpClientConfig config) {
+        this.config = config;
+        this.retryBudget = new RetryBudget(config.getRetryBudgetRatio(), config.getRetryBudgetMinPerSecond());
+        this.hedgeExecutor = new ThreadPoolExecutor(0, Math.max(1, config.getMaxTotal()), 60, TimeUnit.SECONDS,
+                new SynchronousQueue<>(), r -> {
+            Thread thread = new Thread(r, "http-hedge-" + HEDGE_THREAD_ID.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }, new ThreadPoolExecutor.CallerRunsPolicy());
+    }
+
+    /**
+     * 执行请求，按策略重试；熔断打开时直接抛出 {@link CircuitOpenException}
+     *
+     * @param request   请求，重试时复用同一对象，请求体需可重复读取
+     * @param handler   响应处理
+     * @param call      实际执行请求的客户端调用
+     * @param retryable 为 false 时不重试，用于写出流等有副作用的响应处理
+     */
+    public <T> T execute(HttpRequestBase request, ResponseHandler<T> handler, Call<T> call, boolean retryable)
+            throws IOException {
+        HostState host = host(request);
+        int maxRetries = retryable && canRepeat(request) ? config.getMaxRetries() : 0;
+        //状态码重试时请求已经到达服务端，非幂等请求可能已被处理，只有幂等请求按状态码重试
+        boolean retryStatus = isIdempotent(request);
+        retryBudget.deposit();
+        for (int attempt = 0; ; attempt++) {
+            boolean probe = host.breaker.acquire();
+            boolean lastAttempt = attempt >= maxRetries;
+            boolean succeeded = false;
+            long start = System.nanoTime();
+            try {
+                T result = call.execute(request, statusAware(handler, host, lastAttempt || !retryStatus));
+                host.latency.record(System.nanoTime() - start);
+                succeeded = true;
+                return result;
+            } catch (RetryableStatusException e) {
+                host.breaker.onFailure();
+                log.warn("请求 {} 返回 {}，第 {} 次重试", request.getURI(), e.getStatusCode(), attempt + 1);
+            } catch (IOException e) {
+                if (!(e instanceof ClientProtocolException)) {
+                    host.breaker.onFailure();
+                }
+                if (lastAttempt || !isRetryable(request, e) || !retryBudget.tryWithdraw()) {
+                    throw e;
+                }
+                log.warn("请求 {} 失败，第 {} 次重试: {}", request.getURI(), attempt + 1, e.toString());
+            } finally {
+                if (probe) {
+                    host.breaker.settleProbe(succeeded);
+                }
+            }
+            request.reset();
+            backoff(attempt);
+        }
+    }
+
+    /**
+     * 对冲请求：主请求超过该 host 历史耗时的分位值仍未返回时，在重试预算允许的情况下再发出一个相同请求，
+     * 取先成功的结果并中断另一个；仅用于幂等的 GET
+     *
+     * @param requestFactory 每次调用生成一个新的请求对象
+     * @param handler        响应处理
+     * @param call           实际执行请求的客户端调用
+     */
+    public <T> T hedge(Supplier<HttpRequestBase> requestFactory, ResponseHandler<T> handler, Call<T> call)
+            throws IOException {
+        HttpRequestBase primary = requestFactory.get();
+        HostState host = host(primary);
+        boolean probe = host.breaker.acquire();
+        boolean succeeded = false;
+        retryBudget.deposit();
+        List<HttpRequestBase> attempts = new ArrayList<>(2);
+        CompletionService<T> completion = new ExecutorCompletionService<>(hedgeExecutor);
+        try {
+            attempts.add(primary);
+            completion.submit(() -> timed(primary, handler, call, host));
+            int pending = 1;
+            Future<T> done = completion.poll(host.latency.percentile(config.getHedgePercentile(),
+                    config.getHedgeMinDelay()), TimeUnit.MILLISECONDS);
+            if (done == null && retryBudget.tryWithdraw()) {
+                HttpRequestBase hedged = requestFactory.get();
+                attempts.add(hedged);
+                completion.submit(() -> timed(hedged, handler, call, host));
+                pending++;
+            }
+            IOException failure = null;
+            while (pending > 0) {
+                if (done == null) {
+                    done = completion.take();
+                }
+                pending--;
+                try {
+                    T result = done.get();
+                    succeeded = true;
+                    return result;
+                } catch (ExecutionException e) {
+                    failure = toIOException(e.getCause());
+                }
+                done = null;
+            }
+            throw failure;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("对冲请求等待结果时被中断");
+        } finally {
+            attempts.forEach(HttpRequestBase::abort);
+            if (probe) {
+                host.breaker.settleProbe(succeeded);
+            }
+        }
+    }
+
+    private <T> T timed(HttpRequestBase request, ResponseHandler<T> handler, Call<T> call, HostState host)
+            throws IOException {
+        long start = System.nanoTime();
+        try {
+            T result = call.execute(request, statusAware(handler, host, true));
+            host.latency.record(System.nanoTime() - start);
+            return result;
+        } catch (IOException e) {
+            if (!request.isAborted() && !(e instanceof ClientProtocolException)) {
+                host.breaker.onFailure();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 5xx 计为失败，其余状态码计为成功；502/503/504 在允许重试且有预算时抛出异常触发重试，否则交给原处理器
+     *
+     * @param noRetry 最后一次尝试或非幂等请求
+     */
+    private <T> ResponseHandler<T> statusAware(ResponseHandler<T> handler, HostState host, boolean noRetry) {
+        return response -> {
+            int status = response.getStatusLine().getStatusCode();
+            if (!noRetry && (status == 502 || status == 503 || status == 504) && retryBudget.tryWithdraw()) {
+                throw new RetryableStatusException(status);
+            }
+            if (status >= 500) {
+                host.breaker.onFailure();
+            } else {
+                host.breaker.onSuccess();
+            }
+            return handler.handleResponse(response);
+        };
+    }
+
+    private HostState host(HttpRequestBase request) {
+        String host = HttpClientMetrics.hostOf(URIUtils.extractHost(request.getURI()));
+        return hosts.computeIfAbsent(host, h -> new HostState(h, config));
+    }
+
+    private void backoff(int attempt) throws InterruptedIOException {
+        long ceiling = Math.min(config.getRetryMaxBackoff(), config.getRetryBackoff() << Math.min(attempt, 20));
+        long sleep = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(sleep);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("重试退避时被中断");
+        }
+    }
+
+    private static boolean canRepeat(HttpRequestBase request) {
+        if (request instanceof HttpEntityEnclosingRequest) {
+            HttpEntity entity = ((HttpEntityEnclosingRequest) request).getEntity();
+            return entity == null || entity.isRepeatable();
+        }
+        return true;
+    }
+
+    /**
+     * 幂等请求遇到 I/O 异常可重试；非幂等请求只在请求尚未发出(连接失败)时重试
+     */
+    private static boolean isRetryable(HttpRequestBase request, IOException e) {
+        if (e instanceof ClientProtocolException || e instanceof CircuitOpenException) {
+            return false;
+        }
+        if (e instanceof ConnectException || e instanceof ConnectTimeoutException
+                || e instanceof ConnectionPoolTimeoutException || e instanceof NoRouteToHostException) {
+            return true;
+        }
+        return isIdempotent(request);
+    }
+
+    private static boolean isIdempotent(HttpRequestBase request) {
+        switch (request.getMethod()) {
+            case "GET":
+            case "HEAD":
+            case "PUT":
+            case "DELETE":
+            case "OPTIONS":
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static IOException toIOException(Throwable cause) {
+        if (cause instanceof IOException) {
+            return (IOException) cause;
+        }
+        if (cause instanceof RuntimeException) {
+            throw (RuntimeException) cause;
+        }
+        return new IOException(cause);
+    }
+
+    @FunctionalInterface
+    public interface Call<T> {
+        T execute(HttpRequestBase request, ResponseHandler<T> handler) throws IOException;
+    }
+
+    /**
+     * 熔断打开期间的快速失败
+     */
+    public static class CircuitOpenException extends IOException {
+        public CircuitOpenException(String host) {
+            super("circuit open for " + host);
+        }
+    }
+
+    private static class RetryableStatusException extends ClientProtocolException {
+        private final int statusCode;
+
+        private RetryableStatusException(int statusCode) {
+            super("retryable status " + statusCode);
+            this.statusCode = statusCode;
+        }
+
+        private int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    private static final class HostState {
+        private final CircuitBreaker breaker;
+        private final LatencyWindow latency = new LatencyWindow();
+
+        private HostState(String host, HttpClientConfig config) {
+            this.breaker = new CircuitBreaker(host, config.getCircuitFailureThreshold(), config.getCircuitOpenTime());
+        }
+    }
+
+    /**
+     * 重试预算(令牌桶)：每个请求存入 ratio 个令牌，每次重试取出 1 个，另外每秒补充保底额度，避免重试风暴
+     */
+    static final class RetryBudget {
+        private static final long SCALE = 1000;
+        private final long depositPerRequest;
+        private final long minPerSecond;
+        private final long capacity;
+        private final AtomicLong balance = new AtomicLong();
+        private final AtomicLong lastRefill = new AtomicLong(System.nanoTime());
+
+        RetryBudget(double ratio, int minRetriesPerSecond) {
+            this.depositPerRequest = (long) (ratio * SCALE);
+            this.minPerSecond = minRetriesPerSecond * SCALE;
+            this.capacity = Math.max(minPerSecond, 100 * SCALE);
+        }
+
+        void deposit() {
+            add(depositPerRequest);
+        }
+
+        boolean tryWithdraw() {
+            refill();
+            for (; ; ) {
+                long current = balance.get();
+                if (current < SCALE) {
+                    return false;
+                }
+                if (balance.compareAndSet(current, current - SCALE)) {
+                    return true;
+                }
+            }
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            long last = lastRefill.get();
+            long elapsed = now - last;
+            if (elapsed >= TimeUnit.SECONDS.toNanos(1) && lastRefill.compareAndSet(last, now)) {
+                add(minPerSecond * Math.min(elapsed / TimeUnit.SECONDS.toNanos(1), 10));
+            }
+        }
+
+        private void add(long tokens) {
+            balance.accumulateAndGet(tokens, (current, delta) -> Math.min(capacity, current + delta));
+        }
+    }
+
+    /**
+     * 按连续失败次数熔断：打开期间快速失败，到期后半开放行一个探测请求，成功则关闭，失败则重新打开
+     */
+    static final class CircuitBreaker {
+        private static final long CLOSED = 0;
+        private static final long HALF_OPEN = -1;
+
+        private final String host;
+        private final int threshold;
+        private final long openNanos;
+        private final AtomicInteger failures = new AtomicInteger();
+        /**
+         * CLOSED、HALF_OPEN 或打开截止时间(nanoTime)
+         */
+        private final AtomicLong state = new AtomicLong(CLOSED);
+
+        CircuitBreaker(String host, int threshold, long openMillis) {
+            this.host = host;
+            this.threshold = threshold;
+            this.openNanos = TimeUnit.MILLISECONDS.toNanos(openMillis);
+        }
+
+        /**
+         * @return true 表示本次请求是半开状态下的探测请求，结束后必须调用 {@link #settleProbe(boolean)}
+         */
+        boolean acquire() throws CircuitOpenException {
+            long current = state.get();
+            if (current == CLOSED) {
+                return false;
+            }
+            if (current != HALF_OPEN && System.nanoTime() - current >= 0 && state.compareAndSet(current, HALF_OPEN)) {
+                return true;
+            }
+            throw new CircuitOpenException(host);
+        }
+
+        /**
+         * 探测请求结束时仍处于半开状态(未按状态码或 I/O 异常得出结果，如协议异常、运行时异常)时，
+         * 正常返回则关闭，其余情况都按失败重新打开，否则后续请求都无法再取得探测资格
+         */
+        void settleProbe(boolean succeeded) {
+            if (succeeded) {
+                if (state.compareAndSet(HALF_OPEN, CLOSED)) {
+                    failures.set(0);
+                }
+            } else if (state.compareAndSet(HALF_OPEN, System.nanoTime() + openNanos)) {
+                log.warn("{} 探测请求未成功，熔断 {} ms", host, TimeUnit.NANOSECONDS.toMillis(openNanos));
+            }
+        }
+
+        void onSuccess() {
+            failures.set(0);
+            if (state.get() != CLOSED) {
+                state.set(CLOSED);
+            }
+        }
+
+        void onFailure() {
+            if (threshold <= 0) {
+                return;
+            }
+            long current = state.get();
+            if (current == HALF_OPEN || failures.incrementAndGet() >= threshold) {
+                if (state.compareAndSet(current, System.nanoTime() + openNanos)) {
+                    log.warn("{} 连续失败，熔断 {} ms", host, TimeUnit.NANOSECONDS.toMillis(openNanos));
+                }
+            }
+        }
+    }
+
+    /**
+     * 最近若干次成功请求的耗时，用于计算对冲延迟
+     */
+    static final class LatencyWindow {
+        private static final int SIZE = 256;
+        private static final int MIN_SAMPLES = 20;
+        private final long[] samples = new long[SIZE];
+        private final AtomicInteger count = new AtomicInteger();
+
+        void record(long nanos) {
+            samples[(count.getAndIncrement() & Integer.MAX_VALUE) % SIZE] = nanos;
+        }
+
+        long percentile(double percentile, long minMillis) {
+            int n = Math.min(count.get() & Integer.MAX_VALUE, SIZE);
+            if (n < MIN_SAMPLES) {
+                return minMillis;
+            }
+            long[] copy = Arrays.copyOf(samples, n);
+            Arrays.sort(copy);
+            long value = copy[Math.min(n - 1, (int) Math.ceil(percentile * n) - 1)];
+            return Math.max(minMillis, TimeUnit.NANOSECONDS.toMillis(value));
+        }
+    }
+}
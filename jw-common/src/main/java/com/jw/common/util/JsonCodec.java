@@ -0,0 +1,85 @@
+package com.jw.common.util;
+
+import java.util.Locale;
+
+/**
+ * @description: JsonUtil 支持的编码格式，服务间批量接口可使用二进制的 Smile 减少报文体积和编解码开销
+ * 格式通过 Content-Type/Accept 协商，Smile 与 JSON 的数据模型一致，同一个 DTO 无需改动
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public enum JsonCodec {
+    JSON("application/json"),
+    SMILE("application/x-jackson-smile");
+
+    private final String mediaType;
+
+    JsonCodec(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * 客户端请求该格式时使用的 Accept，对方不支持 Smile 时回退为 JSON
+     */
+    public String getAccept() {
+        return this == SMILE ? SMILE.mediaType + ", " + JSON.mediaType + ";q=0.5" : JSON.mediaType;
+    }
+
+    /**
+     * 按 Content-Type 确定请求或响应体的格式，未知类型按 JSON 处理
+     */
+    public static JsonCodec forContentType(String contentType) {
+        if (contentType == null) {
+            return JSON;
+        }
+        String type = contentType.trim();
+        return type.regionMatches(true, 0, SMILE.mediaType, 0, SMILE.mediaType.length()) ? SMILE : JSON;
+    }
+
+    /**
+     * 按 Accept 选择响应格式，取 q 值最高的可用格式，q 值相同时取先出现的，无法匹配时返回 JSON
+     */
+    public static JsonCodec negotiate(String accept) {
+        if (accept == null) {
+            return JSON;
+        }
+        JsonCodec best = JSON;
+        double bestQ = -1;
+        for (String range : accept.split(",")) {
+            String[] params = range.split(";");
+            String type = params[0].trim().toLowerCase(Locale.ROOT);
+            JsonCodec codec;
+            if (SMILE.mediaType.equals(type)) {
+                codec = SMILE;
+            } else if (JSON.mediaType.equals(type) || "*/*".equals(type) || "application/*".equals(type)) {
+                codec = JSON;
+            } else {
+                continue;
+            }
+            double q = quality(params);
+            if (q > bestQ) {
+                best = codec;
+                bestQ = q;
+            }
+        }
+        return bestQ > 0 ? best : JSON;
+    }
+
+    private static double quality(String[] params) {
+        for (int i = 1; i < params.length; i++) {
+            String param = params[i].trim();
+            if (param.startsWith("q=")) {
+                try {
+                    return Double.parseDouble(param.substring(2));
+                } catch (NumberFormatException e) {
+                    return 0;
+                }
+            }
+        }
+        return 1;
+    }
+}
@@ -1,16 +1,40 @@
 package com.jw.common.util;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SequenceWriter;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedOutputStream;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
 
 import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Reader;
+import java.lang.reflect.Type;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * @description:
@@ -19,16 +43,77 @@ import java.util.Map;
  */
 @Slf4j
 public final class JsonUtil {
-    private static Map<String, JavaType> javaListTypeMap = new HashMap<>(32);
+    /**
+     * 缓存的类型数上限，超出后新类型不再缓存，避免动态生成的类型使缓存无限增长
+     */
+    private static final int MAX_CACHED_TYPES = 1024;
+    /**
+     * 按类型缓存预先解析好的 reader/writer，热点类型无需每次查找序列化器
+     */
+    private static final ConcurrentHashMap<Type, ObjectReader> READERS = new ConcurrentHashMap<>(64);
+    private static final ConcurrentHashMap<Class<?>, ObjectReader> LIST_READERS = new ConcurrentHashMap<>(32);
+    private static final ConcurrentHashMap<Class<?>, ObjectWriter> WRITERS = new ConcurrentHashMap<>(64);
+    /**
+     * Smile 的 reader/writer 由对应的 JSON reader/writer 换用 SmileFactory 得到，配置与 JSON 完全一致
+     */
+    private static final SmileFactory SMILE_FACTORY = new SmileFactory();
+    private static final ConcurrentHashMap<Type, ObjectReader> SMILE_READERS = new ConcurrentHashMap<>(32);
+    private static final ConcurrentHashMap<Class<?>, ObjectWriter> SMILE_WRITERS = new ConcurrentHashMap<>(32);
 
     private static final ObjectMapper MAPPER = new ObjectMapper();
     private static JavaType MAP_JAVA_TYPE;
     private static JavaType LIST_MAP_TYPE;
+    /**
+     * 写入输出流后不关闭流，由调用方(如 gzip、HTTP 分块输出)继续写入结尾；不影响写字符串/字节数组
+     */
+    private static ObjectWriter STREAM_WRITER;
 
     static {
-        MAPPER.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+        MAPPER.setDateFormat(FixedDateFormat.DATE_TIME.toDateFormat());
         MAP_JAVA_TYPE = MAPPER.getTypeFactory().constructMapType(HashMap.class, String.class, Object.class);
         LIST_MAP_TYPE = MAPPER.getTypeFactory().constructCollectionType(ArrayList.class, MAP_JAVA_TYPE);
+        STREAM_WRITER = MAPPER.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+    }
+
+    /**
+     * 指定类型的 reader，可直接持有复用；Class、JavaType 及 TypeReference.getType() 均可作为参数
+     */
+    public static ObjectReader readerFor(Type type) {
+        return cached(READERS, type, t -> MAPPER.readerFor(t instanceof JavaType
+                ? (JavaType) t : MAPPER.getTypeFactory().constructType(t)));
+    }
+
+    /**
+     * 指定运行时类型的 writer，序列化器已预先解析
+     */
+    public static ObjectWriter writerFor(Class<?> type) {
+        return cached(WRITERS, type, STREAM_WRITER::forType);
+    }
+
+    public static ObjectReader readerFor(Type type, JsonCodec codec) {
+        return codec == JsonCodec.SMILE ? cached(SMILE_READERS, type, t -> readerFor(t).with(SMILE_FACTORY)) : readerFor(type);
+    }
+
+    public static ObjectWriter writerFor(Class<?> type, JsonCodec codec) {
+        return codec == JsonCodec.SMILE ? cached(SMILE_WRITERS, type, t -> writerFor(t).with(SMILE_FACTORY)) : writerFor(type);
+    }
+
+    private static ObjectReader listReaderFor(Class<?> elementType) {
+        return cached(LIST_READERS, elementType,
+                t -> MAPPER.readerFor(MAPPER.getTypeFactory().constructCollectionType(ArrayList.class, t)));
+    }
+
+    private static <K, V> V cached(ConcurrentHashMap<K, V> cache, K key, Function<K, V> factory) {
+        V value = cache.get(key);
+        if (value != null) {
+            return value;
+        }
+        value = factory.apply(key);
+        if (cache.size() >= MAX_CACHED_TYPES) {
+            return value;
+        }
+        V existing = cache.putIfAbsent(key, value);
+        return existing == null ? value : existing;
     }
 
     public static byte[] toBytes(Object ob) {
@@ -36,19 +121,94 @@ public final class JsonUtil {
             return null;
         }
         try {
-            return MAPPER.writeValueAsBytes(ob);
+            return writerFor(ob.getClass()).writeValueAsBytes(ob);
         } catch (JsonProcessingException e) {
             log.error("对象转为json失败", e);
             throw new IllegalArgumentException(e.getMessage());
         }
     }
 
+    /**
+     * 以UTF-8直接序列化到输出流，不经过中间字符串或字节数组，流由调用方关闭
+     *
+     * @throws IllegalArgumentException 对象无法序列化
+     * @throws IOException              写入输出流失败
+     */
+    public static void write(OutputStream out, Object ob) throws IOException {
+        try {
+            if (ob == null) {
+                STREAM_WRITER.writeValue(out, null);
+            } else {
+                writerFor(ob.getClass()).writeValue(out, ob);
+            }
+        } catch (JsonProcessingException e) {
+            log.error("对象转为json失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * 序列化到 DataBuffer，容量不足时由 DataBuffer 自行扩容
+     */
+    public static void write(DataBuffer buffer, Object ob) throws IOException {
+        write(buffer.asOutputStream(), ob);
+    }
+
+    /**
+     * 序列化到可复用的 ByteBuffer，从 position 开始写入并前移 position
+     *
+     * @return 写入的字节数
+     * @throws BufferOverflowException 剩余空间不足，此时 position 恢复为写入前的位置
+     */
+    public static int write(ByteBuffer buffer, Object ob) {
+        int start = buffer.position();
+        try {
+            write(new ByteBufferBackedOutputStream(buffer), ob);
+        } catch (BufferOverflowException e) {
+            buffer.position(start);
+            throw e;
+        } catch (IOException e) {
+            buffer.position(start);
+            log.error("对象转为json失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        return buffer.position() - start;
+    }
+
+    /**
+     * 按指定格式序列化，JSON 时与 {@link #toBytes(Object)} 一致
+     */
+    public static byte[] toBytes(Object ob, JsonCodec codec) {
+        if (ob == null) {
+            return null;
+        }
+        try {
+            return writerFor(ob.getClass(), codec).writeValueAsBytes(ob);
+        } catch (JsonProcessingException e) {
+            log.error("对象转为" + codec + "失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    public static void write(OutputStream out, Object ob, JsonCodec codec) throws IOException {
+        try {
+            if (ob == null) {
+                writerFor(Object.class, codec).writeValue(out, null);
+            } else {
+                writerFor(ob.getClass(), codec).writeValue(out, ob);
+            }
+        } catch (JsonProcessingException e) {
+            log.error("对象转为" + codec + "失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
     public static String toJsonString(Object ob) {
         if (ob == null) {
             return null;
         }
         try {
-            return MAPPER.writeValueAsString(ob);
+            return writerFor(ob.getClass()).writeValueAsString(ob);
         } catch (JsonProcessingException e) {
             log.error("对象转为json失败", e);
             throw new IllegalArgumentException(e.getMessage());
@@ -60,7 +220,7 @@ public final class JsonUtil {
             return null;
         }
         try {
-            return MAPPER.readValue(json, type);
+            return readerFor(type).readValue(json);
         } catch (IOException e) {
             log.error("JSON字符串转换为对象失败", e);
             throw new IllegalArgumentException(e.getMessage());
@@ -72,7 +232,165 @@ public final class JsonUtil {
             return null;
         }
         try {
-            return MAPPER.readValue(json, javaType);
+            return readerFor(javaType).readValue(json);
+        } catch (IOException e) {
+            log.error("JSON转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * 直接从输入流反序列化，不经过中间字符串，流由调用方关闭
+     */
+    public static <T> T parse(InputStream in, Class<T> type) {
+        if (in == null) {
+            return null;
+        }
+        try {
+            return readerFor(type).readValue(in);
+        } catch (IOException e) {
+            log.error("JSON流转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    public static <T> T parse(InputStream in, JavaType javaType) {
+        if (in == null) {
+            return null;
+        }
+        try {
+            return readerFor(javaType).readValue(in);
+        } catch (IOException e) {
+            log.error("JSON流转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * 任意泛型类型，如 new TypeReference&lt;Map&lt;String, List&lt;Long&gt;&gt;&gt;() {}
+     */
+    public static <T> T parse(String json, TypeReference<T> typeReference) {
+        if (CommonUtils.isBlank(json)) {
+            return null;
+        }
+        try {
+            return readerFor(typeReference.getType()).readValue(json);
+        } catch (IOException e) {
+            log.error("JSON字符串转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    public static <T> T parse(InputStream in, TypeReference<T> typeReference) {
+        if (in == null) {
+            return null;
+        }
+        try {
+            return readerFor(typeReference.getType()).readValue(in);
+        } catch (IOException e) {
+            log.error("JSON流转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * 直接解析UTF-8字节，结果与先转为字符串再解析一致，空内容返回null
+     */
+    public static <T> T parse(byte[] json, Class<T> type) {
+        return json == null ? null : parse(json, 0, json.length, type);
+    }
+
+    public static <T> T parse(byte[] json, JavaType javaType) {
+        return json == null ? null : parse(json, 0, json.length, javaType);
+    }
+
+    /**
+     * 解析字节数组的一段，无需拷贝
+     */
+    public static <T> T parse(byte[] json, int offset, int length, Class<T> type) {
+        if (json == null || length == 0) {
+            return null;
+        }
+        return read(type, reader -> reader.readValue(json, offset, length));
+    }
+
+    public static <T> T parse(byte[] json, int offset, int length, JavaType javaType) {
+        if (json == null || length == 0) {
+            return null;
+        }
+        return read(javaType, reader -> reader.readValue(json, offset, length));
+    }
+
+    /**
+     * 解析 position 到 limit 之间的字节，不改变 position；堆内缓冲区直接读取底层数组
+     */
+    public static <T> T parse(ByteBuffer json, Class<T> type) {
+        return parseBuffer(json, type);
+    }
+
+    public static <T> T parse(ByteBuffer json, JavaType javaType) {
+        return parseBuffer(json, javaType);
+    }
+
+    private static <T> T parseBuffer(ByteBuffer json, Type type) {
+        if (json == null || !json.hasRemaining()) {
+            return null;
+        }
+        if (json.hasArray()) {
+            return read(type, reader -> reader.readValue(json.array(), json.arrayOffset() + json.position(), json.remaining()));
+        }
+        return read(type, reader -> reader.readValue(new ByteBufferBackedInputStream(json.duplicate())));
+    }
+
+    public static <T> T parse(Reader json, Class<T> type) {
+        return json == null ? null : read(type, reader -> reader.readValue(json));
+    }
+
+    public static <T> T parse(Reader json, JavaType javaType) {
+        return json == null ? null : read(javaType, reader -> reader.readValue(json));
+    }
+
+    /**
+     * 解析 DataBuffer 的可读字节，读位置随之前移，缓冲区由调用方释放
+     */
+    public static <T> T parse(DataBuffer json, Class<T> type) {
+        return json == null || json.readableByteCount() == 0 ? null : parse(json.asInputStream(), type);
+    }
+
+    public static <T> T parse(DataBuffer json, JavaType javaType) {
+        return json == null || json.readableByteCount() == 0 ? null : parse(json.asInputStream(), javaType);
+    }
+
+    /**
+     * 按指定格式解析，格式通常由 {@link JsonCodec#forContentType(String)} 得到
+     */
+    public static <T> T parse(byte[] data, Class<T> type, JsonCodec codec) {
+        if (data == null || data.length == 0) {
+            return null;
+        }
+        return read(readerFor(type, codec), reader -> reader.readValue(data));
+    }
+
+    public static <T> T parse(InputStream in, Class<T> type, JsonCodec codec) {
+        return in == null ? null : read(readerFor(type, codec), reader -> reader.readValue(in));
+    }
+
+    public static <T> T parse(InputStream in, JavaType javaType, JsonCodec codec) {
+        return in == null ? null : read(readerFor(javaType, codec), reader -> reader.readValue(in));
+    }
+
+    @FunctionalInterface
+    private interface ReadCall<T> {
+        T read(ObjectReader reader) throws IOException;
+    }
+
+    private static <T> T read(Type type, ReadCall<T> call) {
+        return read(readerFor(type), call);
+    }
+
+    private static <T> T read(ObjectReader objectReader, ReadCall<T> call) {
+        try {
+            return call.read(objectReader);
         } catch (IOException e) {
             log.error("JSON转换为对象失败", e);
             throw new IllegalArgumentException(e.getMessage());
@@ -87,11 +405,8 @@ public final class JsonUtil {
         if (CommonUtils.isBlank(json)) {
             return null;
         }
-        if (javaListTypeMap.get(type.getName()) == null) {
-            javaListTypeMap.put(type.getName(), MAPPER.getTypeFactory().constructCollectionType(ArrayList.class, type));
-        }
         try {
-            return MAPPER.readValue(json, javaListTypeMap.get(type.getName()));
+            return listReaderFor(type).readValue(json);
         } catch (IOException e) {
             log.error("JSON字符串转换为对象失败", e);
             throw new IllegalArgumentException(e.getMessage());
@@ -103,10 +418,83 @@ public final class JsonUtil {
             return null;
         }
         try {
-            return MAPPER.readValue(json, LIST_MAP_TYPE);
+            return readerFor(LIST_MAP_TYPE).readValue(json);
         } catch (IOException e) {
             log.error("JSON字符串转换为对象数组失败", e);
             throw new IllegalArgumentException(e.getMessage());
         }
     }
+
+    /**
+     * 逐个元素解析JSON数组并交给 action 处理，内存占用与单个元素相关而与数组长度无关，流由调用方关闭
+     * 也支持以空白分隔的多个顶层JSON值
+     *
+     * @return 处理的元素个数
+     * @throws IllegalArgumentException JSON格式或类型不匹配
+     * @throws IOException              读取输入流失败
+     */
+    public static <E> long forEachElement(InputStream in, Class<E> type, Consumer<? super E> action) throws IOException {
+        long count = 0;
+        //关闭迭代器时不关闭调用方的输入流；without 只复制 reader 的配置，已解析的反序列化器仍然复用
+        try (MappingIterator<E> iterator = readerFor(type).without(JsonParser.Feature.AUTO_CLOSE_SOURCE)
+                .readValues(in)) {
+            while (iterator.hasNextValue()) {
+                action.accept(iterator.nextValue());
+                count++;
+            }
+        } catch (JsonProcessingException e) {
+            log.error("JSON流转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        return count;
+    }
+
+    /**
+     * 按需逐个解析JSON数组元素，使用完毕后需关闭迭代器，关闭时同时关闭输入流
+     * 迭代过程中的解析错误以 RuntimeJsonMappingException 抛出
+     */
+    public static <E> MappingIterator<E> iterator(InputStream in, Class<E> type) throws IOException {
+        try {
+            return readerFor(type).readValues(in);
+        } catch (JsonProcessingException e) {
+            log.error("JSON流转换为对象失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+    }
+
+    /**
+     * 惰性的元素流，需在 try-with-resources 中使用以关闭输入流
+     */
+    public static <E> Stream<E> stream(InputStream in, Class<E> type) throws IOException {
+        MappingIterator<E> iterator = iterator(in, type);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+                .onClose(() -> {
+                    try {
+                        iterator.close();
+                    } catch (IOException e) {
+                        log.warn("关闭JSON流失败", e);
+                    }
+                });
+    }
+
+    /**
+     * 将迭代器中的元素逐个序列化为JSON数组写入输出流，不在内存中汇总，流由调用方关闭
+     *
+     * @return 写入的元素个数
+     * @throws IllegalArgumentException 元素无法序列化
+     * @throws IOException              写入输出流失败
+     */
+    public static long writeArray(OutputStream out, Iterator<?> elements) throws IOException {
+        long count = 0;
+        try (SequenceWriter writer = STREAM_WRITER.writeValuesAsArray(out)) {
+            while (elements.hasNext()) {
+                writer.write(elements.next());
+                count++;
+            }
+        } catch (JsonProcessingException e) {
+            log.error("对象转为json失败", e);
+            throw new IllegalArgumentException(e.getMessage());
+        }
+        return count;
+    }
 }
@@ -0,0 +1,398 @@
+package com.jw.common.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * @description: 惰性JSON视图，一次扫描建立结构索引，按 JSON Pointer(如 /user/id、/items/0/name)按需取值
+ * 只物化被访问的值，适合只需要一两个字段的场景(如网关鉴权、路由)；索引数组通过 reset 复用，热点路径几乎不分配内存
+ * 索引阶段只检查括号配对和字符串闭合，不做完整语法校验，取值时才校验对应的值；实例非线程安全
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public final class LazyJson {
+    private static final byte OBJECT = 1;
+    private static final byte ARRAY = 2;
+    private static final byte STRING = 3;
+    /**
+     * 含转义字符的字符串，取值时交给 Jackson 解码
+     */
+    private static final byte ESCAPED_STRING = 4;
+    private static final byte NUMBER = 5;
+    private static final byte BOOLEAN = 6;
+    private static final byte NULL = 7;
+
+    private byte[] json;
+    private int limit;
+    /**
+     * 按出现顺序记录每个值(对象的键也算一个值)的类型、起止位置，以及跳过其子节点后的下一个值的下标
+     */
+    private byte[] types = new byte[64];
+    private int[] starts = new int[64];
+    private int[] ends = new int[64];
+    private int[] nexts = new int[64];
+    private int count;
+    private int[] stack = new int[16];
+
+    public static LazyJson of(byte[] json) {
+        return new LazyJson().reset(json);
+    }
+
+    public static LazyJson of(String json) {
+        return new LazyJson().reset(json);
+    }
+
+    public LazyJson reset(String json) {
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        return reset(bytes, 0, bytes.length);
+    }
+
+    public LazyJson reset(byte[] json) {
+        return reset(json, 0, json.length);
+    }
+
+    /**
+     * 重新索引一段UTF-8字节，复用已分配的索引数组；索引期间及之后不应修改 json
+     *
+     * @throws IllegalArgumentException 括号不配对、字符串未闭合或存在多余内容
+     */
+    public LazyJson reset(byte[] json, int offset, int length) {
+        this.json = json;
+        this.limit = offset + length;
+        this.count = 0;
+        int depth = 0;
+        int i = skipWhitespace(offset);
+        if (i >= limit) {
+            throw new IllegalArgumentException("empty json");
+        }
+        do {
+            byte b = json[i];
+            if (b == '{' || b == '[') {
+                int token = add(b == '{' ? OBJECT : ARRAY, i);
+                if (depth == stack.length) {
+                    stack = Arrays.copyOf(stack, depth * 2);
+                }
+                stack[depth++] = token;
+                i++;
+            } else if (b == '}' || b == ']') {
+                if (depth == 0 || types[stack[depth - 1]] != (b == '}' ? OBJECT : ARRAY)) {
+                    throw new IllegalArgumentException("unexpected '" + (char) b + "' at " + (i - offset));
+                }
+                int token = stack[--depth];
+                ends[token] = ++i;
+                nexts[token] = count;
+            } else if (b == ',' || b == ':') {
+                i++;
+            } else if (b == '"') {
+                i = string(i);
+            } else {
+                i = scalar(i);
+            }
+            if (depth == 0) {
+                break;
+            }
+            i = skipWhitespace(i);
+        } while (i < limit);
+        if (depth != 0 || count == 0) {
+            throw new IllegalArgumentException("unexpected end of json");
+        }
+        if (skipWhitespace(i) != limit) {
+            throw new IllegalArgumentException("unexpected content at " + (i - offset));
+        }
+        return this;
+    }
+
+    public boolean has(String pointer) {
+        return find(pointer) >= 0;
+    }
+
+    /**
+     * 字符串返回解码后的内容，数字和布尔值返回原文，对象和数组返回原始JSON，不存在或为null时返回null
+     */
+    public String getString(String pointer) {
+        int token = find(pointer);
+        if (token < 0 || types[token] == NULL) {
+            return null;
+        }
+        if (types[token] == STRING) {
+            return new String(json, starts[token] + 1, ends[token] - starts[token] - 2, StandardCharsets.UTF_8);
+        }
+        if (types[token] == ESCAPED_STRING) {
+            return JsonUtil.parse(json, starts[token], ends[token] - starts[token], String.class);
+        }
+        return raw(token);
+    }
+
+    /**
+     * 数字或内容为数字的字符串，不存在或为null时返回null
+     *
+     * @throws NumberFormatException 不是整数
+     */
+    public Long getLong(String pointer) {
+        int token = find(pointer);
+        if (token < 0 || types[token] == NULL) {
+            return null;
+        }
+        if (types[token] == STRING) {
+            return parseLong(starts[token] + 1, ends[token] - 1);
+        }
+        if (types[token] != NUMBER) {
+            throw new NumberFormatException("not a number: " + raw(token));
+        }
+        return parseLong(starts[token], ends[token]);
+    }
+
+    public Integer getInt(String pointer) {
+        Long value = getLong(pointer);
+        return value == null ? null : Math.toIntExact(value);
+    }
+
+    public Double getDouble(String pointer) {
+        int token = find(pointer);
+        if (token < 0 || types[token] == NULL) {
+            return null;
+        }
+        if (types[token] == STRING) {
+            return Double.valueOf(ascii(starts[token] + 1, ends[token] - 1));
+        }
+        if (types[token] != NUMBER) {
+            throw new NumberFormatException("not a number: " + raw(token));
+        }
+        return Double.valueOf(ascii(starts[token], ends[token]));
+    }
+
+    public Boolean getBoolean(String pointer) {
+        int token = find(pointer);
+        if (token < 0 || types[token] == NULL) {
+            return null;
+        }
+        if (types[token] != BOOLEAN) {
+            throw new IllegalArgumentException("not a boolean: " + raw(token));
+        }
+        return json[starts[token]] == 't';
+    }
+
+    /**
+     * 将指定位置的值(可以是对象或数组)反序列化为指定类型，不存在时返回null
+     */
+    public <T> T get(String pointer, Class<T> type) {
+        int token = find(pointer);
+        return token < 0 ? null : JsonUtil.parse(json, starts[token], ends[token] - starts[token], type);
+    }
+
+    /**
+     * 指定位置的原始JSON文本，不存在时返回null
+     */
+    public String getRaw(String pointer) {
+        int token = find(pointer);
+        return token < 0 ? null : raw(token);
+    }
+
+    /**
+     * 对象的字段数或数组的元素数，不存在或不是容器时返回-1
+     */
+    public int size(String pointer) {
+        int token = find(pointer);
+        if (token < 0 || (types[token] != OBJECT && types[token] != ARRAY)) {
+            return -1;
+        }
+        int size = 0;
+        for (int child = token + 1; child < nexts[token]; child = nexts[child]) {
+            size++;
+        }
+        return types[token] == OBJECT ? size / 2 : size;
+    }
+
+    /**
+     * 按 RFC 6901 解析路径，返回值的下标，不存在时返回-1
+     */
+    private int find(String pointer) {
+        if (json == null) {
+            throw new IllegalStateException("reset must be called first");
+        }
+        if (pointer.isEmpty()) {
+            return 0;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("json pointer must start with '/': " + pointer);
+        }
+        int token = 0;
+        int from = 1;
+        while (token >= 0) {
+            int to = pointer.indexOf('/', from);
+            if (to < 0) {
+                to = pointer.length();
+            }
+            if (types[token] == OBJECT) {
+                token = member(token, pointer, from, to);
+            } else if (types[token] == ARRAY) {
+                token = element(token, pointer, from, to);
+            } else {
+                return -1;
+            }
+            if (to == pointer.length()) {
+                return token;
+            }
+            from = to + 1;
+        }
+        return -1;
+    }
+
+    private int member(int object, String pointer, int from, int to) {
+        String name = null;
+        if (pointer.indexOf('~', from) >= 0 && pointer.indexOf('~', from) < to) {
+            name = pointer.substring(from, to).replace("~1", "/").replace("~0", "~");
+        }
+        for (int key = object + 1; key + 1 < nexts[object]; key = nexts[key + 1]) {
+            boolean match = name == null ? keyEquals(key, pointer, from, to) : keyEquals(key, name, 0, name.length());
+            if (match) {
+                return key + 1;
+            }
+        }
+        return -1;
+    }
+
+    private int element(int array, String pointer, int from, int to) {
+        //RFC 6901 的数组下标不能有前导 0
+        if (from == to || to - from > 9 || to - from > 1 && pointer.charAt(from) == '0') {
+            return -1;
+        }
+        int index = 0;
+        for (int i = from; i < to; i++) {
+            char c = pointer.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        int child = array + 1;
+        for (int i = 0; i < index && child < nexts[array]; i++) {
+            child = nexts[child];
+        }
+        return child < nexts[array] ? child : -1;
+    }
+
+    /**
+     * ASCII 键直接逐字节比较，含非 ASCII 字符或转义时解码后再比较
+     */
+    private boolean keyEquals(int key, String name, int from, int to) {
+        int start = starts[key] + 1;
+        int end = ends[key] - 1;
+        if (types[key] == STRING) {
+            int i = start;
+            int j = from;
+            for (; i < end && j < to; i++, j++) {
+                byte b = json[i];
+                char c = name.charAt(j);
+                if (b < 0 || c >= 0x80) {
+                    return new String(json, start, end - start, StandardCharsets.UTF_8).equals(name.substring(from, to));
+                }
+                if (b != c) {
+                    return false;
+                }
+            }
+            return i == end && j == to;
+        }
+        return types[key] == ESCAPED_STRING
+                && name.substring(from, to).equals(JsonUtil.parse(json, starts[key], ends[key] - starts[key], String.class));
+    }
+
+    private int string(int from) {
+        boolean escaped = false;
+        for (int i = from + 1; i < limit; i++) {
+            byte b = json[i];
+            if (b == '"') {
+                int token = add(escaped ? ESCAPED_STRING : STRING, from);
+                ends[token] = i + 1;
+                return i + 1;
+            }
+            if (b == '\\') {
+                escaped = true;
+                i++;
+            }
+        }
+        throw new IllegalArgumentException("unterminated string at " + from);
+    }
+
+    private int scalar(int from) {
+        int i = from;
+        while (i < limit) {
+            byte b = json[i];
+            if (b == ',' || b == '}' || b == ']' || b == ':' || b == ' ' || b == '\n' || b == '\r' || b == '\t') {
+                break;
+            }
+            i++;
+        }
+        byte first = json[from];
+        byte type = first == 't' || first == 'f' ? BOOLEAN : first == 'n' ? NULL : NUMBER;
+        int token = add(type, from);
+        ends[token] = i;
+        if (type == BOOLEAN && !matches(from, i, first == 't' ? "true" : "false")
+                || type == NULL && !matches(from, i, "null")) {
+            throw new IllegalArgumentException("unexpected token " + ascii(from, i) + " at " + from);
+        }
+        return i;
+    }
+
+    private int add(byte type, int start) {
+        if (count == types.length) {
+            int capacity = count * 2;
+            types = Arrays.copyOf(types, capacity);
+            starts = Arrays.copyOf(starts, capacity);
+            ends = Arrays.copyOf(ends, capacity);
+            nexts = Arrays.copyOf(nexts, capacity);
+        }
+        types[count] = type;
+        starts[count] = start;
+        nexts[count] = count + 1;
+        return count++;
+    }
+
+    private int skipWhitespace(int i) {
+        while (i < limit) {
+            byte b = json[i];
+            if (b != ' ' && b != '\n' && b != '\r' && b != '\t') {
+                break;
+            }
+            i++;
+        }
+        return i;
+    }
+
+    private boolean matches(int from, int to, String literal) {
+        if (to - from != literal.length()) {
+            return false;
+        }
+        for (int i = 0; i < literal.length(); i++) {
+            if (json[from + i] != literal.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long parseLong(int from, int to) {
+        boolean negative = from < to && json[from] == '-';
+        int i = negative ? from + 1 : from;
+        if (i == to || to - i > 18) {
+            return Long.parseLong(ascii(from, to));
+        }
+        long value = 0;
+        for (; i < to; i++) {
+            int digit = json[i] - '0';
+            if (digit < 0 || digit > 9) {
+                return Long.parseLong(ascii(from, to));
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private String ascii(int from, int to) {
+        return new String(json, from, to - from, StandardCharsets.US_ASCII);
+    }
+
+    private String raw(int token) {
+        return new String(json, starts[token], ends[token] - starts[token], StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,187 @@
+package com.jw.common.util;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.RandomAccess;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.Function;
+
+/**
+ * @description: CommonUtils 列表转换的实现，分组时每个元素只查找一次哈希表
+ * 默认顺序执行；调用方传入线程池时，支持随机访问的大列表拆分到该池并行处理，各段结果按原顺序合并，结果与顺序执行一致
+ * 并行时转换函数会在多个线程中调用，需无副作用且不依赖 ThreadLocal
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+final class ListConversions {
+    /**
+     * 传入线程池且超过该长度时并行处理
+     */
+    static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int LEAF_SIZE = 1 << 13;
+
+    private ListConversions() {
+    }
+
+    /**
+     * @param pool 并行使用的线程池，null 表示顺序执行
+     */
+    static <E, R> List<R> convert(List<E> source, Function<E, R> getValue, ForkJoinPool pool) {
+        int size = source.size();
+        if (!parallel(source, pool)) {
+            List<R> result = new ArrayList<>(size);
+            for (E item : source) {
+                result.add(getValue.apply(item));
+            }
+            return result;
+        }
+        Object[] values = new Object[size];
+        pool.invoke(new ConvertTask<>(source, getValue, values, 0, size));
+        @SuppressWarnings("unchecked")
+        List<R> result = (List<R>) new ArrayList<>(Arrays.asList(values));
+        return result;
+    }
+
+    static <K, V, R> Map<K, V> toMap(List<R> list, Function<R, K> getKey, Function<R, V> getValue,
+                                     ForkJoinPool pool) {
+        if (!parallel(list, pool)) {
+            return toMap(list, getKey, getValue, 0, list.size());
+        }
+        return pool.invoke(new ToMapTask<>(list, getKey, getValue, 0, list.size()));
+    }
+
+    static <K, V, R> Map<K, List<R>> group(List<V> list, Function<V, K> getKey, Function<V, R> getValue,
+                                           ForkJoinPool pool) {
+        if (!parallel(list, pool)) {
+            return group(list, getKey, getValue, 0, list.size());
+        }
+        return pool.invoke(new GroupTask<>(list, getKey, getValue, 0, list.size()));
+    }
+
+    private static boolean parallel(List<?> list, ForkJoinPool pool) {
+        return pool != null && pool.getParallelism() > 1 && list.size() > PARALLEL_THRESHOLD
+                && list instanceof RandomAccess;
+    }
+
+    private static int capacity(int size) {
+        return Math.max(8, (int) (size / 0.75f) + 1);
+    }
+
+    private static <K, V, R> Map<K, V> toMap(List<R> list, Function<R, K> getKey, Function<R, V> getValue,
+                                             int from, int to) {
+        Map<K, V> map = new HashMap<>(capacity(to - from));
+        for (R item : from == 0 && to == list.size() ? list : list.subList(from, to)) {
+            map.put(getKey.apply(item), getValue.apply(item));
+        }
+        return map;
+    }
+
+    private static <K, V, R> Map<K, List<R>> group(List<V> list, Function<V, K> getKey, Function<V, R> getValue,
+                                                   int from, int to) {
+        Map<K, List<R>> map = new HashMap<>(capacity(Math.min(to - from, LEAF_SIZE)));
+        for (V item : from == 0 && to == list.size() ? list : list.subList(from, to)) {
+            map.computeIfAbsent(getKey.apply(item), key -> new ArrayList<>()).add(getValue.apply(item));
+        }
+        return map;
+    }
+
+    private static final class ConvertTask<E, R> extends RecursiveTask<Void> {
+        private final List<E> source;
+        private final Function<E, R> getValue;
+        private final Object[] values;
+        private final int from;
+        private final int to;
+
+        private ConvertTask(List<E> source, Function<E, R> getValue, Object[] values, int from, int to) {
+            this.source = source;
+            this.getValue = getValue;
+            this.values = values;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Void compute() {
+            if (to - from <= LEAF_SIZE) {
+                for (int i = from; i < to; i++) {
+                    values[i] = getValue.apply(source.get(i));
+                }
+                return null;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ConvertTask<>(source, getValue, values, from, mid),
+                    new ConvertTask<>(source, getValue, values, mid, to));
+            return null;
+        }
+    }
+
+    private static final class ToMapTask<K, V, R> extends RecursiveTask<Map<K, V>> {
+        private final List<R> list;
+        private final Function<R, K> getKey;
+        private final Function<R, V> getValue;
+        private final int from;
+        private final int to;
+
+        private ToMapTask(List<R> list, Function<R, K> getKey, Function<R, V> getValue, int from, int to) {
+            this.list = list;
+            this.getKey = getKey;
+            this.getValue = getValue;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<K, V> compute() {
+            if (to - from <= LEAF_SIZE) {
+                return toMap(list, getKey, getValue, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            ToMapTask<K, V, R> right = new ToMapTask<>(list, getKey, getValue, mid, to);
+            right.fork();
+            Map<K, V> map = new ToMapTask<>(list, getKey, getValue, from, mid).compute();
+            //后出现的元素覆盖先出现的，与顺序 put 一致
+            map.putAll(right.join());
+            return map;
+        }
+    }
+
+    private static final class GroupTask<K, V, R> extends RecursiveTask<Map<K, List<R>>> {
+        private final List<V> list;
+        private final Function<V, K> getKey;
+        private final Function<V, R> getValue;
+        private final int from;
+        private final int to;
+
+        private GroupTask(List<V> list, Function<V, K> getKey, Function<V, R> getValue, int from, int to) {
+            this.list = list;
+            this.getKey = getKey;
+            this.getValue = getValue;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Map<K, List<R>> compute() {
+            if (to - from <= LEAF_SIZE) {
+                return group(list, getKey, getValue, from, to);
+            }
+            int mid = (from + to) >>> 1;
+            GroupTask<K, V, R> right = new GroupTask<>(list, getKey, getValue, mid, to);
+            right.fork();
+            Map<K, List<R>> map = new GroupTask<>(list, getKey, getValue, from, mid).compute();
+            for (Map.Entry<K, List<R>> entry : right.join().entrySet()) {
+                List<R> values = map.get(entry.getKey());
+                if (values == null) {
+                    map.put(entry.getKey(), entry.getValue());
+                } else {
+                    values.addAll(entry.getValue());
+                }
+            }
+            return map;
+        }
+    }
+}
@@ -0,0 +1,296 @@
+package com.jw.common.util;
+
+import java.util.Arrays;
+import java.util.function.LongFunction;
+
+/**
+ * @description: long 为键的哈希表，开放寻址(线性探测)，键值分别存放在 long[] 和 Object[] 中，不装箱也不创建 Entry
+ * 每个条目约占 2 个数组槽位，适合在内存中按雪花ID关联大量数据；值可以为null；非线程安全
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class LongHashMap<V> {
+    /**
+     * 空槽位标记，键为 0 的条目单独存放
+     */
+    static final long EMPTY = 0L;
+    static final float LOAD_FACTOR = 0.6f;
+    static final int MAX_CAPACITY = 1 << 30;
+
+    private long[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZeroKey;
+    private V zeroValue;
+
+    public LongHashMap() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的条目数，达到该数量前不会扩容
+     */
+    public LongHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean containsKey(long key) {
+        return key == EMPTY ? hasZeroKey : slot(key) >= 0;
+    }
+
+    public V get(long key) {
+        return getOrDefault(key, null);
+    }
+
+    @SuppressWarnings("unchecked")
+    public V getOrDefault(long key, V defaultValue) {
+        if (key == EMPTY) {
+            return hasZeroKey ? zeroValue : defaultValue;
+        }
+        int slot = slot(key);
+        return slot >= 0 ? (V) values[slot] : defaultValue;
+    }
+
+    /**
+     * @return 原来的值，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V put(long key, V value) {
+        if (key == EMPTY) {
+            V previous = zeroValue;
+            zeroValue = value;
+            if (!hasZeroKey) {
+                hasZeroKey = true;
+                size++;
+            }
+            return previous;
+        }
+        int slot = insertionSlot(key);
+        if (slot >= 0) {
+            V previous = (V) values[slot];
+            values[slot] = value;
+            return previous;
+        }
+        insert(~slot, key, value);
+        return null;
+    }
+
+    /**
+     * 键不存在时放入，返回原来的值
+     */
+    public V putIfAbsent(long key, V value) {
+        if (containsKey(key)) {
+            return get(key);
+        }
+        put(key, value);
+        return null;
+    }
+
+    /**
+     * 键不存在时计算并放入，只查找一次；计算结果为null时不放入
+     */
+    @SuppressWarnings("unchecked")
+    public V computeIfAbsent(long key, LongFunction<? extends V> mapping) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                V value = mapping.apply(key);
+                if (value != null) {
+                    put(key, value);
+                }
+                return value;
+            }
+            return zeroValue;
+        }
+        int slot = insertionSlot(key);
+        if (slot >= 0) {
+            return (V) values[slot];
+        }
+        V value = mapping.apply(key);
+        if (value != null) {
+            insert(~slot, key, value);
+        }
+        return value;
+    }
+
+    /**
+     * @return 被移除的值，不存在时返回null
+     */
+    @SuppressWarnings("unchecked")
+    public V remove(long key) {
+        if (key == EMPTY) {
+            if (!hasZeroKey) {
+                return null;
+            }
+            V previous = zeroValue;
+            hasZeroKey = false;
+            zeroValue = null;
+            size--;
+            return previous;
+        }
+        int slot = slot(key);
+        if (slot < 0) {
+            return null;
+        }
+        V previous = (V) values[slot];
+        shiftDelete(slot);
+        size--;
+        return previous;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, EMPTY);
+        Arrays.fill(values, null);
+        hasZeroKey = false;
+        zeroValue = null;
+        size = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(EntryConsumer<? super V> action) {
+        if (hasZeroKey) {
+            action.accept(EMPTY, zeroValue);
+        }
+        for (int i = 0; i < keys.length; i++) {
+            if (keys[i] != EMPTY) {
+                action.accept(keys[i], (V) values[i]);
+            }
+        }
+    }
+
+    /**
+     * 全部键，顺序不固定
+     */
+    public long[] keys() {
+        long[] result = new long[size];
+        int n = 0;
+        if (hasZeroKey) {
+            result[n++] = EMPTY;
+        }
+        for (long key : keys) {
+            if (key != EMPTY) {
+                result[n++] = key;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder builder = new StringBuilder("{");
+        forEach((key, value) -> builder.append(builder.length() > 1 ? ", " : "").append(key).append('=').append(value));
+        return builder.append('}').toString();
+    }
+
+    @FunctionalInterface
+    public interface EntryConsumer<V> {
+        void accept(long key, V value);
+    }
+
+    /**
+     * 雪花ID的低位是序列号、高位是时间戳，先打散再取槽位
+     */
+    static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return (int) (h ^ (h >>> 32));
+    }
+
+    static int capacityFor(int expectedSize) {
+        if (expectedSize < 0) {
+            throw new IllegalArgumentException("expectedSize must not be negative: " + expectedSize);
+        }
+        long required = Math.max(4, (long) Math.ceil(expectedSize / (double) LOAD_FACTOR));
+        if (required > MAX_CAPACITY) {
+            throw new IllegalArgumentException("expectedSize too large: " + expectedSize);
+        }
+        return Integer.highestOneBit((int) required - 1) << 1;
+    }
+
+    private void allocate(int capacity) {
+        keys = new long[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) (capacity * LOAD_FACTOR));
+    }
+
+    private int slot(long key) {
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            long existing = keys[i];
+            if (existing == key) {
+                return i;
+            }
+            if (existing == EMPTY) {
+                return -1;
+            }
+        }
+    }
+
+    /**
+     * 已存在时返回其槽位，否则返回 ~空槽位
+     */
+    private int insertionSlot(long key) {
+        for (int i = hash(key) & mask; ; i = (i + 1) & mask) {
+            long existing = keys[i];
+            if (existing == key) {
+                return i;
+            }
+            if (existing == EMPTY) {
+                return ~i;
+            }
+        }
+    }
+
+    private void insert(int slot, long key, V value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size - (hasZeroKey ? 1 : 0) > resizeAt) {
+            if (keys.length == MAX_CAPACITY) {
+                throw new IllegalStateException("LongHashMap is full");
+            }
+            rehash(keys.length << 1);
+        }
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            long key = oldKeys[i];
+            if (key != EMPTY) {
+                int slot = hash(key) & mask;
+                while (keys[slot] != EMPTY) {
+                    slot = (slot + 1) & mask;
+                }
+                keys[slot] = key;
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    /**
+     * 线性探测的删除：把后续探测链上的条目前移，不留墓碑
+     */
+    private void shiftDelete(int slot) {
+        int gap = slot;
+        for (int i = (gap + 1) & mask; keys[i] != EMPTY; i = (i + 1) & mask) {
+            int home = hash(keys[i]) & mask;
+            if (((i - home) & mask) >= ((i - gap) & mask)) {
+                keys[gap] = keys[i];
+                values[gap] = values[i];
+                gap = i;
+            }
+        }
+        keys[gap] = EMPTY;
+        values[gap] = null;
+    }
+}
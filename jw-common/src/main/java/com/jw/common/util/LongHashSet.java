@@ -0,0 +1,180 @@
+package com.jw.common.util;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * @description: long 集合，开放寻址(线性探测)，元素存放在 long[] 中不装箱，哈希与扩容规则同 {@link LongHashMap}；非线程安全
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public class LongHashSet {
+    private long[] elements;
+    private int mask;
+    private int size;
+    private int resizeAt;
+    private boolean hasZero;
+
+    public LongHashSet() {
+        this(16);
+    }
+
+    /**
+     * @param expectedSize 预计的元素数，达到该数量前不会扩容
+     */
+    public LongHashSet(int expectedSize) {
+        allocate(LongHashMap.capacityFor(expectedSize));
+    }
+
+    public static LongHashSet of(long... values) {
+        LongHashSet set = new LongHashSet(values.length);
+        for (long value : values) {
+            set.add(value);
+        }
+        return set;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(long value) {
+        if (value == LongHashMap.EMPTY) {
+            return hasZero;
+        }
+        for (int i = LongHashMap.hash(value) & mask; ; i = (i + 1) & mask) {
+            long existing = elements[i];
+            if (existing == value) {
+                return true;
+            }
+            if (existing == LongHashMap.EMPTY) {
+                return false;
+            }
+        }
+    }
+
+    /**
+     * @return 原来不存在时返回true
+     */
+    public boolean add(long value) {
+        if (value == LongHashMap.EMPTY) {
+            if (hasZero) {
+                return false;
+            }
+            hasZero = true;
+            size++;
+            return true;
+        }
+        int i = LongHashMap.hash(value) & mask;
+        for (long existing = elements[i]; existing != LongHashMap.EMPTY; existing = elements[i]) {
+            if (existing == value) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        elements[i] = value;
+        if (++size - (hasZero ? 1 : 0) > resizeAt) {
+            if (elements.length == LongHashMap.MAX_CAPACITY) {
+                throw new IllegalStateException("LongHashSet is full");
+            }
+            rehash(elements.length << 1);
+        }
+        return true;
+    }
+
+    /**
+     * @return 原来存在时返回true
+     */
+    public boolean remove(long value) {
+        if (value == LongHashMap.EMPTY) {
+            if (!hasZero) {
+                return false;
+            }
+            hasZero = false;
+            size--;
+            return true;
+        }
+        int i = LongHashMap.hash(value) & mask;
+        for (long existing = elements[i]; existing != value; existing = elements[i]) {
+            if (existing == LongHashMap.EMPTY) {
+                return false;
+            }
+            i = (i + 1) & mask;
+        }
+        //把后续探测链上的元素前移，不留墓碑
+        int gap = i;
+        for (int j = (gap + 1) & mask; elements[j] != LongHashMap.EMPTY; j = (j + 1) & mask) {
+            int home = LongHashMap.hash(elements[j]) & mask;
+            if (((j - home) & mask) >= ((j - gap) & mask)) {
+                elements[gap] = elements[j];
+                gap = j;
+            }
+        }
+        elements[gap] = LongHashMap.EMPTY;
+        size--;
+        return true;
+    }
+
+    public void clear() {
+        Arrays.fill(elements, LongHashMap.EMPTY);
+        hasZero = false;
+        size = 0;
+    }
+
+    public void forEach(LongConsumer action) {
+        if (hasZero) {
+            action.accept(LongHashMap.EMPTY);
+        }
+        for (long element : elements) {
+            if (element != LongHashMap.EMPTY) {
+                action.accept(element);
+            }
+        }
+    }
+
+    /**
+     * 全部元素，顺序不固定
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int n = 0;
+        if (hasZero) {
+            result[n++] = LongHashMap.EMPTY;
+        }
+        for (long element : elements) {
+            if (element != LongHashMap.EMPTY) {
+                result[n++] = element;
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public String toString() {
+        return Arrays.toString(toArray());
+    }
+
+    private void allocate(int capacity) {
+        elements = new long[capacity];
+        mask = capacity - 1;
+        resizeAt = Math.min(capacity - 1, (int) (capacity * LongHashMap.LOAD_FACTOR));
+    }
+
+    private void rehash(int capacity) {
+        long[] old = elements;
+        allocate(capacity);
+        for (long element : old) {
+            if (element != LongHashMap.EMPTY) {
+                int i = LongHashMap.hash(element) & mask;
+                while (elements[i] != LongHashMap.EMPTY) {
+                    i = (i + 1) & mask;
+                }
+                elements[i] = element;
+            }
+        }
+    }
+}
@@ -0,0 +1,268 @@
+package com.jw.common.util;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * @description: 时区偏移表，预先计算 1900~2100 年间的全部偏移变化(夏令时、时区调整)，
+ * 以 epoch 毫秒做日期计算时只需二分查找，不创建 Calendar/Date 等对象；超出范围时回退到 java.time
+ * 本地时间落在夏令时跳过的区间时顺延；落在重叠区间时 {@link #toEpochMillis(long)} 取较早的时刻，与 ZonedDateTime.ofLocal 一致，
+ * startOfDay/atTime/monthStart 取较晚的时刻，与原先基于 Calendar 的实现一致
+ * @date: 2026/10/17
+ * @author: jinwei
+ */
+public final class ZoneOffsetTable {
+    public static final long DAY_MILLIS = 24L * 3600 * 1000;
+
+    private static final long TABLE_START = LocalDateTime.of(1900, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+    private static final long TABLE_END = LocalDateTime.of(2100, 1, 1, 0, 0).toEpochSecond(ZoneOffset.UTC) * 1000;
+
+    private static final ConcurrentHashMap<ZoneId, ZoneOffsetTable> TABLES = new ConcurrentHashMap<>(8);
+
+    private static volatile DefaultZone systemDefault = new DefaultZone(TimeZone.getDefault());
+
+    private final ZoneId zone;
+    private final ZoneRules rules;
+    private final boolean fixed;
+    /**
+     * 第 i 次偏移变化的 UTC 时刻
+     */
+    private final long[] transitions;
+    /**
+     * 第 i 次变化前后两个偏移中较大者对应的本地时刻，本地时间不小于它时使用变化后的偏移
+     */
+    private final long[] localBoundaries;
+    /**
+     * 第 i 次变化后的偏移对应的本地时刻，重叠区间取较晚的偏移时使用，与宽松模式的 Calendar 一致
+     */
+    private final long[] laterBoundaries;
+    /**
+     * offsets[0] 为第一次变化前的偏移，offsets[i + 1] 为第 i 次变化后的偏移，单位毫秒
+     */
+    private final int[] offsets;
+
+    private ZoneOffsetTable(ZoneId zone) {
+        this.zone = zone;
+        this.rules = zone.getRules();
+        this.fixed = rules.isFixedOffset();
+        List<ZoneOffsetTransition> list = new ArrayList<>();
+        if (!fixed) {
+            ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(TABLE_START));
+            while (transition != null && transition.toEpochSecond() * 1000 < TABLE_END) {
+                list.add(transition);
+                transition = rules.nextTransition(transition.getInstant());
+            }
+        }
+        transitions = new long[list.size()];
+        localBoundaries = new long[list.size()];
+        laterBoundaries = new long[list.size()];
+        offsets = new int[list.size() + 1];
+        offsets[0] = rules.getOffset(Instant.ofEpochMilli(fixed ? 0 : TABLE_START)).getTotalSeconds() * 1000;
+        for (int i = 0; i < list.size(); i++) {
+            ZoneOffsetTransition transition = list.get(i);
+            int before = transition.getOffsetBefore().getTotalSeconds() * 1000;
+            int after = transition.getOffsetAfter().getTotalSeconds() * 1000;
+            transitions[i] = transition.toEpochSecond() * 1000;
+            localBoundaries[i] = transitions[i] + Math.max(before, after);
+            laterBoundaries[i] = transitions[i] + after;
+            offsets[i + 1] = after;
+        }
+    }
+
+    public static ZoneOffsetTable of(ZoneId zone) {
+        ZoneOffsetTable table = TABLES.get(zone);
+        if (table == null) {
+            table = new ZoneOffsetTable(zone);
+            ZoneOffsetTable existing = TABLES.putIfAbsent(zone, table);
+            if (existing != null) {
+                table = existing;
+            }
+        }
+        return table;
+    }
+
+    /**
+     * 系统默认时区的偏移表，每次调用时与 TimeZone.getDefault() 比较，默认时区被修改后随之切换，与 Calendar 一致
+     */
+    public static ZoneOffsetTable systemDefault() {
+        TimeZone current = TimeZone.getDefault();
+        DefaultZone cached = systemDefault;
+        //getDefault 返回浅克隆，ID 与默认时区是同一个字符串，未修改时 equals 只比较引用
+        if (!cached.id.equals(current.getID())) {
+            cached = new DefaultZone(current);
+            systemDefault = cached;
+        }
+        return cached.table;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    /**
+     * 时刻是否在预计算范围内；范围外 java.time 与 java.util.TimeZone 的历史偏移(如地方平时)可能不同
+     */
+    static boolean covers(long epochMillis) {
+        return epochMillis >= TABLE_START + DAY_MILLIS && epochMillis < TABLE_END - DAY_MILLIS;
+    }
+
+    /**
+     * 指定时刻的偏移毫秒数
+     */
+    public int offsetOf(long epochMillis) {
+        if (fixed) {
+            return offsets[0];
+        }
+        if (epochMillis < TABLE_START || epochMillis >= TABLE_END) {
+            return rules.getOffset(Instant.ofEpochMilli(epochMillis)).getTotalSeconds() * 1000;
+        }
+        return offsets[upperBound(transitions, epochMillis)];
+    }
+
+    /**
+     * 本地时间(以 UTC 纪元表示的本地毫秒数)对应的时刻
+     */
+    public long toEpochMillis(long localMillis) {
+        return toEpochMillis(localMillis, false);
+    }
+
+    /**
+     * @param laterInOverlap 落在重叠区间时是否取较晚的时刻，SimpleDateFormat/Calendar 的行为为 true
+     */
+    public long toEpochMillis(long localMillis, boolean laterInOverlap) {
+        if (fixed) {
+            return localMillis - offsets[0];
+        }
+        if (localMillis < TABLE_START || localMillis >= TABLE_END) {
+            LocalDateTime local = LocalDateTime.ofEpochSecond(Math.floorDiv(localMillis, 1000),
+                    (int) Math.floorMod(localMillis, 1000) * 1000_000, ZoneOffset.UTC);
+            ZonedDateTime zoned = ZonedDateTime.ofLocal(local, zone, null);
+            return (laterInOverlap ? zoned.withLaterOffsetAtOverlap() : zoned).toInstant().toEpochMilli();
+        }
+        return localMillis - offsets[upperBound(laterInOverlap ? laterBoundaries : localBoundaries, localMillis)];
+    }
+
+    public long toLocalMillis(long epochMillis) {
+        return epochMillis + offsetOf(epochMillis);
+    }
+
+    /**
+     * 本地日期距 1970-01-01 的天数
+     */
+    public long epochDay(long epochMillis) {
+        return Math.floorDiv(toLocalMillis(epochMillis), DAY_MILLIS);
+    }
+
+    /**
+     * 本地日期距 1970-01 的月数
+     */
+    public long epochMonth(long epochMillis) {
+        long civil = civilFromDays(epochDay(epochMillis));
+        return (civil >> 9) * 12 + ((civil >> 5) & 0xF) - 1 - 1970 * 12;
+    }
+
+    /**
+     * 当天零点，零点落在重叠区间时取较晚的一次，与 Calendar 一致
+     */
+    public long startOfDay(long epochMillis) {
+        return toEpochMillis(epochDay(epochMillis) * DAY_MILLIS, true);
+    }
+
+    /**
+     * 当天 23:59:59.999，落在重叠区间时取较晚的一次，与 Calendar 一致
+     */
+    public long endOfDay(long epochMillis) {
+        return toEpochMillis((epochDay(epochMillis) + 1) * DAY_MILLIS - 1, true);
+    }
+
+    /**
+     * 当天的指定时刻，超出范围的时分秒按进位处理，落在重叠区间时取较晚的一次，与宽松模式的 Calendar 一致
+     */
+    public long atTime(long epochMillis, int hour, int minute, int second, int millis) {
+        return toEpochMillis(epochDay(epochMillis) * DAY_MILLIS
+                + hour * 3600_000L + minute * 60_000L + second * 1000L + millis, true);
+    }
+
+    /**
+     * 当月第一天零点，零点落在重叠区间时取较晚的一次，与 Calendar 一致
+     */
+    public long monthStart(long epochMillis) {
+        long civil = civilFromDays(epochDay(epochMillis));
+        return toEpochMillis(daysFromCivil(civil >> 9, (int) (civil >> 5) & 0xF, 1) * DAY_MILLIS, true);
+    }
+
+    /**
+     * 当月最后一天 23:59:59.999，落在重叠区间时取较晚的一次，与 Calendar 一致
+     */
+    public long monthEnd(long epochMillis) {
+        long civil = civilFromDays(epochDay(epochMillis));
+        long year = civil >> 9;
+        int month = (int) (civil >> 5) & 0xF;
+        long nextMonth = month == 12 ? daysFromCivil(year + 1, 1, 1) : daysFromCivil(year, month + 1, 1);
+        return toEpochMillis(nextMonth * DAY_MILLIS - 1, true);
+    }
+
+    /**
+     * 公历日期距 1970-01-01 的天数，见 Howard Hinnant 的 days_from_civil
+     */
+    static long daysFromCivil(long year, int month, int day) {
+        long y = month <= 2 ? year - 1 : year;
+        long era = Math.floorDiv(y, 400);
+        long yoe = y - era * 400;
+        long doy = (153L * (month > 2 ? month - 3 : month + 9) + 2) / 5 + day - 1;
+        long doe = yoe * 365 + yoe / 4 - yoe / 100 + doy;
+        return era * 146097 + doe - 719468;
+    }
+
+    /**
+     * 天数转公历日期，按 year << 9 | month << 5 | day 打包返回以避免分配对象，见 civil_from_days
+     */
+    static long civilFromDays(long epochDay) {
+        long z = epochDay + 719468;
+        long era = Math.floorDiv(z, 146097);
+        long doe = z - era * 146097;
+        long yoe = (doe - doe / 1460 + doe / 36524 - doe / 146096) / 365;
+        long doy = doe - (365 * yoe + yoe / 4 - yoe / 100);
+        long mp = (5 * doy + 2) / 153;
+        long day = doy - (153 * mp + 2) / 5 + 1;
+        long month = mp < 10 ? mp + 3 : mp - 9;
+        long year = yoe + era * 400 + (month <= 2 ? 1 : 0);
+        return year << 9 | month << 5 | day;
+    }
+
+    private static final class DefaultZone {
+        private final String id;
+        private final ZoneOffsetTable table;
+
+        private DefaultZone(TimeZone zone) {
+            this.id = zone.getID();
+            this.table = of(zone.toZoneId());
+        }
+    }
+
+    /**
+     * 不大于 key 的元素个数
+     */
+    private static int upperBound(long[] sorted, long key) {
+        int low = 0;
+        int high = sorted.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] <= key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,105 @@
+package com.jw.common.config;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.RequestMappingHandlerAdapter;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Smile 请求和响应都经过 Spring Boot 配置的 Jackson(这里用 snake_case 命名策略区分默认配置)
+ */
+@WebMvcTest
+@TestPropertySource(properties = "spring.jackson.property-naming-strategy=SNAKE_CASE")
+class SmileMessageConverterConfigTest {
+    private static final String SMILE = "application/x-jackson-smile";
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(new SmileFactory());
+
+    @Autowired
+    private MockMvc mockMvc;
+    @Autowired
+    private RequestMappingHandlerAdapter handlerAdapter;
+
+    @Test
+    void smileUsesBootConfiguredMapper() throws Exception {
+        byte[] body = SMILE_MAPPER.writeValueAsBytes(SMILE_MAPPER.createObjectNode().put("user_name", "jw"));
+        MvcResult result = mockMvc.perform(post("/echo").contentType(SMILE).accept(SMILE).content(body))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(SMILE))
+                .andReturn();
+        JsonNode echoed = SMILE_MAPPER.readTree(result.getResponse().getContentAsByteArray());
+        assertEquals("jw", echoed.path("user_name").asText());
+        assertEquals("JW", echoed.path("upper_name").asText());
+    }
+
+    @Test
+    void jsonIsStillTheDefault() throws Exception {
+        mockMvc.perform(post("/echo").contentType("application/json").content("{\"user_name\":\"jw\"}"))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith("application/json"))
+                .andExpect(content().json("{\"user_name\":\"jw\",\"upper_name\":\"JW\"}"));
+    }
+
+    @Test
+    void defaultSmileConverterIsReplacedInPlace() {
+        List<HttpMessageConverter<?>> smile = handlerAdapter.getMessageConverters().stream()
+                .filter(c -> c instanceof MappingJackson2SmileHttpMessageConverter)
+                .collect(Collectors.toList());
+        assertEquals(1, smile.size());
+    }
+
+    @Configuration
+    @Import({SmileMessageConverterConfig.class, EchoController.class})
+    static class TestConfig {
+    }
+
+    @RestController
+    static class EchoController {
+        @PostMapping("/echo")
+        Greeting echo(@RequestBody Greeting greeting) {
+            greeting.setUpperName(greeting.getUserName().toUpperCase());
+            return greeting;
+        }
+    }
+
+    public static class Greeting {
+        private String userName;
+        private String upperName;
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public String getUpperName() {
+            return upperName;
+        }
+
+        public void setUpperName(String upperName) {
+            this.upperName = upperName;
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.jw.common.filter;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.ServletRequest;
+import javax.servlet.http.HttpServletRequest;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class GzipRequestFilterTest {
+    private static final byte[] JSON = "{\"name\":\"中文\",\"items\":[1,2,3]}".getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void inflatesBodyAndHidesEncoding() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        new GzipRequestFilter().doFilter(gzipRequest(gzip(JSON)), new MockHttpServletResponse(), chain);
+
+        HttpServletRequest request = (HttpServletRequest) chain.getRequest();
+        assertNull(request.getHeader("Content-Encoding"));
+        assertFalse(Collections.list(request.getHeaderNames()).contains("Content-Encoding"));
+        assertEquals(JSON.length, request.getContentLength());
+        assertEquals(String.valueOf(JSON.length), request.getHeader("Content-Length"));
+        assertArrayEquals(JSON, readAll(request.getInputStream()));
+    }
+
+    @Test
+    void oversizedBodyIsRejectedWith413() throws Exception {
+        //约 20KB 的压缩数据解压后为 16MB
+        byte[] bomb = gzip(new byte[16 * 1024 * 1024]);
+        assertTrue(bomb.length < 64 * 1024);
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new GzipRequestFilter(1024 * 1024).doFilter(gzipRequest(bomb), response, chain);
+
+        assertEquals(413, response.getStatus());
+        assertNull(chain.getRequest());
+        //默认上限同样拦截
+        response = new MockHttpServletResponse();
+        new GzipRequestFilter().doFilter(gzipRequest(bomb), response, new MockFilterChain());
+        assertEquals(413, response.getStatus());
+    }
+
+    @Test
+    void bodyAtLimitIsAccepted() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        new GzipRequestFilter(JSON.length).doFilter(gzipRequest(gzip(JSON)), response, chain);
+        assertEquals(200, response.getStatus());
+        assertArrayEquals(JSON, readAll(chain.getRequest().getInputStream()));
+    }
+
+    @Test
+    void malformedGzipIsRejectedWith400() throws Exception {
+        byte[] truncated = gzip(JSON);
+        truncated = Arrays.copyOf(truncated, truncated.length / 2);
+        for (byte[] body : new byte[][]{JSON, truncated}) {
+            MockFilterChain chain = new MockFilterChain();
+            MockHttpServletResponse response = new MockHttpServletResponse();
+            new GzipRequestFilter().doFilter(gzipRequest(body), response, chain);
+            assertEquals(400, response.getStatus());
+            assertNull(chain.getRequest());
+        }
+    }
+
+    @Test
+    void plainRequestPassesThrough() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api");
+        request.setContent(JSON);
+        MockFilterChain chain = new MockFilterChain();
+        new GzipRequestFilter().doFilter(request, new MockHttpServletResponse(), chain);
+        assertSame(request, chain.getRequest());
+    }
+
+    @Test
+    void readListenerReceivesInflatedBody() throws Exception {
+        MockFilterChain chain = new MockFilterChain();
+        new GzipRequestFilter().doFilter(gzipRequest(gzip(JSON)), new MockHttpServletResponse(), chain);
+        ServletRequest request = chain.getRequest();
+        ServletInputStream in = request.getInputStream();
+        ByteArrayOutputStream received = new ByteArrayOutputStream();
+        boolean[] allRead = {false};
+        in.setReadListener(new ReadListener() {
+            @Override
+            public void onDataAvailable() throws IOException {
+                byte[] buffer = new byte[7];
+                while (in.isReady() && !in.isFinished()) {
+                    int n = in.read(buffer);
+                    if (n > 0) {
+                        received.write(buffer, 0, n);
+                    }
+                }
+            }
+
+            @Override
+            public void onAllDataRead() {
+                allRead[0] = true;
+            }
+
+            @Override
+            public void onError(Throwable t) {
+                throw new AssertionError(t);
+            }
+        });
+        assertTrue(allRead[0]);
+        assertArrayEquals(JSON, received.toByteArray());
+    }
+
+    @Test
+    void rejectsInvalidLimit() {
+        assertThrows(IllegalArgumentException.class, () -> new GzipRequestFilter(0));
+    }
+
+    private static MockHttpServletRequest gzipRequest(byte[] body) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api");
+        request.addHeader("Content-Encoding", "gzip");
+        request.addHeader("Content-Length", body.length);
+        request.setContentType("application/json");
+        request.setContent(body);
+        return request;
+    }
+
+    static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] readAll(ServletInputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+}
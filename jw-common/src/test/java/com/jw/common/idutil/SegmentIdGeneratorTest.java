@@ -0,0 +1,166 @@
+package com.jw.common.idutil;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 在 H2 内存库上验证号段领取、预取切换、多节点和重启
+ */
+class SegmentIdGeneratorTest {
+    private static final AtomicInteger DATABASE_ID = new AtomicInteger();
+
+    private JdbcDataSource dataSource;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        dataSource = new JdbcDataSource();
+        //每个用例一个独立的内存库，连接全部关闭后保留到 JVM 退出
+        dataSource.setURL("jdbc:h2:mem:segment" + DATABASE_ID.incrementAndGet() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE id_segment (biz_tag VARCHAR(64) PRIMARY KEY, max_id BIGINT NOT NULL)");
+        }
+    }
+
+    @Test
+    void concurrentIdsAreCompactAndUnique() throws Exception {
+        int threads = 8;
+        int perThread = 20_000;
+        SegmentIdGenerator generator = new SegmentIdGenerator(dataSource, config(100, 0.2));
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            SegmentIdGenerator.Sequence sequence = generator.sequence("order");
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<long[]>> futures = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    long[] ids = new long[perThread];
+                    for (int i = 0; i < perThread; i++) {
+                        ids[i] = sequence.nextId();
+                    }
+                    return ids;
+                }));
+            }
+            start.countDown();
+            boolean[] seen = new boolean[threads * perThread + 1];
+            for (Future<long[]> future : futures) {
+                long previous = 0;
+                for (long id : future.get(60, TimeUnit.SECONDS)) {
+                    //单个节点内从1开始连续发号，没有空洞也没有重复
+                    assertTrue(id >= 1 && id < seen.length && !seen[(int) id], "id " + id);
+                    seen[(int) id] = true;
+                    assertTrue(id > previous);
+                    previous = id;
+                }
+            }
+        } finally {
+            pool.shutdownNow();
+            generator.close();
+        }
+    }
+
+    @Test
+    void batchSpansSegmentsInOrder() {
+        SegmentIdGenerator generator = new SegmentIdGenerator(dataSource, config(10, 0.5));
+        long[] expected = new long[25];
+        for (int i = 0; i < expected.length; i++) {
+            expected[i] = i + 1;
+        }
+        assertArrayEquals(expected, generator.nextIds("batch", 25));
+        assertEquals(26, generator.nextId("batch"));
+        assertEquals(0, generator.nextIds("batch", 0).length);
+        assertThrows(IllegalArgumentException.class, () -> generator.nextIds("batch", -1));
+        //不同标识互不影响
+        assertEquals(1, generator.nextId("other"));
+        generator.close();
+    }
+
+    @Test
+    void nodesSharingTableNeverOverlapAndRestartSkipsAhead() throws Exception {
+        int nodes = 4;
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        List<SegmentIdGenerator> generators = new ArrayList<>();
+        ExecutorService pool = Executors.newFixedThreadPool(nodes);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            for (int n = 0; n < nodes; n++) {
+                //各节点同时首次使用同一个新标识，插入冲突后重新领取
+                SegmentIdGenerator generator = new SegmentIdGenerator(dataSource, config(50, 0.3));
+                generators.add(generator);
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 5_000; i++) {
+                        assertTrue(ids.add(generator.nextId("shared")));
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+            generators.forEach(SegmentIdGenerator::close);
+        }
+        assertEquals(nodes * 5_000, ids.size());
+        long max = ids.stream().mapToLong(Long::longValue).max().getAsLong();
+        //重启后未用完的号段作废，从数据库中的 max_id 之后继续
+        SegmentIdGenerator restarted = new SegmentIdGenerator(dataSource, config(50, 0.3));
+        assertTrue(restarted.nextId("shared") > max);
+        restarted.close();
+    }
+
+    @Test
+    void closedGeneratorAllocatesSynchronously() {
+        SegmentIdGenerator generator = new SegmentIdGenerator(dataSource, config(5, 0.2));
+        generator.close();
+        for (long expected = 1; expected <= 23; expected++) {
+            assertEquals(expected, generator.nextId("closed"));
+        }
+    }
+
+    @Test
+    void missingTableFailsWithIllegalState() {
+        SegmentIdConfig config = config(10, 0.2);
+        config.setTable("no_such_table");
+        SegmentIdGenerator generator = new SegmentIdGenerator(dataSource, config);
+        assertThrows(IllegalStateException.class, () -> generator.nextId("x"));
+        generator.close();
+    }
+
+    @Test
+    void rejectsInvalidConfig() {
+        assertThrows(IllegalArgumentException.class, () -> new SegmentIdGenerator(dataSource, config(0, 0.2)));
+        assertThrows(IllegalArgumentException.class, () -> new SegmentIdGenerator(dataSource, config(10, 1)));
+        assertThrows(IllegalArgumentException.class, () -> new SegmentIdGenerator(dataSource, config(10, -0.1)));
+    }
+
+    private static SegmentIdConfig config(int step, double prefetchRatio) {
+        SegmentIdConfig config = new SegmentIdConfig();
+        config.setStep(step);
+        config.setPrefetchRatio(prefetchRatio);
+        return config;
+    }
+}
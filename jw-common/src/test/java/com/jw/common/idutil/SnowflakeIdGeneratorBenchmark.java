@@ -0,0 +1,64 @@
+package com.jw.common.idutil;
+
+import cn.hutool.core.lang.Snowflake;
+import cn.hutool.core.util.IdUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 多线程共用一个生成器时，CAS 的 SnowflakeIdGenerator 与 hutool Snowflake(synchronized)的吞吐量对比
+ * legacySnowflakeId 照搬替换前 IdGenerateUtils.snowflakeId：外层再加一次 synchronized；默认 4 个线程，可用 -t 调整
+ * 单个工作节点每毫秒最多 4096 个ID，work 为 0 时两者都触到这个上限；work 模拟两次发号之间的业务计算，此时比较的是上限之下的竞争开销
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(1)
+public class SnowflakeIdGeneratorBenchmark {
+    private final SnowflakeIdGenerator generator = new SnowflakeIdGenerator(1, 1);
+    private final Snowflake hutool = IdUtil.createSnowflake(1, 1);
+
+    @Param({"0", "200"})
+    private long work;
+
+    @Benchmark
+    public long nextId() {
+        Blackhole.consumeCPU(work);
+        return generator.nextId();
+    }
+
+    @Benchmark
+    public long hutoolNextId() {
+        Blackhole.consumeCPU(work);
+        return hutool.nextId();
+    }
+
+    @Benchmark
+    public String snowflakeId() {
+        Blackhole.consumeCPU(work);
+        return generator.nextIdStr();
+    }
+
+    @Benchmark
+    public String legacySnowflakeId() {
+        Blackhole.consumeCPU(work);
+        synchronized (this) {
+            return hutool.nextIdStr();
+        }
+    }
+}
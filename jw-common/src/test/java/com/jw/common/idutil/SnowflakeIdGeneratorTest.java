@@ -0,0 +1,220 @@
+package com.jw.common.idutil;
+
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 多个节点共用一个文件登记中心发号，包括租约被接管的情况，断言ID不重复
+ */
+class SnowflakeIdGeneratorTest {
+    private static final int NODES = 4;
+    private static final int THREADS_PER_NODE = 4;
+    private static final int IDS_PER_THREAD = 50_000;
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void nodesOnSharedRegistryNeverRepeatIds() throws Exception {
+        FileWorkerIdRegistry registry = new FileWorkerIdRegistry(dir.resolve("worker-ids"));
+        List<WorkerIdAllocator> allocators = new ArrayList<>();
+        Set<Integer> workerIds = new HashSet<>();
+        ExecutorService pool = Executors.newFixedThreadPool(NODES * THREADS_PER_NODE);
+        try {
+            List<Future<long[]>> futures = new ArrayList<>();
+            CountDownLatch start = new CountDownLatch(1);
+            for (int node = 0; node < NODES; node++) {
+                WorkerIdAllocator allocator = new WorkerIdAllocator(registry, "node-" + node, 2_000);
+                allocators.add(allocator);
+                assertTrue(workerIds.add(allocator.getWorkerId()));
+                SnowflakeIdGenerator generator = new SnowflakeIdGenerator(allocator);
+                for (int t = 0; t < THREADS_PER_NODE; t++) {
+                    futures.add(pool.submit(() -> {
+                        start.await();
+                        long[] ids = new long[IDS_PER_THREAD];
+                        for (int i = 0; i < ids.length; i++) {
+                            ids[i] = generator.nextId();
+                        }
+                        return ids;
+                    }));
+                }
+            }
+            start.countDown();
+            Set<Long> seen = new HashSet<>(NODES * THREADS_PER_NODE * IDS_PER_THREAD * 2);
+            for (Future<long[]> future : futures) {
+                long previous = Long.MIN_VALUE;
+                for (long id : future.get(60, TimeUnit.SECONDS)) {
+                    assertTrue(seen.add(id), "duplicate id " + id);
+                    //同一线程内严格递增
+                    assertTrue(id > previous);
+                    previous = id;
+                }
+            }
+            assertEquals(NODES * THREADS_PER_NODE * IDS_PER_THREAD, seen.size());
+        } finally {
+            pool.shutdownNow();
+            for (WorkerIdAllocator allocator : allocators) {
+                allocator.close();
+            }
+        }
+    }
+
+    @Test
+    void takenOverLeaseStopsOldNodeBeforeNewNodeStarts() throws Exception {
+        FlakyRegistry registry = new FlakyRegistry(new FileWorkerIdRegistry(dir.resolve("worker-ids")));
+        WorkerIdAllocator old = new WorkerIdAllocator(registry, "old", 400);
+        SnowflakeIdGenerator oldGenerator = new SnowflakeIdGenerator(old);
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        //老节点续约失败(如网络分区)，但仍在不停发号，直到本地有效期过后被拒绝
+        registry.failRenewOf.add("old");
+        Thread producer = new Thread(() -> {
+            try {
+                for (; ; ) {
+                    ids.add(oldGenerator.nextId());
+                }
+            } catch (IllegalStateException e) {
+                //租约过期
+            }
+        });
+        producer.start();
+        WorkerIdAllocator taker = null;
+        try {
+            //等登记中心的租约过期后由新节点接管同一个ID
+            Thread.sleep(450);
+            taker = new WorkerIdAllocator(registry, "taker", 400);
+            assertEquals(old.getWorkerId(), taker.getWorkerId());
+            producer.join(1_000);
+            assertTrue(!producer.isAlive());
+            assertThrows(IllegalStateException.class, oldGenerator::nextId);
+
+            SnowflakeIdGenerator takerGenerator = new SnowflakeIdGenerator(taker);
+            int before = ids.size();
+            for (int i = 0; i < 100_000; i++) {
+                assertTrue(ids.add(takerGenerator.nextId()));
+            }
+            assertEquals(before + 100_000, ids.size());
+        } finally {
+            producer.interrupt();
+            old.close();
+            if (taker != null) {
+                taker.close();
+            }
+        }
+    }
+
+    @Test
+    void releasedIdIsReusedWithoutRepeats() throws Exception {
+        FileWorkerIdRegistry registry = new FileWorkerIdRegistry(dir.resolve("worker-ids"));
+        Set<Long> ids = new HashSet<>();
+        int workerId = -1;
+        for (int round = 0; round < 5; round++) {
+            WorkerIdAllocator allocator = new WorkerIdAllocator(registry, "node-" + round, 2_000);
+            if (workerId >= 0) {
+                assertEquals(workerId, allocator.getWorkerId());
+            }
+            workerId = allocator.getWorkerId();
+            SnowflakeIdGenerator generator = new SnowflakeIdGenerator(allocator);
+            //每轮都用满序列号，借用后续的毫秒
+            for (int i = 0; i < 20_000; i++) {
+                assertTrue(ids.add(generator.nextId()));
+            }
+            allocator.close();
+        }
+    }
+
+    @Test
+    void registriesNeverLeaseHolderDefaultId() throws Exception {
+        assertEquals(WorkerIdRegistry.LEGACY_WORKER_ID, SnowflakeIdGenerator.workerIdOf(SnowFlakeHolder.nextId()));
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:worker-ids;DB_CLOSE_DELAY=-1");
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE worker_id_lease (worker_id INT PRIMARY KEY, owner VARCHAR(64) NOT NULL, "
+                    + "expire_at BIGINT NOT NULL)");
+        }
+        WorkerIdRegistry[] registries = {new FileWorkerIdRegistry(dir.resolve("worker-ids")),
+                new JdbcWorkerIdRegistry(dataSource)};
+        for (WorkerIdRegistry registry : registries) {
+            Set<Integer> leased = new HashSet<>();
+            for (int i = 0; i < 64; i++) {
+                leased.add(registry.acquire("node-" + i, 60_000).getWorkerId());
+            }
+            assertEquals(64, leased.size());
+            assertFalse(leased.contains(WorkerIdRegistry.LEGACY_WORKER_ID), registry.getClass().getSimpleName());
+            assertTrue(leased.contains(WorkerIdRegistry.LEGACY_WORKER_ID + 1));
+        }
+    }
+
+    @Test
+    void borrowedTimeIsCapped() {
+        SnowflakeIdGenerator generator = new SnowflakeIdGenerator(7);
+        long previous = 0;
+        for (int i = 0; i < 1_000_000; i++) {
+            long id = generator.nextId();
+            assertTrue(id > previous);
+            previous = id;
+            assertTrue(SnowflakeIdGenerator.timestampOf(id)
+                    <= System.currentTimeMillis() + SnowflakeIdGenerator.MAX_DRIFT_MILLIS);
+            assertEquals(7, SnowflakeIdGenerator.workerIdOf(id));
+        }
+    }
+
+    @Test
+    void matchesHutoolLayout() {
+        long id = new SnowflakeIdGenerator(3, 5).nextId();
+        assertEquals(5 << 5 | 3, SnowflakeIdGenerator.workerIdOf(id));
+        assertNotEquals(0, id);
+        assertTrue(Math.abs(SnowflakeIdGenerator.timestampOf(id) - System.currentTimeMillis()) < 1_000);
+    }
+
+    /**
+     * 可以让指定节点续约失败的登记中心
+     */
+    private static final class FlakyRegistry implements WorkerIdRegistry {
+        private final WorkerIdRegistry delegate;
+        private final Set<String> failRenewOf = ConcurrentHashMap.newKeySet();
+
+        private FlakyRegistry(WorkerIdRegistry delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public WorkerIdLease acquire(String owner, long ttlMillis) throws IOException {
+            return delegate.acquire(owner, ttlMillis);
+        }
+
+        @Override
+        public WorkerIdLease renew(WorkerIdLease lease, long ttlMillis) throws IOException {
+            if (failRenewOf.contains(lease.getOwner())) {
+                throw new IOException("registry unreachable");
+            }
+            return delegate.renew(lease, ttlMillis);
+        }
+
+        @Override
+        public void release(WorkerIdLease lease) throws IOException {
+            delegate.release(lease);
+        }
+    }
+}
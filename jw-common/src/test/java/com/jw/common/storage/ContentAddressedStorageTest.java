@@ -0,0 +1,123 @@
+package com.jw.common.storage;
+
+import org.apache.commons.codec.digest.DigestUtils;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ContentAddressedStorageTest {
+    private static final byte[] CONTENT = "hello content addressed storage".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void multipartFileIsReadOnce() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(dir.resolve("objects"));
+        ContentAddressedStorage cas = new ContentAddressedStorage(storage, null, "images", null, 100);
+        CountingFile file = new CountingFile("photo.png", CONTENT);
+
+        String key = cas.store(file);
+        assertEquals("images/" + DigestUtils.sha256Hex(CONTENT).substring(0, 2) + "/"
+                + DigestUtils.sha256Hex(CONTENT) + ".png", key);
+        assertEquals(1, file.reads.get());
+        try (InputStream in = storage.getObject(key)) {
+            assertArrayEquals(CONTENT, readAll(in));
+        }
+        assertEquals(key, cas.store(CONTENT, "png", "image/png"));
+        assertEquals(key, cas.store(new ByteArrayInputStream(CONTENT), "png", "image/png"));
+    }
+
+    @Test
+    void indexSurvivesRestart() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(dir.resolve("objects"));
+        Path index = dir.resolve("index");
+        String key = new ContentAddressedStorage(storage, null, null, index, 100).store(CONTENT, "txt", "text/plain");
+        ContentAddressedStorage restarted = new ContentAddressedStorage(storage, null, null, index, 100);
+        assertEquals(1, restarted.indexSize());
+        assertEquals(key, restarted.store(CONTENT, "txt", "text/plain"));
+    }
+
+    @Test
+    void forgetSurvivesRestart() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(dir.resolve("objects"));
+        Path index = dir.resolve("index");
+        ContentAddressedStorage cas = new ContentAddressedStorage(storage, null, null, index, 100);
+        String key = cas.store(CONTENT, "txt", "text/plain");
+        String other = cas.store("other".getBytes(StandardCharsets.UTF_8), "txt", "text/plain");
+        storage.deleteObject(key);
+        cas.forget(DigestUtils.sha256Hex(CONTENT));
+
+        ContentAddressedStorage restarted = new ContentAddressedStorage(storage, null, null, index, 100);
+        assertEquals(1, restarted.indexSize());
+        //对象被删除后重新上传，而不是返回已删除的 key
+        assertEquals(key, restarted.store(CONTENT, "txt", "text/plain"));
+        assertTrue(storage.exists(key));
+        assertEquals(other, restarted.store("other".getBytes(StandardCharsets.UTF_8), "txt", "text/plain"));
+    }
+
+    @Test
+    void compactionDropsForgottenEntries() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(dir.resolve("objects"));
+        Path index = dir.resolve("index");
+        ContentAddressedStorage cas = new ContentAddressedStorage(storage, null, null, index, 2);
+        String kept = DigestUtils.sha256Hex("kept");
+        cas.store("kept".getBytes(StandardCharsets.UTF_8), null, null);
+        for (int i = 0; i < 5; i++) {
+            String hash = DigestUtils.sha256Hex("forgotten" + i);
+            cas.store(("forgotten" + i).getBytes(StandardCharsets.UTF_8), null, null);
+            cas.forget(hash);
+        }
+        List<String> lines = Files.readAllLines(index, StandardCharsets.UTF_8);
+        assertTrue(lines.size() <= 5, lines.toString());
+        ContentAddressedStorage restarted = new ContentAddressedStorage(storage, null, null, index, 2);
+        assertEquals(1, restarted.indexSize());
+        assertEquals(kept.substring(0, 2) + "/" + kept, restarted.store("kept".getBytes(StandardCharsets.UTF_8), null, null));
+    }
+
+    @Test
+    void rejectsNonPositiveMaxEntries() throws IOException {
+        LocalObjectStorage storage = new LocalObjectStorage(dir.resolve("objects"));
+        assertThrows(IllegalArgumentException.class, () -> new ContentAddressedStorage(storage, null, null, null, 0));
+        assertThrows(IllegalArgumentException.class, () -> new ContentAddressedStorage(storage, null, null, null, -1));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        byte[] buffer = new byte[1024];
+        int n;
+        while ((n = in.read(buffer)) != -1) {
+            out.write(buffer, 0, n);
+        }
+        return out.toByteArray();
+    }
+
+    private static final class CountingFile extends MockMultipartFile {
+        private final AtomicInteger reads = new AtomicInteger();
+
+        private CountingFile(String filename, byte[] content) {
+            super("file", filename, "image/png", content);
+        }
+
+        @Override
+        public InputStream getInputStream() throws IOException {
+            reads.incrementAndGet();
+            return super.getInputStream();
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.jw.common.storage;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * 分片上传吞吐量随分片大小和并发数的变化，每次上传 32MB
+ * 结果为每秒上传次数，乘以 32 即 MB/s；latencyMillis 模拟每个分片请求的网络往返
+ * 运行：mvn test-compile 后以测试 classpath 执行 org.openjdk.jmh.Main MultipartUploaderBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 3)
+@Fork(1)
+public class MultipartUploaderBenchmark {
+    private static final int SIZE = 32 * 1024 * 1024;
+
+    @Param({"1048576", "4194304", "8388608"})
+    private int partSize;
+    @Param({"1", "4", "8"})
+    private int concurrency;
+    @Param({"0", "20"})
+    private long latencyMillis;
+
+    private byte[] content;
+    private Path root;
+    private MultipartUploader uploader;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        content = new byte[SIZE];
+        new Random(1).nextBytes(content);
+        root = Files.createTempDirectory("upload-benchmark");
+        MultipartUploadConfig config = new MultipartUploadConfig();
+        config.setPartSize(partSize);
+        config.setConcurrency(concurrency);
+        uploader = new MultipartUploader(new SlowStorage(root, latencyMillis), config);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        uploader.close();
+        try (Stream<Path> paths = Files.walk(root)) {
+            paths.sorted(Comparator.reverseOrder()).forEach(path -> path.toFile().delete());
+        }
+    }
+
+    @Benchmark
+    public long upload() throws IOException {
+        return uploader.upload("benchmark.bin", new ByteArrayInputStream(content), null);
+    }
+
+    /**
+     * 每个分片请求前固定等待，近似远端存储的往返延迟
+     */
+    private static final class SlowStorage extends LocalObjectStorage {
+        private final long latencyMillis;
+
+        private SlowStorage(Path root, long latencyMillis) throws IOException {
+            super(root);
+            this.latencyMillis = latencyMillis;
+        }
+
+        @Override
+        public UploadedPart uploadPart(String key, String uploadId, int partNumber, byte[] data, int offset,
+                                       int length) throws IOException {
+            if (latencyMillis > 0) {
+                try {
+                    Thread.sleep(latencyMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException();
+                }
+            }
+            return super.uploadPart(key, uploadId, partNumber, data, offset, length);
+        }
+    }
+}
@@ -0,0 +1,275 @@
+package com.jw.common.storage;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 针对 LocalObjectStorage 的分片上传、重试、取消和断点续传
+ */
+class MultipartUploaderTest {
+    private static final int PART_SIZE = 1024;
+
+    @TempDir
+    Path dir;
+    private FlakyStorage storage;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        storage = new FlakyStorage(new LocalObjectStorage(dir.resolve("objects")));
+    }
+
+    @Test
+    void smallContentIsPutInOneRequest() throws IOException {
+        byte[] content = content(PART_SIZE - 1, 1);
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(2, 0))) {
+            assertEquals(content.length, uploader.upload("small.bin", new ByteArrayInputStream(content), null));
+        }
+        assertArrayEquals(content, read("small.bin"));
+        assertEquals(0, storage.totalCalls());
+    }
+
+    @Test
+    void partsAreUploadedConcurrentlyAndJoinedInOrder() throws IOException {
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(3, 0))) {
+            //非整数个分片和正好整数个分片
+            for (int size : new int[]{PART_SIZE * 10 + 321, PART_SIZE * 4}) {
+                byte[] content = content(size, size);
+                assertEquals(size, uploader.upload("big-" + size, new ByteArrayInputStream(content), null));
+                assertArrayEquals(content, read("big-" + size));
+            }
+        }
+        assertNoPendingUploads();
+    }
+
+    @Test
+    void failedPartIsRetried() throws IOException {
+        byte[] content = content(PART_SIZE * 5, 2);
+        storage.failures.put(3, new AtomicInteger(2));
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(2, 3))) {
+            uploader.upload("retried.bin", new ByteArrayInputStream(content), null);
+        }
+        assertArrayEquals(content, read("retried.bin"));
+        assertEquals(3, storage.calls(3));
+        assertEquals(1, storage.calls(4));
+    }
+
+    @Test
+    void failureWithoutCheckpointAbortsUpload() throws IOException {
+        byte[] content = content(PART_SIZE * 8, 3);
+        storage.failures.put(2, new AtomicInteger(Integer.MAX_VALUE));
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(2, 1))) {
+            assertThrows(IOException.class, () -> uploader.upload("aborted.bin", new ByteArrayInputStream(content), null));
+        }
+        assertFalse(storage.exists("aborted.bin"));
+        assertNoPendingUploads();
+    }
+
+    @Test
+    void abortWaitsForPartsInFlight() throws IOException {
+        byte[] content = content(PART_SIZE * 6, 6);
+        //第 1 片慢，第 2 片立即失败，取消时第 1 片仍在写入
+        storage.delays.put(1, 300L);
+        storage.failures.put(2, new AtomicInteger(Integer.MAX_VALUE));
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(2, 0))) {
+            assertThrows(IOException.class, () -> uploader.upload("raced.bin", new ByteArrayInputStream(content), null));
+        }
+        assertEquals(1, storage.aborts.get());
+        assertEquals(0, storage.inFlightAtAbort.get());
+        assertFalse(storage.exists("raced.bin"));
+        assertNoPendingUploads();
+    }
+
+    @Test
+    void checkpointResumesWithoutReuploadingParts() throws IOException {
+        byte[] content = content(PART_SIZE * 6 + 100, 4);
+        Path checkpoint = dir.resolve("checkpoints/resumed.json");
+        storage.failures.put(4, new AtomicInteger(Integer.MAX_VALUE));
+        //单线程上传，失败时前 3 个分片已确定上传完成
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(1, 0))) {
+            assertThrows(IOException.class, () -> uploader.upload("resumed.bin", new ByteArrayInputStream(content), null,
+                    checkpoint));
+            assertTrue(Files.exists(checkpoint));
+            assertFalse(storage.exists("resumed.bin"));
+
+            storage.failures.clear();
+            storage.counts.clear();
+            //第 2 片内容变化，需要重新上传
+            content[PART_SIZE + 7] ^= 1;
+            assertEquals(content.length, uploader.upload("resumed.bin", new ByteArrayInputStream(content), null,
+                    checkpoint));
+        }
+        assertArrayEquals(content, read("resumed.bin"));
+        assertFalse(Files.exists(checkpoint));
+        assertEquals(0, storage.calls(1));
+        assertEquals(1, storage.calls(2));
+        assertEquals(0, storage.calls(3));
+        assertEquals(1, storage.calls(4));
+        assertNoPendingUploads();
+    }
+
+    @Test
+    void checkpointOfAnotherKeyIsIgnored() throws IOException {
+        byte[] content = content(PART_SIZE * 3, 5);
+        Path checkpoint = dir.resolve("shared.json");
+        storage.failures.put(2, new AtomicInteger(Integer.MAX_VALUE));
+        try (MultipartUploader uploader = new MultipartUploader(storage, config(1, 0))) {
+            assertThrows(IOException.class, () -> uploader.upload("first.bin", new ByteArrayInputStream(content), null,
+                    checkpoint));
+            storage.failures.clear();
+            uploader.upload("second.bin", new ByteArrayInputStream(content), null, checkpoint);
+        }
+        assertArrayEquals(content, read("second.bin"));
+        assertFalse(storage.exists("first.bin"));
+    }
+
+    private static MultipartUploadConfig config(int concurrency, int maxRetries) {
+        MultipartUploadConfig config = new MultipartUploadConfig();
+        config.setPartSize(PART_SIZE);
+        config.setConcurrency(concurrency);
+        config.setMaxRetries(maxRetries);
+        config.setRetryBackoff(1);
+        config.setRetryMaxBackoff(5);
+        return config;
+    }
+
+    private static byte[] content(int size, long seed) {
+        byte[] content = new byte[size];
+        new Random(seed).nextBytes(content);
+        return content;
+    }
+
+    private byte[] read(String key) throws IOException {
+        try (InputStream in = storage.getObject(key)) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+
+    private void assertNoPendingUploads() throws IOException {
+        Path multipart = dir.resolve("objects/.multipart");
+        if (Files.exists(multipart)) {
+            try (Stream<Path> uploads = Files.list(multipart)) {
+                assertEquals(0, uploads.count());
+            }
+        }
+    }
+
+    /**
+     * 可以让指定分片失败并统计各分片上传次数的存储
+     */
+    private static final class FlakyStorage implements ObjectStorage {
+        private final ObjectStorage delegate;
+        private final Map<Integer, AtomicInteger> failures = new ConcurrentHashMap<>();
+        private final Map<Integer, AtomicInteger> counts = new ConcurrentHashMap<>();
+        private final Map<Integer, Long> delays = new ConcurrentHashMap<>();
+        private final AtomicInteger inFlight = new AtomicInteger();
+        private final AtomicInteger inFlightAtAbort = new AtomicInteger(-1);
+        private final AtomicInteger aborts = new AtomicInteger();
+
+        private FlakyStorage(ObjectStorage delegate) {
+            this.delegate = delegate;
+        }
+
+        private int calls(int partNumber) {
+            AtomicInteger count = counts.get(partNumber);
+            return count == null ? 0 : count.get();
+        }
+
+        private int totalCalls() {
+            return counts.values().stream().mapToInt(AtomicInteger::get).sum();
+        }
+
+        @Override
+        public void putObject(String key, InputStream in, long length, String contentType) throws IOException {
+            delegate.putObject(key, in, length, contentType);
+        }
+
+        @Override
+        public InputStream getObject(String key) throws IOException {
+            return delegate.getObject(key);
+        }
+
+        @Override
+        public boolean exists(String key) throws IOException {
+            return delegate.exists(key);
+        }
+
+        @Override
+        public void deleteObject(String key) throws IOException {
+            delegate.deleteObject(key);
+        }
+
+        @Override
+        public String initiateMultipartUpload(String key, String contentType) throws IOException {
+            return delegate.initiateMultipartUpload(key, contentType);
+        }
+
+        @Override
+        public UploadedPart uploadPart(String key, String uploadId, int partNumber, byte[] data, int offset, int length)
+                throws IOException {
+            counts.computeIfAbsent(partNumber, n -> new AtomicInteger()).incrementAndGet();
+            inFlight.incrementAndGet();
+            try {
+                AtomicInteger remaining = failures.get(partNumber);
+                if (remaining != null && remaining.getAndDecrement() > 0) {
+                    throw new IOException("part " + partNumber + " failed");
+                }
+                Long delay = delays.get(partNumber);
+                if (delay != null) {
+                    try {
+                        Thread.sleep(delay);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new InterruptedIOException();
+                    }
+                }
+                return delegate.uploadPart(key, uploadId, partNumber, data, offset, length);
+            } finally {
+                inFlight.decrementAndGet();
+            }
+        }
+
+        @Override
+        public List<UploadedPart> listParts(String key, String uploadId) throws IOException {
+            return delegate.listParts(key, uploadId);
+        }
+
+        @Override
+        public void completeMultipartUpload(String key, String uploadId, List<UploadedPart> parts) throws IOException {
+            delegate.completeMultipartUpload(key, uploadId, parts);
+        }
+
+        @Override
+        public void abortMultipartUpload(String key, String uploadId) throws IOException {
+            aborts.incrementAndGet();
+            inFlightAtAbort.set(inFlight.get());
+            delegate.abortMultipartUpload(key, uploadId);
+        }
+    }
+}
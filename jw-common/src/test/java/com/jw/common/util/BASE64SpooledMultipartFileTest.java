@@ -0,0 +1,188 @@
+package com.jw.common.util;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+import java.util.Set;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 内存/临时文件两种形态下的读取、移动、复制，以及临时文件的清理
+ */
+class BASE64SpooledMultipartFileTest {
+    private static final byte[] CONTENT = content(20_000);
+    private static final String DATA_URI = "data:image/png;base64," + Base64.encodeBase64String(CONTENT);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void spillsOnlyAboveThreshold() throws IOException {
+        try (BASE64SpooledMultipartFile file = BASE64SpooledMultipartFile.of(DATA_URI, CONTENT.length)) {
+            assertFalse(file.isSpilled());
+            assertContent(file);
+        }
+        Set<Path> before = tempFiles();
+        try (BASE64SpooledMultipartFile file = BASE64SpooledMultipartFile.of(DATA_URI, CONTENT.length - 1)) {
+            assertTrue(file.isSpilled());
+            assertEquals(1, tempFiles().size() - before.size());
+            assertContent(file);
+        }
+    }
+
+    @Test
+    void getBytesReturnsCopy() throws IOException {
+        try (BASE64SpooledMultipartFile file = BASE64SpooledMultipartFile.of(DATA_URI)) {
+            assertFalse(file.isSpilled());
+            file.getBytes()[0] ^= 1;
+            assertArrayEquals(CONTENT, file.getBytes());
+        }
+    }
+
+    @Test
+    void transferToMovesTempFile() throws IOException {
+        Set<Path> before = tempFiles();
+        Path dest = dir.resolve("moved.png");
+        BASE64SpooledMultipartFile file = BASE64SpooledMultipartFile.of(DATA_URI, 0);
+        file.transferTo(dest);
+        assertArrayEquals(CONTENT, Files.readAllBytes(dest));
+        assertEquals(before, tempFiles());
+        assertThrows(IllegalStateException.class, file::getBytes);
+        assertThrows(IllegalStateException.class, file::getInputStream);
+        assertThrows(IllegalStateException.class, () -> file.transferTo(dir.resolve("again.png")));
+        //已移动的文件不受 close 影响
+        file.close();
+        assertTrue(Files.exists(dest));
+
+        //内存中的内容可以多次写出
+        try (BASE64SpooledMultipartFile memory = BASE64SpooledMultipartFile.of(DATA_URI)) {
+            memory.transferTo(dir.resolve("a.png").toFile());
+            memory.transferTo(dir.resolve("b.png"));
+            assertArrayEquals(CONTENT, Files.readAllBytes(dir.resolve("a.png")));
+            assertArrayEquals(CONTENT, Files.readAllBytes(dir.resolve("b.png")));
+        }
+    }
+
+    @Test
+    void closeDeletesTempFile() throws IOException {
+        Set<Path> before = tempFiles();
+        BASE64SpooledMultipartFile file = BASE64SpooledMultipartFile.of(DATA_URI, 0);
+        assertEquals(1, tempFiles().size() - before.size());
+        file.close();
+        assertEquals(before, tempFiles());
+        assertThrows(IllegalStateException.class, file::getBytes);
+        //重复关闭无影响
+        file.close();
+    }
+
+    @Test
+    void decodeFailureDeletesTempFile() throws IOException {
+        Set<Path> before = tempFiles();
+        String base64 = DATA_URI.substring(DATA_URI.indexOf(',') + 1);
+        //读到一半时失败，此时已有部分内容写入临时文件
+        CharSequence failing = new FailingSequence(base64, base64.length() / 2);
+        assertThrows(IllegalStateException.class,
+                () -> BASE64SpooledMultipartFile.of(failing, "data:image/png;base64", 0));
+        assertEquals(before, tempFiles());
+        assertThrows(IllegalArgumentException.class, () -> BASE64SpooledMultipartFile.of("no comma"));
+    }
+
+    @Test
+    void copyToCanBeRepeated() throws IOException {
+        for (long threshold : new long[]{0, CONTENT.length}) {
+            Path target = dir.resolve("copy-" + threshold);
+            try (BASE64SpooledMultipartFile file = BASE64SpooledMultipartFile.of(DATA_URI, threshold);
+                 FileChannel channel = FileChannel.open(target, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+                file.copyTo(channel);
+                file.copyTo(channel);
+                //复制不移动临时文件
+                assertContent(file);
+            }
+            byte[] copied = Files.readAllBytes(target);
+            assertEquals(CONTENT.length * 2, copied.length);
+            for (int i = 0; i < copied.length; i++) {
+                assertEquals(CONTENT[i % CONTENT.length], copied[i]);
+            }
+        }
+    }
+
+    private static void assertContent(BASE64SpooledMultipartFile file) throws IOException {
+        assertEquals(CONTENT.length, file.getSize());
+        assertFalse(file.isEmpty());
+        assertEquals("image/png", file.getContentType());
+        assertTrue(file.getOriginalFilename().endsWith(".png"));
+        assertArrayEquals(CONTENT, file.getBytes());
+        try (InputStream in = file.getInputStream()) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = in.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            assertArrayEquals(CONTENT, out.toByteArray());
+        }
+    }
+
+    /**
+     * 系统临时目录下本类创建的临时文件
+     */
+    private static Set<Path> tempFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Paths.get(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(path -> path.getFileName().toString().startsWith("base64-")).collect(Collectors.toSet());
+        }
+    }
+
+    /**
+     * 顺序读取到指定位置时抛出异常的字符序列，末尾两个字符(计算解码长度时读取)不受影响
+     */
+    private static final class FailingSequence implements CharSequence {
+        private final String source;
+        private final int failAt;
+
+        private FailingSequence(String source, int failAt) {
+            this.source = source;
+            this.failAt = failAt;
+        }
+
+        @Override
+        public int length() {
+            return source.length();
+        }
+
+        @Override
+        public char charAt(int index) {
+            if (index >= failAt && index < source.length() - 2) {
+                throw new IllegalStateException("source failed at " + index);
+            }
+            return source.charAt(index);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            throw new UnsupportedOperationException();
+        }
+    }
+
+    private static byte[] content(int size) {
+        byte[] content = new byte[size];
+        new Random(21).nextBytes(content);
+        return content;
+    }
+}
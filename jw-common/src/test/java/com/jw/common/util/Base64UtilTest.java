@@ -0,0 +1,150 @@
+package com.jw.common.util;
+
+import org.apache.commons.codec.binary.Base64;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class Base64UtilTest {
+    private static final char[] MUTATIONS = "AZaz09+/=-_ \n.é".toCharArray();
+    /**
+     * 覆盖三种填充(0/1/2个'=')以及跨越 8K 缓冲区边界的长度
+     */
+    private static final int[] SIZES = {0, 1, 2, 3, 4, 5, 6143, 6144, 6145, 8191, 8192, 8193, 100_000, 100_001};
+
+    @Test
+    void isBase64MatchesDecodeAndReencode() {
+        Random random = new Random(20261017);
+        for (int i = 0; i < 200_000; i++) {
+            byte[] bytes = random.nextBoolean() ? randomText(random) : randomBytes(random);
+            char[] chars = Base64.encodeBase64String(bytes).toCharArray();
+            int mutations = random.nextInt(3);
+            for (int m = 0; m < mutations && chars.length > 0; m++) {
+                chars[random.nextInt(chars.length)] = MUTATIONS[random.nextInt(MUTATIONS.length)];
+            }
+            String base64 = new String(chars, 0, random.nextInt(8) == 0 ? random.nextInt(chars.length + 1) : chars.length);
+            assertEquals(oldIsBase64(base64), Base64Util.isBase64(base64), base64);
+        }
+    }
+
+    @Test
+    void edgeCases() {
+        assertFalse(Base64Util.isBase64(null));
+        assertFalse(Base64Util.isBase64(""));
+        assertFalse(Base64Util.isBase64("===="));
+        assertTrue(Base64Util.isBase64("5Lit5paH"));
+        assertTrue(Base64Util.isBase64("YQ=="));
+        //末尾未使用的位不为0
+        assertFalse(Base64Util.isBase64("YR=="));
+        //解出的字节不是合法的UTF-8(代理区、超长编码)
+        assertFalse(Base64Util.isBase64(Base64.encodeBase64String(new byte[]{(byte) 0xED, (byte) 0xA0, (byte) 0x80})));
+        assertFalse(Base64Util.isBase64(Base64.encodeBase64String(new byte[]{(byte) 0xC0, (byte) 0x80})));
+    }
+
+    @Test
+    void streamingEncodeMatchesCommonsCodec() throws IOException {
+        Random random = new Random(20);
+        for (int size : SIZES) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            long written = Base64Util.encode(new ByteArrayInputStream(bytes), out);
+            String expected = Base64.encodeBase64String(bytes);
+            assertEquals(expected, new String(out.toByteArray(), StandardCharsets.US_ASCII), "size " + size);
+            assertEquals(expected.length(), written);
+
+            ByteArrayOutputStream channel = new ByteArrayOutputStream();
+            Base64Util.encode(Channels.newChannel(new ByteArrayInputStream(bytes)), Channels.newChannel(channel));
+            assertArrayEquals(out.toByteArray(), channel.toByteArray());
+        }
+    }
+
+    @Test
+    void streamingDecodeRoundTrips() throws IOException {
+        Random random = new Random(21);
+        for (int size : SIZES) {
+            byte[] bytes = new byte[size];
+            random.nextBytes(bytes);
+            String padded = Base64.encodeBase64String(bytes);
+            String unpadded = padded.replace("=", "");
+            //带换行的 MIME 格式，换行被忽略
+            String chunked = new String(Base64.encodeBase64Chunked(bytes), StandardCharsets.US_ASCII);
+            for (CharSequence base64 : new CharSequence[]{padded, unpadded, new StringBuilder(padded), chunked}) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                assertEquals(size, Base64Util.decode(base64, out), "size " + size);
+                assertArrayEquals(bytes, out.toByteArray(), "size " + size);
+            }
+            assertEquals(size, Base64Util.decodedSize(padded), "size " + size);
+            assertEquals(size, Base64Util.decodedSize(unpadded), "size " + size);
+
+            ByteArrayOutputStream channel = new ByteArrayOutputStream();
+            assertEquals(size, Base64Util.decode(padded, Channels.newChannel(channel)));
+            assertArrayEquals(bytes, channel.toByteArray());
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            Base64Util.decode(new ByteArrayInputStream(chunked.getBytes(StandardCharsets.US_ASCII)), stream);
+            assertArrayEquals(bytes, stream.toByteArray());
+        }
+    }
+
+    @Test
+    void nonAsciiCharactersAreIgnoredWhenDecodingCharSequence() throws IOException {
+        byte[] bytes = "中文 base64".getBytes(StandardCharsets.UTF_8);
+        String base64 = Base64.encodeBase64String(bytes);
+        //非 ASCII 字符按空白处理，不会被截断成其他 base64 字符
+        String noisy = "é" + base64.substring(0, 4) + "\u4e2d" + base64.substring(4) + "\uff1d";
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Base64Util.decode(noisy, out);
+        assertArrayEquals(bytes, out.toByteArray());
+        assertEquals(0, Base64Util.decodedSize(""));
+        assertEquals(0, Base64Util.decode("", new ByteArrayOutputStream()));
+    }
+
+    /**
+     * 替换前的实现：按UTF-8解码再编码，与原字符串相同即为base64；原实现依赖默认字符集，这里固定为UTF-8
+     */
+    private static boolean oldIsBase64(String base64) {
+        if (base64 == null || base64.isEmpty()) {
+            return false;
+        }
+        String decoded;
+        try {
+            decoded = new String(Base64.decodeBase64(base64), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            //commons-codec 1.13 起末尾未使用的位不为0时抛出异常，原实现随之抛出
+            return false;
+        }
+        if (decoded.isEmpty()) {
+            //原实现在这里抛出 NullPointerException
+            return false;
+        }
+        String encoded = Base64.encodeBase64String(decoded.getBytes(StandardCharsets.UTF_8))
+                .replaceAll("[\\s*\t\n\r]", "");
+        return base64.equals(encoded);
+    }
+
+    private static byte[] randomText(Random random) {
+        StringBuilder text = new StringBuilder();
+        for (int i = random.nextInt(12); i > 0; i--) {
+            int kind = random.nextInt(4);
+            text.appendCodePoint(kind == 0 ? 0x20 + random.nextInt(0x5F) : kind == 1 ? 0x80 + random.nextInt(0x780)
+                    : kind == 2 ? 0x4E00 + random.nextInt(0x5000) : 0x1F600 + random.nextInt(0x50));
+        }
+        return text.toString().getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static byte[] randomBytes(Random random) {
+        byte[] bytes = new byte[random.nextInt(10)];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,126 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 经 CommonUtils 的枚举 code 查找和父类泛型解析
+ */
+class ClassMetadataTest {
+
+    @Test
+    void enumLookupByCode() {
+        assertEquals(1, CommonUtils.getEnumCode(Status.ACTIVE));
+        assertSame(Status.ACTIVE, CommonUtils.getEnumByCode(Status.class, 1));
+        //带方法体的常量是枚举的匿名子类
+        assertEquals(2, CommonUtils.getEnumCode(Status.FROZEN));
+        assertSame(Status.FROZEN, CommonUtils.getEnumByCode(Status.class, 2));
+        assertSame(ClassMetadata.of(Status.class), ClassMetadata.of(Status.FROZEN));
+        //code 相同时取声明在前的常量
+        assertSame(Status.DELETED, CommonUtils.getEnumByCode(Status.class, 9));
+        assertEquals(9, CommonUtils.getEnumCode(Status.REMOVED));
+        assertNull(CommonUtils.getEnumCode(null));
+    }
+
+    @Test
+    void missingCodeReturnsNull() {
+        assertNull(CommonUtils.getEnumByCode(Status.class, 404));
+        assertNull(CommonUtils.getEnumByCode(Status.class, null));
+        //类型不一致时不相等
+        assertNull(CommonUtils.getEnumByCode(Status.class, 1L));
+        assertNull(CommonUtils.getEnumByCode(Status.class, "1"));
+
+        //没有 getCode 方法
+        assertFalse(ClassMetadata.of(Plain.class).hasCode());
+        assertNull(CommonUtils.getEnumCode(Plain.A));
+        assertNull(CommonUtils.getEnumByCode(Plain.class, "A"));
+
+        //getCode 抛出异常时视为没有 code
+        assertTrue(ClassMetadata.of(Broken.class).hasCode());
+        assertNull(CommonUtils.getEnumCode(Broken.X));
+        assertNull(CommonUtils.getEnumByCode(Broken.class, "x"));
+    }
+
+    @Test
+    void superClassGenericTypes() {
+        assertEquals(String.class, CommonUtils.getSuperClassGenericType(StringDao.class));
+        assertEquals(String.class, CommonUtils.getSuperClassGenericType(StringDao.class, 0));
+        assertEquals(Long.class, CommonUtils.getSuperClassGenericType(StringDao.class, 1));
+        //越界
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(StringDao.class, 2));
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(StringDao.class, -1));
+        //参数为参数化类型或类型变量
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(ListDao.class, 0));
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(GenericDao.class, 0));
+        assertEquals(Integer.class, CommonUtils.getSuperClassGenericType(GenericDao.class, 1));
+        //枚举的父类为 Enum<E>
+        assertEquals(Plain.class, CommonUtils.getSuperClassGenericType(Plain.class));
+    }
+
+    @Test
+    void classWithoutGenericSuperclass() {
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(ClassMetadataTest.class));
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(Object.class));
+        //父类是原始类型
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(RawDao.class));
+        assertEquals(Object.class, CommonUtils.getSuperClassGenericType(Runnable.class));
+    }
+
+    private enum Status {
+        ACTIVE(1),
+        FROZEN(2) {
+            @Override
+            public String toString() {
+                return "frozen";
+            }
+        },
+        DELETED(9),
+        REMOVED(9);
+
+        private final Integer code;
+
+        Status(Integer code) {
+            this.code = code;
+        }
+
+        public Integer getCode() {
+            return code;
+        }
+    }
+
+    private enum Plain {
+        A
+    }
+
+    private enum Broken {
+        X;
+
+        public String getCode() {
+            throw new IllegalStateException("no code");
+        }
+    }
+
+    private static class BaseDao<T, ID> {
+    }
+
+    private static class StringDao extends BaseDao<String, Long> {
+    }
+
+    private static class ListDao extends BaseDao<List<String>, Long> {
+    }
+
+    private static class GenericDao<T> extends BaseDao<T, Integer> {
+    }
+
+    @SuppressWarnings("rawtypes")
+    private static class RawDao extends ArrayList {
+    }
+}
@@ -0,0 +1,105 @@
+package com.jw.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * listConvert/listConvertMap/listConvertListMap 顺序执行与传入线程池的对比，用于确认并行的收益拐点
+ * 65536 恰好不超过并行阈值(传入线程池也顺序执行)，100000 起才拆分到线程池；legacyGroup 照搬替换前 putIfAbsent + get 的分组写法
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CommonUtilsBenchmark {
+    @Param({"1000", "10000", "65536", "100000", "1000000"})
+    private int size;
+
+    private List<Long> ids;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(17);
+        ids = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            ids.add(1_000_000_000_000L + random.nextInt(Integer.MAX_VALUE));
+        }
+        pool = new ForkJoinPool(Math.max(2, Runtime.getRuntime().availableProcessors()));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public List<String> convert() {
+        return CommonUtils.listConvert(ids, String::valueOf);
+    }
+
+    @Benchmark
+    public List<String> convertPool() {
+        return CommonUtils.listConvert(ids, String::valueOf, pool);
+    }
+
+    @Benchmark
+    public Map<Long, String> toMap() {
+        return CommonUtils.listConvertMap(ids, id -> id, String::valueOf);
+    }
+
+    @Benchmark
+    public Map<Long, String> toMapPool() {
+        return CommonUtils.listConvertMap(ids, id -> id, String::valueOf, pool);
+    }
+
+    @Benchmark
+    public Map<Long, List<Long>> group() {
+        return CommonUtils.listConvertListMap(ids, CommonUtilsBenchmark::bucket);
+    }
+
+    @Benchmark
+    public Map<Long, List<Long>> groupPool() {
+        return CommonUtils.listConvertListMap(ids, CommonUtilsBenchmark::bucket, id -> id, pool);
+    }
+
+    @Benchmark
+    public Map<Long, List<Long>> legacyGroup() {
+        Map<Long, List<Long>> map = new HashMap<>(ids.size());
+        Long key;
+        for (Long id : ids) {
+            key = bucket(id);
+            map.putIfAbsent(key, new ArrayList<>());
+            map.get(key).add(id);
+        }
+        return map;
+    }
+
+    /**
+     * 约 1024 个分组，类似按用户或店铺聚合订单
+     */
+    private static Long bucket(Long id) {
+        return id & 1023;
+    }
+}
@@ -0,0 +1,102 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CommonUtilsTest {
+    private static final int SIZE = ListConversions.PARALLEL_THRESHOLD * 3 + 17;
+    /**
+     * 替换前 isInteger / isNumeric 使用的正则
+     */
+    private static final Pattern PATTERN_INTEGER = Pattern.compile("^[-\\+]?[\\d]*$");
+    private static final Pattern PATTERN_NUMBER = Pattern.compile("-?[0-9]+.？[0-9]*");
+    private static final char[] NUMERIC_CHARS = "0123456789-+.？a \n\r\u0085\u2028１".toCharArray();
+
+    @Test
+    void conversionsRunOnCallerThreadByDefault() {
+        List<Integer> list = numbers(SIZE);
+        Set<Thread> threads = ConcurrentHashMap.newKeySet();
+        Function<Integer, Integer> record = i -> {
+            threads.add(Thread.currentThread());
+            return i;
+        };
+        CommonUtils.listConvert(list, record);
+        CommonUtils.transform(list, record);
+        CommonUtils.listConvertMap(list, record, record);
+        CommonUtils.listConvertListMap(list, record, record);
+        assertEquals(1, threads.size());
+        assertEquals(Thread.currentThread(), threads.iterator().next());
+    }
+
+    @Test
+    void parallelConversionsMatchSequential() {
+        List<Integer> list = numbers(SIZE);
+        ForkJoinPool pool = new ForkJoinPool(4);
+        try {
+            Function<Integer, String> value = i -> "v" + i;
+            assertEquals(CommonUtils.listConvert(list, value), CommonUtils.listConvert(list, value, pool));
+
+            //key 重复时后出现的覆盖先出现的
+            Function<Integer, Integer> key = i -> i % 1000;
+            Map<Integer, String> expectedMap = new HashMap<>();
+            Map<Integer, List<String>> expectedGroups = new LinkedHashMap<>();
+            for (Integer i : list) {
+                expectedMap.put(key.apply(i), value.apply(i));
+                expectedGroups.computeIfAbsent(key.apply(i), k -> new ArrayList<>()).add(value.apply(i));
+            }
+            assertEquals(expectedMap, CommonUtils.listConvertMap(list, key, value));
+            assertEquals(expectedMap, CommonUtils.listConvertMap(list, key, value, pool));
+            assertEquals(expectedGroups, CommonUtils.listConvertListMap(list, key, value));
+            assertEquals(expectedGroups, CommonUtils.listConvertListMap(list, key, value, pool));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    @Test
+    void isIntegerAndIsNumericMatchOldPatterns() {
+        Random random = new Random(20261017);
+        for (int i = 0; i < 500_000; i++) {
+            char[] chars = new char[random.nextInt(8)];
+            for (int j = 0; j < chars.length; j++) {
+                chars[j] = NUMERIC_CHARS[random.nextInt(NUMERIC_CHARS.length)];
+            }
+            String str = new String(chars);
+            assertEquals(!str.isEmpty() && PATTERN_INTEGER.matcher(str).matches(), CommonUtils.isInteger(str), str);
+            assertEquals(!str.isEmpty() && PATTERN_NUMBER.matcher(str).matches(), CommonUtils.isNumeric(str), str);
+        }
+        assertFalse(CommonUtils.isInteger(null));
+        assertFalse(CommonUtils.isNumeric(null));
+        assertTrue(CommonUtils.isInteger("-"));
+        assertTrue(CommonUtils.isNumeric("-12x？3"));
+    }
+
+    @Test
+    void uuidIsThirtyTwoLowercaseHexChars() {
+        String uuid = CommonUtils.getUUID();
+        assertTrue(uuid.matches("[0-9a-f]{32}"), uuid);
+    }
+
+    private static List<Integer> numbers(int size) {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(i);
+        }
+        return list;
+    }
+}
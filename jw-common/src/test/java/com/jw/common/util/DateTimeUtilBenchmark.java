@@ -0,0 +1,111 @@
+package com.jw.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.Calendar;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 基于 ZoneOffsetTable 的毫秒运算与替换前每次新建 Calendar 的对比
+ * legacy* 照搬替换前的实现；加 -prof gc 查看每次调用的分配字节数(gc.alloc.rate.norm)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Duser.timezone=Asia/Shanghai")
+public class DateTimeUtilBenchmark {
+    private static final long DAY_MILLIS = 24 * 60 * 60 * 1000L;
+
+    private final long[] instants = new long[1024];
+    private final Date[] dates = new Date[instants.length];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(13);
+        for (int i = 0; i < instants.length; i++) {
+            //2000 ~ 2040 年
+            instants[i] = 946_684_800_000L + (long) (random.nextDouble() * 40 * 365 * DAY_MILLIS);
+            dates[i] = new Date(instants[i]);
+        }
+    }
+
+    private int index() {
+        next = (next + 1) & (instants.length - 1);
+        return next;
+    }
+
+    @Benchmark
+    public long startOfDayMillis() {
+        return DateTimeUtil.startOfDayMillis(instants[index()]);
+    }
+
+    @Benchmark
+    public Date earliestTime() {
+        return DateTimeUtil.earliestTime(dates[index()]);
+    }
+
+    @Benchmark
+    public Date legacyEarliestTime() {
+        return legacyEarliestTime(dates[index()]);
+    }
+
+    @Benchmark
+    public long monthStartMillis() {
+        return DateTimeUtil.monthStartMillis(instants[index()]);
+    }
+
+    @Benchmark
+    public Date firstDay() {
+        return DateTimeUtil.firstDay(dates[index()]);
+    }
+
+    @Benchmark
+    public Date legacyFirstDay() {
+        Calendar can = Calendar.getInstance();
+        can.setTime(dates[index()]);
+        can.set(Calendar.DAY_OF_MONTH, 1);
+        can.set(Calendar.SECOND, 0);
+        can.set(Calendar.MINUTE, 0);
+        can.set(Calendar.HOUR_OF_DAY, 0);
+        can.set(Calendar.MILLISECOND, 0);
+        return can.getTime();
+    }
+
+    @Benchmark
+    public int diffDay() {
+        int i = index();
+        return DateTimeUtil.diffDay(instants[i], instants[(i + 7) & (instants.length - 1)]);
+    }
+
+    @Benchmark
+    public int legacyDiffDay() {
+        int i = index();
+        Date end = legacyEarliestTime(dates[i]);
+        Date start = legacyEarliestTime(dates[(i + 7) & (instants.length - 1)]);
+        return (int) ((end.getTime() - start.getTime()) / DAY_MILLIS);
+    }
+
+    private static Date legacyEarliestTime(Date time) {
+        Calendar can = Calendar.getInstance();
+        can.setTime(time);
+        can.set(Calendar.HOUR_OF_DAY, 0);
+        can.set(Calendar.MINUTE, 0);
+        can.set(Calendar.SECOND, 0);
+        can.set(Calendar.MILLISECOND, 0);
+        return can.getTime();
+    }
+}
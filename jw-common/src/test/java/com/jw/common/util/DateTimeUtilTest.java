@@ -0,0 +1,145 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 批量分桶与统计：夏令时当天、月份边界，以及指定线程池并行与顺序计算结果一致
+ */
+class DateTimeUtilTest {
+    private static final ZoneId ZONE = ZoneId.of("America/New_York");
+
+    private TimeZone original;
+
+    @BeforeEach
+    void setUp() {
+        original = TimeZone.getDefault();
+        TimeZone.setDefault(TimeZone.getTimeZone(ZONE));
+    }
+
+    @AfterEach
+    void tearDown() {
+        TimeZone.setDefault(original);
+    }
+
+    @Test
+    void dstDaysBucketByLocalDate() {
+        //2021-03-14 只有 23 小时，2021-11-07 有 25 小时
+        assertDayCounts(LocalDate.of(2021, 3, 14), 92);
+        assertDayCounts(LocalDate.of(2021, 11, 7), 100);
+    }
+
+    @Test
+    void monthEdges() {
+        LocalDate[] starts = {LocalDate.of(2021, 2, 1), LocalDate.of(2024, 3, 1), LocalDate.of(2022, 1, 1),
+                LocalDate.of(2021, 11, 1)};
+        for (LocalDate start : starts) {
+            long first = millis(start.atStartOfDay());
+            long[] buckets = DateTimeUtil.monthBuckets(new long[]{first - 1, first});
+            assertEquals(epochMonth(start) - 1, buckets[0], start.toString());
+            assertEquals(epochMonth(start), buckets[1], start.toString());
+            assertEquals(first, DateTimeUtil.monthStartMillis(first + 1));
+            assertEquals(first - 1, DateTimeUtil.monthEndMillis(first - 1));
+
+            long[] days = DateTimeUtil.dayBuckets(new long[]{first - 1, first});
+            assertEquals(start.toEpochDay() - 1, days[0]);
+            assertEquals(start.toEpochDay(), days[1]);
+        }
+        //2024-02-29 属于 2 月
+        long leapDay = millis(LocalDateTime.of(2024, 2, 29, 23, 59));
+        assertArrayEquals(new int[]{0, 1, 0},
+                DateTimeUtil.countByMonth(new long[]{leapDay}, millis(LocalDateTime.of(2024, 1, 15, 0, 0)), 3));
+
+        //周日 23:59 与周一 00:00 分属两周
+        LocalDate monday = LocalDate.of(2021, 11, 8);
+        long mondayStart = millis(monday.atStartOfDay());
+        long[] weeks = DateTimeUtil.weekBuckets(new long[]{mondayStart - 60_000, mondayStart}, DayOfWeek.MONDAY);
+        assertEquals(monday.minusDays(7).toEpochDay(), weeks[0]);
+        assertEquals(monday.toEpochDay(), weeks[1]);
+        assertArrayEquals(new int[]{1, 1}, DateTimeUtil.countByWeek(new long[]{mondayStart - 60_000, mondayStart},
+                mondayStart - 60_000, 2, DayOfWeek.MONDAY));
+    }
+
+    @Test
+    void parallelMatchesSequential() {
+        Random random = new Random(20261018);
+        long from = millis(LocalDateTime.of(1990, 1, 1, 0, 0));
+        long to = millis(LocalDateTime.of(2050, 1, 1, 0, 0));
+        long[] instants = new long[200_000];
+        for (int i = 0; i < instants.length; i++) {
+            instants[i] = from + (long) (random.nextDouble() * (to - from));
+        }
+        long start = millis(LocalDateTime.of(2000, 1, 1, 0, 0));
+        //并行度为 1 的线程池退化为顺序计算
+        ForkJoinPool pool = new ForkJoinPool(4);
+        ForkJoinPool single = new ForkJoinPool(1);
+        try {
+            for (ForkJoinPool candidate : new ForkJoinPool[]{pool, single}) {
+                assertArrayEquals(DateTimeUtil.dayBuckets(instants), DateTimeUtil.dayBuckets(instants, candidate));
+                assertArrayEquals(DateTimeUtil.weekBuckets(instants, DayOfWeek.SUNDAY),
+                        DateTimeUtil.weekBuckets(instants, DayOfWeek.SUNDAY, candidate));
+                assertArrayEquals(DateTimeUtil.monthBuckets(instants), DateTimeUtil.monthBuckets(instants, candidate));
+                assertArrayEquals(DateTimeUtil.countByDay(instants, start, 5000),
+                        DateTimeUtil.countByDay(instants, start, 5000, candidate));
+                assertArrayEquals(DateTimeUtil.countByWeek(instants, start, 700, DayOfWeek.MONDAY),
+                        DateTimeUtil.countByWeek(instants, start, 700, DayOfWeek.MONDAY, candidate));
+                assertArrayEquals(DateTimeUtil.countByMonth(instants, start, 240),
+                        DateTimeUtil.countByMonth(instants, start, 240, candidate));
+            }
+        } finally {
+            pool.shutdown();
+            single.shutdown();
+        }
+        //与 java.time 逐个比较
+        long[] months = DateTimeUtil.monthBuckets(instants);
+        for (int i = 0; i < instants.length; i += 97) {
+            LocalDate date = LocalDate.from(Instant.ofEpochMilli(instants[i]).atZone(ZONE));
+            assertEquals(epochMonth(date), months[i]);
+        }
+    }
+
+    /**
+     * 从前一天 00:00 开始每 15 分钟取一个时刻，连续三天，中间一天为夏令时切换日
+     */
+    private static void assertDayCounts(LocalDate day, int expected) {
+        LocalDate previous = day.minusDays(1);
+        long from = millis(previous.atStartOfDay());
+        long to = millis(day.plusDays(2).atStartOfDay());
+        int size = (int) ((to - from) / (15 * 60_000));
+        long[] instants = new long[size];
+        for (int i = 0; i < size; i++) {
+            instants[i] = from + i * 15 * 60_000L;
+        }
+        assertArrayEquals(new int[]{96, expected, 96}, DateTimeUtil.countByDay(instants, from, 3));
+        long[] days = DateTimeUtil.dayBuckets(instants);
+        for (int i = 0; i < size; i++) {
+            LocalDate date = LocalDate.from(Instant.ofEpochMilli(instants[i]).atZone(ZONE));
+            assertEquals(date.toEpochDay(), days[i]);
+        }
+        assertEquals(day.with(TemporalAdjusters.previousOrSame(DayOfWeek.SUNDAY)).toEpochDay(),
+                DateTimeUtil.weekBuckets(new long[]{millis(day.atStartOfDay())}, DayOfWeek.SUNDAY)[0]);
+    }
+
+    private static long millis(LocalDateTime time) {
+        return time.atZone(ZONE).toInstant().toEpochMilli();
+    }
+
+    private static long epochMonth(LocalDate date) {
+        return ChronoUnit.MONTHS.between(LocalDate.of(1970, 1, 1), date.withDayOfMonth(1));
+    }
+}
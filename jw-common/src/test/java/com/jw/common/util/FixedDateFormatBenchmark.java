@@ -0,0 +1,104 @@
+package com.jw.common.util;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FixedDateFormat 与替换前 ThreadLocal&lt;SimpleDateFormat&gt;、每次新建 SimpleDateFormat、Jackson 克隆 SimpleDateFormat 的对比
+ * timestamps 为 sequential 时相邻时刻大多落在同一秒(类似日志和接口返回)，random 时几乎不命中秒级缓存；默认 4 个线程
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Threads(4)
+@Fork(value = 1, jvmArgsAppend = "-Duser.timezone=Asia/Shanghai")
+public class FixedDateFormatBenchmark {
+    private static final ThreadLocal<SimpleDateFormat> LEGACY_FORMAT =
+            ThreadLocal.withInitial(() -> new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+
+    @Param({"sequential", "random"})
+    private String timestamps;
+
+    private final long[] instants = new long[1024];
+    private final Date[] dates = new Date[instants.length];
+    private final String[] texts = new String[instants.length];
+    private final ObjectMapper legacyMapper = new ObjectMapper();
+    private int next;
+
+    @Setup
+    public void setUp() {
+        legacyMapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+        Random random = new Random(14);
+        long start = 1_700_000_000_000L;
+        for (int i = 0; i < instants.length; i++) {
+            instants[i] = "sequential".equals(timestamps) ? start + i * 10L
+                    : start + (long) (random.nextDouble() * 365 * 24 * 3600 * 1000L);
+            dates[i] = new Date(instants[i]);
+            texts[i] = FixedDateFormat.DATE_TIME.format(instants[i]);
+        }
+    }
+
+    private int index() {
+        next = (next + 1) & (instants.length - 1);
+        return next;
+    }
+
+    @Benchmark
+    public String format() {
+        return FixedDateFormat.DATE_TIME.format(instants[index()]);
+    }
+
+    @Benchmark
+    public String legacyFormat() {
+        return LEGACY_FORMAT.get().format(dates[index()]);
+    }
+
+    /**
+     * 替换前 getYearMonth 等方法每次新建 SimpleDateFormat
+     */
+    @Benchmark
+    public String legacyNewFormat() {
+        return new SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(dates[index()]);
+    }
+
+    @Benchmark
+    public long parse() throws ParseException {
+        return FixedDateFormat.DATE_TIME.parseMillis(texts[index()]);
+    }
+
+    @Benchmark
+    public Date legacyParse() throws ParseException {
+        return LEGACY_FORMAT.get().parse(texts[index()]);
+    }
+
+    @Benchmark
+    public String jsonDate() {
+        return JsonUtil.toJsonString(Collections.singletonMap("createTime", dates[index()]));
+    }
+
+    @Benchmark
+    public String legacyJsonDate() throws IOException {
+        return legacyMapper.writeValueAsString(Collections.singletonMap("createTime", dates[index()]));
+    }
+}
@@ -0,0 +1,105 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.text.DateFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.Date;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+/**
+ * 与 SimpleDateFormat 逐一比较格式化和解析结果
+ */
+class FixedDateFormatTest {
+    private static final String[] ZONES = {"Asia/Shanghai", "America/New_York", "Europe/Moscow",
+            "Australia/Lord_Howe", "UTC"};
+    private static final long FROM = LocalDate.of(1850, 1, 1).toEpochDay() * ZoneOffsetTable.DAY_MILLIS;
+    private static final long TO = LocalDate.of(2150, 1, 1).toEpochDay() * ZoneOffsetTable.DAY_MILLIS;
+
+    @Test
+    void formatAndParseMatchSimpleDateFormat() throws ParseException {
+        Random random = new Random(20261017);
+        for (String id : ZONES) {
+            ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of(id));
+            for (FixedDateFormat format : new FixedDateFormat[]{FixedDateFormat.DATE_TIME, FixedDateFormat.DATE}) {
+                SimpleDateFormat expected = simpleDateFormat(format.getPattern(), id);
+                for (int i = 0; i < 20_000; i++) {
+                    long instant = FROM + (long) (random.nextDouble() * (TO - FROM));
+                    String text = expected.format(new Date(instant));
+                    assertEquals(text, format.format(instant, table), id + " " + instant);
+                    assertEquals(expected.parse(text).getTime(), format.parseMillis(text, table), id + " " + text);
+                }
+            }
+        }
+    }
+
+    @Test
+    void sameSecondReturnsCachedText() {
+        long now = System.currentTimeMillis() / 1000 * 1000;
+        String first = FixedDateFormat.DATE_TIME.format(now);
+        assertSame(first, FixedDateFormat.DATE_TIME.format(now + 999));
+        assertEquals(simpleDateFormat(FixedDateFormat.DATE_TIME_PATTERN, null).format(new Date(now + 1000)),
+                FixedDateFormat.DATE_TIME.format(now + 1000));
+    }
+
+    @Test
+    void nonCanonicalInputFallsBackToSimpleDateFormat() throws ParseException {
+        SimpleDateFormat expected = simpleDateFormat(FixedDateFormat.DATE_TIME_PATTERN, null);
+        String[] inputs = {"2020-2-5 1:2:3", "2020-02-30 00:00:00", "2020-02-15 10:20:30 extra",
+                "2020-13-01 00:00:00", "2020-02-15 24:00:00", "0001-01-01 00:00:00"};
+        for (String input : inputs) {
+            assertEquals(expected.parse(input).getTime(), FixedDateFormat.DATE_TIME.parseMillis(input), input);
+        }
+        assertThrows(ParseException.class, () -> FixedDateFormat.DATE_TIME.parse("not a date"));
+        assertThrows(ParseException.class, () -> FixedDateFormat.DATE.parse(""));
+    }
+
+    @Test
+    void toDateFormatFollowsTimeZone() throws ParseException {
+        DateFormat format = FixedDateFormat.DATE_TIME.toDateFormat();
+        format.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+        SimpleDateFormat expected = simpleDateFormat(FixedDateFormat.DATE_TIME_PATTERN, "America/New_York");
+        Date date = new Date(1_600_000_000_123L);
+        assertEquals(expected.format(date), format.format(date));
+        assertEquals(expected.parse("2020-11-01 01:30:00"), format.parse("2020-11-01 01:30:00"));
+        DateFormat copy = (DateFormat) format.clone();
+        assertEquals(format, copy);
+        assertEquals(expected.format(date), copy.format(date));
+    }
+
+    @Test
+    void forPatternOnlyKnowsFixedPatterns() {
+        assertSame(FixedDateFormat.DATE_TIME, FixedDateFormat.forPattern("yyyy-MM-dd HH:mm:ss"));
+        assertSame(FixedDateFormat.DATE, FixedDateFormat.forPattern("yyyy-MM-dd"));
+        assertNull(FixedDateFormat.forPattern("yyyy/MM/dd"));
+    }
+
+    @Test
+    void dateTimeUtilHelpersMatchSimpleDateFormat() throws ParseException {
+        for (String pattern : new String[]{"yyyy-MM-dd", "yyyy-MM-dd HH:mm:ss", "yyyy-MM", "yyyy/MM/dd"}) {
+            SimpleDateFormat expected = new SimpleDateFormat(pattern);
+            String text = expected.format(new Date(1_581_739_200_000L));
+            assertEquals(expected.format(expected.parse(text)), DateTimeUtil.getYearMonth(text, pattern));
+            assertEquals(expected.format(new Date()).length(), DateTimeUtil.getMidMonth(3, pattern, false).length());
+        }
+        assertEquals("2019-12-16", DateTimeUtil.getPreviousMonth("2020-02-15", "yyyy-MM-dd"));
+        assertNull(DateTimeUtil.getYearMonth("bad", "yyyy-MM-dd"));
+    }
+
+    private static SimpleDateFormat simpleDateFormat(String pattern, String zone) {
+        SimpleDateFormat format = new SimpleDateFormat(pattern);
+        if (zone != null) {
+            format.setTimeZone(TimeZone.getTimeZone(zone));
+        }
+        return format;
+    }
+}
@@ -0,0 +1,63 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class HttpAsyncClientUtilTest {
+
+    @Test
+    void fanOutOfAlreadyCompletedCallsDoesNotGrowTheStack() throws Exception {
+        int n = 200_000;
+        List<Supplier<CompletableFuture<Integer>>> calls = new ArrayList<>(n);
+        for (int i = 0; i < n; i++) {
+            int value = i;
+            calls.add(() -> value % 2 == 0 ? CompletableFuture.completedFuture(value) : failed());
+        }
+        HttpAsyncClientUtil.BatchResult<Integer> result = HttpAsyncClientUtil.fanOut(calls, 1, 30, TimeUnit.SECONDS)
+                .get(30, TimeUnit.SECONDS);
+        assertEquals(n / 2, result.getSucceeded());
+        assertEquals(n / 2, result.getErrors().size());
+        assertEquals(Integer.valueOf(4), result.getResults().get(4));
+    }
+
+    @Test
+    void noCallStartsAfterDeadline() throws Exception {
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<Integer>> pending = new ArrayList<>();
+        List<Supplier<CompletableFuture<Integer>>> calls = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            CompletableFuture<Integer> future = new CompletableFuture<>();
+            pending.add(future);
+            calls.add(() -> {
+                started.incrementAndGet();
+                return future;
+            });
+        }
+        HttpAsyncClientUtil.BatchResult<Integer> result = HttpAsyncClientUtil.fanOut(calls, 3, 100, TimeUnit.MILLISECONDS)
+                .get(5, TimeUnit.SECONDS);
+        //截止后被取消的调用完成时不应再启动后续调用
+        Thread.sleep(100);
+        assertEquals(3, started.get());
+        assertEquals(10, result.getErrors().size());
+        assertTrue(result.getErrors().get(0) instanceof TimeoutException);
+        for (int i = 0; i < 3; i++) {
+            assertTrue(pending.get(i).isCancelled());
+        }
+    }
+
+    private static CompletableFuture<Integer> failed() {
+        CompletableFuture<Integer> future = new CompletableFuture<>();
+        future.completeExceptionally(new IllegalStateException("failed"));
+        return future;
+    }
+}
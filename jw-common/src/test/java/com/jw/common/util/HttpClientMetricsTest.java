@@ -0,0 +1,115 @@
+package com.jw.common.util;
+
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.conn.socket.ConnectionSocketFactory;
+import org.apache.http.conn.socket.LayeredConnectionSocketFactory;
+import org.apache.http.conn.socket.PlainConnectionSocketFactory;
+import org.apache.http.conn.ssl.SSLConnectionSocketFactory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 通过全局注册表下挂的 SimpleMeterRegistry 检查出站请求指标
+ */
+class HttpClientMetricsTest {
+    private HttpServer server;
+    private SimpleMeterRegistry registry;
+    private String host;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            exchange.getRequestBody().close();
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(exchange.getRequestURI().getPath().equals("/missing") ? 404 : 200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.start();
+        host = "127.0.0.1:" + server.getAddress().getPort();
+        //全局注册表加入新的子注册表时，已注册的指标(如连接池 gauge)也会同步到子注册表
+        registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+    }
+
+    @AfterEach
+    void stop() {
+        Metrics.removeRegistry(registry);
+        server.stop(0);
+    }
+
+    @Test
+    void requestConnectAndPoolMetrics() throws IOException {
+        HttpClientUtil.init(new HttpClientConfig());
+        for (int i = 0; i < 3; i++) {
+            HttpClientUtil.get("http://" + host + "/hello");
+        }
+        HttpClientUtil.get("http://" + host + "/missing");
+
+        Timer ok = registry.find("http.client.requests").tags("host", host, "method", "GET", "status", "200").timer();
+        assertNotNull(ok);
+        assertEquals(3, ok.count());
+        assertEquals(1, registry.find("http.client.requests").tags("host", host, "status", "404").timer().count());
+        //连接被复用，只建立一次
+        assertEquals(1, registry.find("http.client.connect").tags("host", host).timer().count());
+        //默认不发布直方图
+        assertEquals(0, ok.takeSnapshot().histogramCounts().length);
+        assertEquals(2 * 4, registry.find("http.client.bytes.received").tags("host", host).summary().totalAmount());
+
+        Gauge max = registry.find("http.client.pool.max").tags("pool", "sync").gauge();
+        assertNotNull(max);
+        assertEquals(new HttpClientConfig().getMaxTotal(), max.value());
+        assertEquals(0, registry.find("http.client.pool.leased").tags("pool", "sync").gauge().value());
+        assertEquals(1, registry.find("http.client.pool.available").tags("pool", "sync").gauge().value());
+    }
+
+    @Test
+    void hostTagsAreCapped() {
+        HttpClientMetrics.setMaxHosts(5);
+        try {
+            for (int i = 0; i < 50; i++) {
+                HttpClientMetrics.recordRequest("capped-" + i + ".example", "GET", 200, 1_000);
+            }
+        } finally {
+            HttpClientMetrics.setMaxHosts(100);
+        }
+        //其他用例也会登记主机，这里只看本用例产生的标签
+        Set<String> hosts = registry.find("http.client.requests").timers().stream()
+                .map(timer -> timer.getId().getTag("host"))
+                .filter(host -> host.startsWith("capped-"))
+                .collect(Collectors.toSet());
+        assertTrue(registry.find("http.client.requests").tags("host", HttpClientMetrics.OTHER_HOST).timer() != null);
+        assertTrue(hosts.size() <= 5, hosts.toString());
+        assertEquals(50, registry.find("http.client.requests").timers().stream()
+                .filter(timer -> timer.getId().getTag("host").startsWith("capped-")
+                        || timer.getId().getTag("host").equals(HttpClientMetrics.OTHER_HOST))
+                .mapToLong(Timer::count).sum());
+    }
+
+    @Test
+    void socketFactoryKeepsLayering() {
+        ConnectionSocketFactory plain = HttpClientMetrics.metered(PlainConnectionSocketFactory.getSocketFactory());
+        ConnectionSocketFactory tls = HttpClientMetrics.metered(SSLConnectionSocketFactory.getSocketFactory());
+        assertFalse(plain instanceof LayeredConnectionSocketFactory);
+        assertTrue(tls instanceof LayeredConnectionSocketFactory);
+    }
+}
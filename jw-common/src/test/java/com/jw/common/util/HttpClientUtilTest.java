@@ -0,0 +1,374 @@
+package com.jw.common.util;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.HttpResponseException;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 针对本地 HttpServer 验证共享客户端的请求和响应处理
+ */
+class HttpClientUtilTest {
+    private static final String TEXT = "中文\r\n第二行\n\n";
+    private static final String ERROR_BODY = "{\"error\":\"" + String.join("", Collections.nCopies(8192, "x")) + "\"}";
+
+    private HttpServer server;
+    private String url;
+    private volatile String contentEncoding;
+    private volatile byte[] received;
+    private final Map<String, AtomicInteger> counts = new ConcurrentHashMap<>();
+    /**
+     * 客户端连接使用的本地端口，每个端口对应一个 TCP 连接
+     */
+    private final Set<Integer> ports = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/echo", exchange -> {
+            contentEncoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+            received = readAll(exchange.getRequestBody());
+            byte[] body = "ok".getBytes(StandardCharsets.UTF_8);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        //max-age 内直接命中缓存
+        server.createContext("/fresh", exchange -> respond(exchange, 200, "fresh-" + count(exchange),
+                "Cache-Control", "max-age=60"));
+        //每次都需要重新验证，ETag 未变化时返回 304
+        server.createContext("/etag", exchange -> {
+            count(exchange);
+            if ("\"v1\"".equals(exchange.getRequestHeaders().getFirst("If-None-Match"))) {
+                exchange.getResponseHeaders().add("ETag", "\"v1\"");
+                exchange.sendResponseHeaders(304, -1);
+                exchange.close();
+            } else {
+                respond(exchange, 200, "tagged", "Cache-Control", "max-age=0", "ETag", "\"v1\"");
+            }
+        });
+        server.createContext("/slow", exchange -> {
+            count(exchange);
+            try {
+                Thread.sleep(300);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "slow", "Cache-Control", "max-age=60");
+        });
+        //第一次返回 503，之后正常
+        server.createContext("/flaky", exchange -> {
+            if (count(exchange) == 1) {
+                respond(exchange, 503, "unavailable");
+            } else {
+                respond(exchange, 200, "recovered", "Cache-Control", "max-age=60");
+            }
+        });
+        //不返回响应直接断开连接
+        server.createContext("/drop", exchange -> {
+            count(exchange);
+            throw new IOException("drop connection");
+        });
+        server.createContext("/conn", exchange -> {
+            ports.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, 200, "ok");
+        });
+        //带较大响应体的错误页，需要读完响应体连接才能复用
+        server.createContext("/error", exchange -> {
+            ports.add(exchange.getRemoteAddress().getPort());
+            respond(exchange, 500, ERROR_BODY, "Content-Type", "application/json");
+        });
+        //按 ?charset= 编码响应体；不支持的字符集仍按UTF-8编码
+        server.createContext("/text", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            String charset = query == null ? null : query.substring("charset=".length());
+            byte[] body = TEXT.getBytes(charset != null && Charset.isSupported(charset)
+                    ? Charset.forName(charset) : StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type",
+                    charset == null ? "text/plain" : "text/plain; charset=" + charset);
+            exchange.sendResponseHeaders(200, body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stop() {
+        HttpClientUtil.init(new HttpClientConfig());
+        server.stop(0);
+    }
+
+    @Test
+    void connectionsAreReused() throws IOException {
+        HttpClientUtil.init(new HttpClientConfig());
+        for (int i = 0; i < 20; i++) {
+            assertEquals("ok", HttpClientUtil.get(url + "/conn"));
+        }
+        assertEquals(1, ports.size());
+        PoolStats stats = HttpClientUtil.getConnectionManager().getTotalStats();
+        assertEquals(0, stats.getLeased());
+        assertEquals(1, stats.getAvailable());
+    }
+
+    @Test
+    void initReplacesPoolAndCloseShutsItDown() throws IOException {
+        PoolingHttpClientConnectionManager old = HttpClientUtil.getConnectionManager();
+        HttpClientConfig config = new HttpClientConfig();
+        config.setMaxTotal(7);
+        config.setMaxPerRoute(3);
+        HttpClientUtil.init(config);
+        PoolingHttpClientConnectionManager manager = HttpClientUtil.getConnectionManager();
+        assertNotSame(old, manager);
+        assertSame(config, HttpClientUtil.getConfig());
+        assertEquals(7, manager.getTotalStats().getMax());
+        assertEquals(3, manager.getDefaultMaxPerRoute());
+        assertEquals("ok", HttpClientUtil.get(url + "/conn"));
+
+        HttpClientUtil.close();
+        assertThrows(IllegalStateException.class, () -> HttpClientUtil.get(url + "/conn"));
+        //重新初始化后恢复可用
+        HttpClientUtil.init(new HttpClientConfig());
+        assertEquals("ok", HttpClientUtil.get(url + "/conn"));
+    }
+
+    @Test
+    void responseCharsetIsHonoured() throws IOException {
+        HttpClientUtil.init(new HttpClientConfig());
+        //换行原样保留，不在末尾追加换行
+        assertEquals(TEXT, HttpClientUtil.get(url + "/text?charset=GBK"));
+        assertEquals(TEXT, HttpClientUtil.get(url + "/text?charset=UTF-16"));
+        //未指定或不支持的字符集按UTF-8
+        assertEquals(TEXT, HttpClientUtil.get(url + "/text"));
+        assertEquals(TEXT, HttpClientUtil.get(url + "/text?charset=x-unknown"));
+    }
+
+    @Test
+    void nonSuccessEntitiesAreConsumedAndReleased() throws IOException {
+        HttpClientUtil.init(new HttpClientConfig());
+        HttpResponseException typed = assertThrows(HttpResponseException.class,
+                () -> HttpClientUtil.get(url + "/error", Map.class));
+        assertEquals(500, typed.getStatusCode());
+        assertThrows(HttpResponseException.class,
+                () -> HttpClientUtil.download(url + "/error", new ByteArrayOutputStream()));
+        //返回字符串的方法不检查状态码，返回错误页内容
+        assertEquals(ERROR_BODY, HttpClientUtil.get(url + "/error"));
+        assertEquals("ok", HttpClientUtil.get(url + "/conn"));
+        //响应体被读完，连接归还连接池并继续复用
+        assertEquals(1, ports.size());
+        assertEquals(0, HttpClientUtil.getConnectionManager().getTotalStats().getLeased());
+    }
+
+    @Test
+    void cacheHitAndMiss() throws IOException {
+        HttpClientUtil.init(new HttpClientConfig());
+        assertEquals("fresh-1", HttpClientUtil.getCached(url + "/fresh"));
+        assertEquals("fresh-1", HttpClientUtil.getCached(url + "/fresh"));
+        assertEquals(1, hits("/fresh"));
+        HttpCacheStats stats = HttpClientUtil.getCacheStats();
+        assertEquals(1, stats.getMisses());
+        assertEquals(1, stats.getHits());
+        assertEquals(1, stats.getEntries());
+    }
+
+    @Test
+    void staleEntryIsRevalidatedWith304() throws IOException {
+        HttpClientUtil.init(new HttpClientConfig());
+        assertEquals("tagged", HttpClientUtil.getCached(url + "/etag"));
+        assertEquals("tagged", HttpClientUtil.getCached(url + "/etag"));
+        assertEquals(2, hits("/etag"));
+        assertEquals(1, HttpClientUtil.getCacheStats().getValidated());
+    }
+
+    @Test
+    void leastRecentlyUsedEntriesAreEvicted() throws IOException {
+        HttpClientConfig config = new HttpClientConfig();
+        config.setCacheMaxBytes(3 * 1024);
+        HttpClientUtil.init(config);
+        for (int i = 0; i < 8; i++) {
+            HttpClientUtil.getCached(url + "/fresh?i=" + i);
+        }
+        HttpCacheStats stats = HttpClientUtil.getCacheStats();
+        assertTrue(stats.getEvictions() > 0);
+        assertTrue(stats.getBytes() <= 3 * 1024);
+        assertTrue(stats.getEntries() < 8);
+        //最早的条目已被淘汰，最近的仍在缓存中
+        HttpClientUtil.getCached(url + "/fresh?i=7");
+        assertEquals(8, hits("/fresh"));
+        HttpClientUtil.getCached(url + "/fresh?i=0");
+        assertEquals(9, hits("/fresh"));
+    }
+
+    @Test
+    void concurrentMissesAreCoalesced() throws Exception {
+        HttpClientUtil.init(new HttpClientConfig());
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<String>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(pool.submit(() -> {
+                    start.await();
+                    return HttpClientUtil.getCached(url + "/slow");
+                }));
+            }
+            start.countDown();
+            for (Future<String> future : futures) {
+                assertEquals("slow", future.get(10, TimeUnit.SECONDS));
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+        assertEquals(1, hits("/slow"));
+        HttpCacheStats stats = HttpClientUtil.getCacheStats();
+        assertEquals(threads - 1, stats.getCoalesced() + stats.getHits());
+    }
+
+    @Test
+    void cacheMissesGoThroughRetryPolicy() throws IOException {
+        HttpClientConfig config = new HttpClientConfig();
+        config.setRetryBackoff(1);
+        config.setRetryMaxBackoff(1);
+        //每个请求存入足够的重试预算，不依赖每秒的保底补充
+        config.setRetryBudgetRatio(10);
+        HttpClientUtil.init(config);
+        assertEquals("recovered", HttpClientUtil.getCached(url + "/flaky"));
+        assertEquals(2, hits("/flaky"));
+    }
+
+    @Test
+    void cacheClientDoesNotRetryOnItsOwn() {
+        HttpClientConfig config = new HttpClientConfig();
+        config.setMaxRetries(0);
+        HttpClientUtil.init(config);
+        assertThrows(IOException.class, () -> HttpClientUtil.getCached(url + "/drop"));
+        assertEquals(1, hits("/drop"));
+    }
+
+    @Test
+    void requestCompressionIsOffByDefault() throws IOException {
+        assertEquals(-1, new HttpClientConfig().getRequestGzipThreshold());
+        HttpClientUtil.init(new HttpClientConfig());
+        String json = largeJson();
+        HttpClientUtil.postJson(url + "/echo", json);
+        assertNull(contentEncoding);
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), received);
+    }
+
+    @Test
+    void postJsonCompressesFromThreshold() throws IOException {
+        HttpClientConfig config = new HttpClientConfig();
+        config.setRequestGzipThreshold(1024);
+        HttpClientUtil.init(config);
+
+        HttpClientUtil.postJson(url + "/echo", "{\"small\":true}");
+        assertNull(contentEncoding);
+        assertEquals("{\"small\":true}", new String(received, StandardCharsets.UTF_8));
+
+        String json = largeJson();
+        HttpClientUtil.postJson(url + "/echo", json);
+        assertEquals("gzip", contentEncoding);
+        assertArrayEquals(json.getBytes(StandardCharsets.UTF_8), gunzip(received));
+
+        List<String> body = Collections.nCopies(500, "中文");
+        HttpClientUtil.postJson(url + "/echo", (Object) body);
+        assertEquals("gzip", contentEncoding);
+        assertArrayEquals(JsonUtil.toBytes(body), gunzip(received));
+    }
+
+    @Test
+    void postJsonStreamCompressesWhenAsked() throws IOException {
+        List<String> body = Collections.nCopies(500, "中文");
+        HttpClientUtil.postJsonStream(url + "/echo", body, true);
+        assertEquals("gzip", contentEncoding);
+        assertArrayEquals(JsonUtil.toBytes(body), gunzip(received));
+
+        HttpClientUtil.postJsonStream(url + "/echo", body, false);
+        assertNull(contentEncoding);
+        assertArrayEquals(JsonUtil.toBytes(body), received);
+    }
+
+    private int count(HttpExchange exchange) {
+        return counts.computeIfAbsent(exchange.getRequestURI().getPath(), k -> new AtomicInteger()).incrementAndGet();
+    }
+
+    private int hits(String path) {
+        AtomicInteger count = counts.get(path);
+        return count == null ? 0 : count.get();
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body, String... headers) throws IOException {
+        exchange.getRequestBody().close();
+        for (int i = 0; i < headers.length; i += 2) {
+            exchange.getResponseHeaders().add(headers[i], headers[i + 1]);
+        }
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static String largeJson() {
+        StringBuilder json = new StringBuilder("[");
+        for (int i = 0; i < 500; i++) {
+            json.append(i == 0 ? "" : ",").append("{\"id\":").append(i).append(",\"name\":\"中文\"}");
+        }
+        return json.append(']').toString();
+    }
+
+    private static byte[] gunzip(byte[] data) throws IOException {
+        return readAll(new GZIPInputStream(new ByteArrayInputStream(data)));
+    }
+
+    private static byte[] readAll(InputStream in) throws IOException {
+        try (InputStream input = in) {
+            ByteArrayOutputStream out = new ByteArrayOutputStream();
+            byte[] buffer = new byte[4096];
+            int n;
+            while ((n = input.read(buffer)) != -1) {
+                out.write(buffer, 0, n);
+            }
+            return out.toByteArray();
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.jw.common.util;
+
+import com.sun.net.httpserver.HttpServer;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ByteArrayEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class HttpResilienceTest {
+    private HttpServer server;
+    private CloseableHttpClient client;
+    private final AtomicInteger hits = new AtomicInteger();
+    private String url;
+
+    @BeforeEach
+    void start() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/", exchange -> {
+            hits.incrementAndGet();
+            exchange.getRequestBody().close();
+            exchange.sendResponseHeaders(503, -1);
+            exchange.close();
+        });
+        server.start();
+        url = "http://127.0.0.1:" + server.getAddress().getPort() + "/";
+        client = HttpClients.createDefault();
+    }
+
+    @AfterEach
+    void stop() throws IOException {
+        client.close();
+        server.stop(0);
+    }
+
+    private static HttpClientConfig config() {
+        HttpClientConfig config = new HttpClientConfig();
+        config.setMaxRetries(2);
+        config.setRetryBackoff(1);
+        config.setRetryMaxBackoff(1);
+        //每个请求存入足够的预算，不依赖每秒的保底补充
+        config.setRetryBudgetRatio(10);
+        return config;
+    }
+
+    @Test
+    void postWithRepeatableEntityIsNotRetriedOn503() throws IOException {
+        HttpResilience resilience = new HttpResilience(config());
+        HttpPost post = new HttpPost(url);
+        post.setEntity(new ByteArrayEntity("{}".getBytes(StandardCharsets.UTF_8)));
+
+        int status = resilience.execute(post, response -> response.getStatusLine().getStatusCode(),
+                client::execute, true);
+
+        assertEquals(503, status);
+        assertEquals(1, hits.get());
+    }
+
+    @Test
+    void getIsRetriedOn503() throws IOException {
+        HttpResilience resilience = new HttpResilience(config());
+
+        int status = resilience.execute(new HttpGet(url), response -> response.getStatusLine().getStatusCode(),
+                client::execute, true);
+
+        assertEquals(503, status);
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    void probeEndingWithRuntimeExceptionReopensCircuit() throws Exception {
+        HttpClientConfig config = config();
+        config.setMaxRetries(0);
+        config.setCircuitFailureThreshold(1);
+        config.setCircuitOpenTime(20);
+        HttpResilience resilience = new HttpResilience(config);
+        HttpGet get = new HttpGet(url);
+
+        assertThrows(ConnectException.class, () -> resilience.execute(get, response -> 0, (request, handler) -> {
+            throw new ConnectException("refused");
+        }, true));
+        assertThrows(HttpResilience.CircuitOpenException.class,
+                () -> resilience.execute(get, response -> 0, (request, handler) -> 0, true));
+
+        Thread.sleep(30);
+        assertThrows(IllegalStateException.class, () -> resilience.execute(get, response -> 0, (request, handler) -> {
+            throw new IllegalStateException("Connection pool shut down");
+        }, true));
+        assertThrows(HttpResilience.CircuitOpenException.class,
+                () -> resilience.execute(get, response -> 0, (request, handler) -> 0, true));
+
+        Thread.sleep(30);
+        assertEquals(1, (int) resilience.execute(get, response -> 0, (request, handler) -> 1, true));
+    }
+}
@@ -0,0 +1,75 @@
+package com.jw.common.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.type.TypeFactory;
+import com.jw.common.util.JsonUtilBenchmark.Order;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 同一批 DTO 以 JSON 和 Smile 编解码的吞吐量；报文大小在初始化时打印
+ * orders 为 1 对应单个对象接口，100 对应批量接口
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonCodecBenchmark {
+    private static final JavaType LIST_TYPE = TypeFactory.defaultInstance()
+            .constructCollectionType(ArrayList.class, Order.class);
+
+    @Param({"1", "100"})
+    private int orders;
+
+    private List<Order> payload;
+    private byte[] json;
+    private byte[] smile;
+
+    @Setup
+    public void setUp() {
+        payload = new ArrayList<>(orders);
+        for (int i = 0; i < orders; i++) {
+            payload.add(Order.sample(i));
+        }
+        json = JsonUtil.toBytes(payload, JsonCodec.JSON);
+        smile = JsonUtil.toBytes(payload, JsonCodec.SMILE);
+        System.out.printf("orders=%d json=%d bytes smile=%d bytes (%.0f%%)%n", orders, json.length, smile.length,
+                smile.length * 100.0 / json.length);
+    }
+
+    @Benchmark
+    public byte[] encodeJson() {
+        return JsonUtil.toBytes(payload, JsonCodec.JSON);
+    }
+
+    @Benchmark
+    public byte[] encodeSmile() {
+        return JsonUtil.toBytes(payload, JsonCodec.SMILE);
+    }
+
+    @Benchmark
+    public List<Order> decodeJson() throws IOException {
+        return JsonUtil.readerFor(LIST_TYPE, JsonCodec.JSON).readValue(json);
+    }
+
+    @Benchmark
+    public List<Order> decodeSmile() throws IOException {
+        return JsonUtil.readerFor(LIST_TYPE, JsonCodec.SMILE).readValue(smile);
+    }
+}
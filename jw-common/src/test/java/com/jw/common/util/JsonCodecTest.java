@@ -0,0 +1,71 @@
+package com.jw.common.util;
+
+import com.jw.common.util.JsonUtilTest.Person;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Smile 编解码与 Content-Type/Accept 协商
+ */
+class JsonCodecTest {
+
+    @Test
+    void smileRoundTripsSameModelAsJson() throws IOException {
+        Person person = new Person("中文 é", 7);
+        byte[] smile = JsonUtil.toBytes(person, JsonCodec.SMILE);
+        //Smile 报文以 ":)\n" 开头
+        assertArrayEquals(new byte[]{':', ')', '\n'}, Arrays.copyOf(smile, 3));
+        Person read = JsonUtil.parse(smile, Person.class, JsonCodec.SMILE);
+        assertEquals(person.getName(), read.getName());
+        assertEquals(person.getAge(), read.getAge());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        List<Person> people = Arrays.asList(person, new Person("b", 2));
+        JsonUtil.write(out, people, JsonCodec.SMILE);
+        List<?> list = JsonUtil.parse(new ByteArrayInputStream(out.toByteArray()), List.class, JsonCodec.SMILE);
+        assertEquals(2, list.size());
+
+        //JSON 格式与不指定格式时一致
+        assertArrayEquals(JsonUtil.toBytes(person), JsonUtil.toBytes(person, JsonCodec.JSON));
+        assertNull(JsonUtil.toBytes(null, JsonCodec.SMILE));
+        assertNull(JsonUtil.parse(new byte[0], Person.class, JsonCodec.SMILE));
+        //JSON 报文不能按 Smile 解析
+        assertThrows(IllegalArgumentException.class,
+                () -> JsonUtil.parse(JsonUtil.toBytes(person), Person.class, JsonCodec.SMILE));
+    }
+
+    @Test
+    void forContentType() {
+        assertEquals(JsonCodec.SMILE, JsonCodec.forContentType("application/x-jackson-smile"));
+        assertEquals(JsonCodec.SMILE, JsonCodec.forContentType(" Application/X-Jackson-Smile; charset=binary"));
+        assertEquals(JsonCodec.JSON, JsonCodec.forContentType("application/json;charset=UTF-8"));
+        assertEquals(JsonCodec.JSON, JsonCodec.forContentType("text/plain"));
+        assertEquals(JsonCodec.JSON, JsonCodec.forContentType(null));
+    }
+
+    @Test
+    void negotiate() {
+        assertEquals(JsonCodec.SMILE, JsonCodec.negotiate(JsonCodec.SMILE.getAccept()));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate(JsonCodec.JSON.getAccept()));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate("application/json, application/x-jackson-smile"));
+        assertEquals(JsonCodec.SMILE, JsonCodec.negotiate("application/json;q=0.4, application/x-jackson-smile;q=0.9"));
+        assertEquals(JsonCodec.SMILE, JsonCodec.negotiate("text/html, application/x-jackson-smile"));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate("*/*"));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate("application/x-jackson-smile;q=0"));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate("application/x-jackson-smile;q=abc"));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate("text/html"));
+        assertEquals(JsonCodec.JSON, JsonCodec.negotiate(null));
+        assertTrue(JsonCodec.SMILE.getAccept().startsWith(JsonCodec.SMILE.getMediaType()));
+    }
+}
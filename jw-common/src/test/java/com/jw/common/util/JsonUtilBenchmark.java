@@ -0,0 +1,207 @@
+package com.jw.common.util;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 按类型缓存 reader/writer 与替换前每次走 ObjectMapper.readValue/writeValueAsBytes 的对比
+ * legacy* 为替换前 JsonUtil 的写法：同样配置的 ObjectMapper，parseAsList 用 HashMap 缓存 JavaType
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class JsonUtilBenchmark {
+    private final ObjectMapper legacyMapper = new ObjectMapper();
+    private final Map<String, JavaType> legacyListTypes = new HashMap<>(32);
+
+    private Order order;
+    private String orderJson;
+    private String listJson;
+
+    @Setup
+    public void setUp() {
+        legacyMapper.setDateFormat(new SimpleDateFormat("yyyy-MM-dd HH:mm:ss"));
+        order = Order.sample(1);
+        List<Order> orders = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            orders.add(Order.sample(i));
+        }
+        orderJson = JsonUtil.toJsonString(order);
+        listJson = JsonUtil.toJsonString(orders);
+    }
+
+    @Benchmark
+    public Order parse() {
+        return JsonUtil.parse(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public Order legacyParse() throws IOException {
+        return legacyMapper.readValue(orderJson, Order.class);
+    }
+
+    @Benchmark
+    public List<Order> parseAsList() {
+        return JsonUtil.parseAsList(listJson, Order.class);
+    }
+
+    @Benchmark
+    public List<Order> legacyParseAsList() throws IOException {
+        if (legacyListTypes.get(Order.class.getName()) == null) {
+            legacyListTypes.put(Order.class.getName(),
+                    legacyMapper.getTypeFactory().constructCollectionType(ArrayList.class, Order.class));
+        }
+        return legacyMapper.readValue(listJson, legacyListTypes.get(Order.class.getName()));
+    }
+
+    @Benchmark
+    public byte[] toBytes() {
+        return JsonUtil.toBytes(order);
+    }
+
+    @Benchmark
+    public byte[] legacyToBytes() throws IOException {
+        return legacyMapper.writeValueAsBytes(order);
+    }
+
+    /**
+     * 典型的接口 DTO：基本类型、金额、时间和嵌套列表
+     */
+    public static class Order {
+        private long id;
+        private String userName;
+        private String status;
+        private BigDecimal amount;
+        private Date createTime;
+        private List<Item> items;
+
+        static Order sample(int seed) {
+            Order order = new Order();
+            order.id = 1_234_567_890_123L + seed;
+            order.userName = "用户" + seed;
+            order.status = "PAID";
+            order.amount = new BigDecimal("1999.90").add(BigDecimal.valueOf(seed));
+            order.createTime = new Date(1_700_000_000_000L + seed * 60_000L);
+            order.items = new ArrayList<>();
+            for (int i = 0; i < 5; i++) {
+                Item item = new Item();
+                item.skuId = 10_000L + i;
+                item.name = "商品-" + i;
+                item.quantity = i + 1;
+                item.price = new BigDecimal("399.98");
+                order.items.add(item);
+            }
+            return order;
+        }
+
+        public long getId() {
+            return id;
+        }
+
+        public void setId(long id) {
+            this.id = id;
+        }
+
+        public String getUserName() {
+            return userName;
+        }
+
+        public void setUserName(String userName) {
+            this.userName = userName;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public BigDecimal getAmount() {
+            return amount;
+        }
+
+        public void setAmount(BigDecimal amount) {
+            this.amount = amount;
+        }
+
+        public Date getCreateTime() {
+            return createTime;
+        }
+
+        public void setCreateTime(Date createTime) {
+            this.createTime = createTime;
+        }
+
+        public List<Item> getItems() {
+            return items;
+        }
+
+        public void setItems(List<Item> items) {
+            this.items = items;
+        }
+    }
+
+    public static class Item {
+        private long skuId;
+        private String name;
+        private int quantity;
+        private BigDecimal price;
+
+        public long getSkuId() {
+            return skuId;
+        }
+
+        public void setSkuId(long skuId) {
+            this.skuId = skuId;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getQuantity() {
+            return quantity;
+        }
+
+        public void setQuantity(int quantity) {
+            this.quantity = quantity;
+        }
+
+        public BigDecimal getPrice() {
+            return price;
+        }
+
+        public void setPrice(BigDecimal price) {
+            this.price = price;
+        }
+    }
+}
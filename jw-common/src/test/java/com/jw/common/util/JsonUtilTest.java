@@ -0,0 +1,242 @@
+package com.jw.common.util;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.MappingIterator;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.FilterInputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.StringReader;
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonUtilTest {
+
+    @Test
+    void forEachElementLeavesStreamOpen() throws IOException {
+        TrackedInput in = input("[{\"name\":\"a\",\"age\":1},{\"name\":\"b\",\"age\":2}]");
+        List<Person> people = new ArrayList<>();
+        assertEquals(2, JsonUtil.forEachElement(in, Person.class, people::add));
+        assertFalse(in.closed);
+        assertEquals("b", people.get(1).getName());
+        assertEquals(2, people.get(1).getAge());
+    }
+
+    @Test
+    void forEachElementReadsWhitespaceSeparatedValues() throws IOException {
+        List<Person> people = new ArrayList<>();
+        JsonUtil.forEachElement(input("{\"name\":\"a\"}\n{\"name\":\"b\"}"), Person.class, people::add);
+        assertEquals(Arrays.asList("a", "b"), people.stream().map(Person::getName).collect(Collectors.toList()));
+    }
+
+    @Test
+    void forEachElementRejectsMalformedJson() {
+        TrackedInput in = input("[{\"name\":\"a\"},{\"name\":");
+        assertThrows(IllegalArgumentException.class, () -> JsonUtil.forEachElement(in, Person.class, p -> {
+        }));
+        assertFalse(in.closed);
+    }
+
+    @Test
+    void iteratorAndStreamCloseInput() throws IOException {
+        TrackedInput in = input("[{\"name\":\"a\"},{\"name\":\"b\"}]");
+        try (MappingIterator<Person> iterator = JsonUtil.iterator(in, Person.class)) {
+            assertEquals("a", iterator.next().getName());
+        }
+        assertTrue(in.closed);
+
+        TrackedInput streamed = input("[{\"name\":\"a\"},{\"name\":\"b\"}]");
+        try (Stream<Person> stream = JsonUtil.stream(streamed, Person.class)) {
+            assertEquals(2, stream.count());
+        }
+        assertTrue(streamed.closed);
+    }
+
+    @Test
+    void writeArrayRoundTripsAndLeavesStreamOpen() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        boolean[] closed = {false};
+        FilterOutputStream out = new FilterOutputStream(bytes) {
+            @Override
+            public void close() {
+                closed[0] = true;
+            }
+        };
+        List<Person> people = Arrays.asList(new Person("a", 1), new Person("b", 2));
+        assertEquals(2, JsonUtil.writeArray(out, people.iterator()));
+        assertFalse(closed[0]);
+        List<Person> read = JsonUtil.parseAsList(new String(bytes.toByteArray(), StandardCharsets.UTF_8), Person.class);
+        assertEquals(2, read.size());
+        assertEquals("b", read.get(1).getName());
+    }
+
+    @Test
+    void readersAndWritersAreCachedPerType() {
+        assertSame(JsonUtil.readerFor(Person.class), JsonUtil.readerFor(Person.class));
+        assertSame(JsonUtil.writerFor(Person.class), JsonUtil.writerFor(Person.class));
+        //TypeReference 的类型与等价的 JavaType 解析结果一致
+        TypeReference<List<Person>> listType = new TypeReference<List<Person>>() {
+        };
+        List<Person> people = JsonUtil.parse("[{\"name\":\"a\",\"age\":1}]", listType);
+        assertEquals("a", people.get(0).getName());
+        assertSame(JsonUtil.readerFor(listType.getType()), JsonUtil.readerFor(listType.getType()));
+    }
+
+    @Test
+    void cachedReadersAreSafeAcrossThreads() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                int thread = t;
+                futures.add(pool.submit(() -> {
+                    for (int i = 0; i < 5_000; i++) {
+                        Person person = new Person("p" + thread, i);
+                        String json = JsonUtil.toJsonString(person);
+                        Person read = JsonUtil.parse(json, Person.class);
+                        assertEquals(person.getName(), read.getName());
+                        assertEquals(i, read.getAge());
+                        Map<String, Object> map = JsonUtil.parse(json);
+                        assertEquals(i, map.get("age"));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    void byteSourcesParseLikeStrings() {
+        String json = "{\"name\":\"中文 é\",\"age\":7}";
+        byte[] bytes = json.getBytes(StandardCharsets.UTF_8);
+        assertPerson(JsonUtil.parse(json, Person.class));
+        assertPerson(JsonUtil.parse(bytes, Person.class));
+        assertPerson(JsonUtil.parse(new StringReader(json), Person.class));
+
+        //只解析数组中的一段
+        byte[] framed = ("xx" + json + "yy").getBytes(StandardCharsets.UTF_8);
+        assertPerson(JsonUtil.parse(framed, 2, bytes.length, Person.class));
+
+        //堆内和直接缓冲区都不改变 position
+        ByteBuffer heap = ByteBuffer.wrap(framed, 2, bytes.length).slice();
+        ByteBuffer direct = ByteBuffer.allocateDirect(bytes.length);
+        direct.put(bytes).flip();
+        for (ByteBuffer buffer : new ByteBuffer[]{heap, direct}) {
+            assertPerson(JsonUtil.parse(buffer, Person.class));
+            assertEquals(0, buffer.position());
+        }
+
+        DataBuffer dataBuffer = new DefaultDataBufferFactory().wrap(bytes);
+        assertPerson(JsonUtil.parse(dataBuffer, Person.class));
+        assertEquals(0, dataBuffer.readableByteCount());
+
+        assertNull(JsonUtil.parse((byte[]) null, Person.class));
+        assertNull(JsonUtil.parse(new byte[0], Person.class));
+        assertNull(JsonUtil.parse(ByteBuffer.allocate(0), Person.class));
+        assertThrows(IllegalArgumentException.class, () -> JsonUtil.parse(framed, 0, bytes.length, Person.class));
+    }
+
+    @Test
+    void writesToBuffersAndStreams() throws IOException {
+        Person person = new Person("中文 é", 7);
+        byte[] expected = JsonUtil.toJsonString(person).getBytes(StandardCharsets.UTF_8);
+        assertArrayEquals(expected, JsonUtil.toBytes(person));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        JsonUtil.write(out, person);
+        assertArrayEquals(expected, out.toByteArray());
+
+        DataBuffer dataBuffer = new DefaultDataBufferFactory().allocateBuffer(4);
+        JsonUtil.write(dataBuffer, person);
+        assertPerson(JsonUtil.parse(dataBuffer, Person.class));
+
+        ByteBuffer buffer = ByteBuffer.allocate(expected.length + 3);
+        buffer.put((byte) ' ');
+        assertEquals(expected.length, JsonUtil.write(buffer, person));
+        assertEquals(expected.length + 1, buffer.position());
+        //剩余空间不足时 position 恢复
+        assertThrows(BufferOverflowException.class, () -> JsonUtil.write(buffer, person));
+        assertEquals(expected.length + 1, buffer.position());
+    }
+
+    private static void assertPerson(Person person) {
+        assertEquals("中文 é", person.getName());
+        assertEquals(7, person.getAge());
+    }
+
+    private static TrackedInput input(String json) {
+        return new TrackedInput(json.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static final class TrackedInput extends FilterInputStream {
+        private boolean closed;
+
+        private TrackedInput(byte[] bytes) {
+            super(new ByteArrayInputStream(bytes));
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+
+    public static class Person {
+        private String name;
+        private int age;
+
+        public Person() {
+        }
+
+        Person(String name, int age) {
+            this.name = name;
+            this.age = age;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public void setName(String name) {
+            this.name = name;
+        }
+
+        public int getAge() {
+            return age;
+        }
+
+        public void setAge(int age) {
+            this.age = age;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.jw.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 只取一两个字段时 LazyJson 与 JsonUtil.parse(json) 构建完整 Map 的对比，文档约 1KB、100KB、10MB
+ * 加 -prof gc 可看到复用实例时每次调用的分配量
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LazyJsonBenchmark {
+    @Param({"1024", "102400", "10485760"})
+    private int size;
+
+    private String json;
+    private byte[] bytes;
+    private final LazyJson view = new LazyJson();
+
+    @Setup
+    public void setUp() {
+        //请求头部字段在前，业务数据在后
+        StringBuilder sb = new StringBuilder(size + 256)
+                .append("{\"userId\":1234567890123,\"tenant\":\"t-01\",\"data\":[");
+        for (int i = 0; sb.length() < size - 100; i++) {
+            sb.append(i == 0 ? "" : ",").append("{\"id\":").append(i)
+                    .append(",\"name\":\"商品-").append(i).append("\",\"price\":19.9,\"tags\":[\"a\",\"b\"]}");
+        }
+        json = sb.append("],\"traceId\":\"abc\"}").toString();
+        bytes = json.getBytes(StandardCharsets.UTF_8);
+    }
+
+    @Benchmark
+    public void lazyReused(Blackhole bh) {
+        view.reset(bytes);
+        bh.consume(view.getLong("/userId"));
+        bh.consume(view.getString("/tenant"));
+    }
+
+    @Benchmark
+    public void lazy(Blackhole bh) {
+        LazyJson lazy = LazyJson.of(bytes);
+        bh.consume(lazy.getLong("/userId"));
+        bh.consume(lazy.getString("/tenant"));
+    }
+
+    @Benchmark
+    public void parseMap(Blackhole bh) {
+        Map<String, Object> map = JsonUtil.parse(json);
+        bh.consume(map.get("userId"));
+        bh.consume(map.get("tenant"));
+    }
+}
@@ -0,0 +1,89 @@
+package com.jw.common.util;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 与 Jackson JsonNode.at(pointer) 比较，覆盖 RFC 6901 的转义和边界情况
+ */
+class LazyJsonTest {
+    private static final String JSON = "{\n"
+            + "  \"a/b\": 1, \"m~n\": 2, \"~1\": 3, \"\": 4, \" \": 5, \"a\\/c\": 6, \"e\\u0301\": 7,\n"
+            + "  \"quote\\\"d\": \"q\", \"键\": \"值\", \"escaped\": \"line\\nbreak \\u4e2d\",\n"
+            + "  \"user\": {\"id\": 1234567890123, \"name\": \"jw\", \"tags\": [\"x\", \"y\"], \"empty\": {}},\n"
+            + "  \"items\": [{\"n\": -1.5e3}, [], [null, true, false], \"10\"],\n"
+            + "  \"0\": \"zero key\", \"null\": null\n"
+            + "}";
+    private static final String[] POINTERS = {"", "/a~1b", "/m~0n", "/~01", "/~1", "/", "/ ", "/a~1c", "/e\u0301",
+            "/quote\"d", "/键", "/escaped", "/user", "/user/id", "/user/name", "/user/tags", "/user/tags/0",
+            "/user/tags/1", "/user/tags/2", "/user/tags/-", "/user/empty", "/user/empty/", "/items/0/n", "/items/1",
+            "/items/1/0", "/items/2/0", "/items/2/1", "/items/2/2", "/items/3", "/items/01", "/items/+1",
+            "/items/", "/0", "/null", "/missing", "/user/id/x", "/a~2b", "/m~n", "/a/b"};
+
+    @Test
+    void matchesJacksonJsonPointer() throws IOException {
+        JsonNode root = new ObjectMapper().readTree(JSON);
+        LazyJson lazy = LazyJson.of(JSON);
+        for (String pointer : POINTERS) {
+            JsonNode node = root.at(pointer);
+            assertEquals(!node.isMissingNode(), lazy.has(pointer), pointer);
+            if (node.isMissingNode() || node.isNull()) {
+                assertNull(lazy.getString(pointer), pointer);
+            } else if (node.isTextual()) {
+                assertEquals(node.textValue(), lazy.getString(pointer), pointer);
+            } else if (node.isContainerNode()) {
+                assertEquals(node.size(), lazy.size(pointer), pointer);
+                assertEquals(node, new ObjectMapper().readTree(lazy.getRaw(pointer)), pointer);
+            } else if (node.isNumber()) {
+                //数字返回原文
+                assertEquals(0, node.decimalValue().compareTo(new BigDecimal(lazy.getString(pointer))), pointer);
+            } else {
+                assertEquals(node.asText(), lazy.getString(pointer), pointer);
+            }
+        }
+    }
+
+    @Test
+    void typedAccessors() {
+        LazyJson lazy = LazyJson.of(JSON.getBytes(StandardCharsets.UTF_8));
+        assertEquals(1234567890123L, lazy.getLong("/user/id").longValue());
+        assertEquals(10, lazy.getInt("/items/3").intValue());
+        assertEquals(-1500.0, lazy.getDouble("/items/0/n"), 0);
+        assertTrue(lazy.getBoolean("/items/2/1"));
+        assertFalse(lazy.getBoolean("/items/2/2"));
+        assertNull(lazy.getLong("/null"));
+        assertNull(lazy.getLong("/missing"));
+        assertThrows(NumberFormatException.class, () -> lazy.getLong("/user/name"));
+        assertThrows(IllegalArgumentException.class, () -> lazy.getBoolean("/user/id"));
+        assertEquals("jw", lazy.get("/user", Map.class).get("name"));
+        assertEquals(-1, lazy.size("/user/id"));
+        assertThrows(IllegalArgumentException.class, () -> lazy.has("user"));
+    }
+
+    @Test
+    void resetReusesInstanceAndRejectsMalformedJson() {
+        LazyJson lazy = LazyJson.of("[1,2,3]");
+        assertEquals(3, lazy.size(""));
+        lazy.reset("{\"k\":\"v\"}");
+        assertEquals("v", lazy.getString("/k"));
+        assertFalse(lazy.has("/0"));
+        byte[] framed = "xx{\"k\":[1]}yy".getBytes(StandardCharsets.UTF_8);
+        assertEquals(1, lazy.reset(framed, 2, framed.length - 4).getInt("/k/0").intValue());
+        String[] malformed = {"", "  ", "{", "[1,2", "{\"a\":1}}", "[1]]", "{\"a\":\"x}", "{\"a\":tru}", "[1] 2", "{]"};
+        for (String json : malformed) {
+            assertThrows(IllegalArgumentException.class, () -> LazyJson.of(json), json);
+        }
+    }
+}
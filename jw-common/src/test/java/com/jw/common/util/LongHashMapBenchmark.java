@@ -0,0 +1,122 @@
+package com.jw.common.util;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * LongHashMap/LongHashSet 与 HashMap&lt;Long, V&gt;/HashSet&lt;Long&gt; 的对比，key 为雪花ID量级的 long
+ * build* 按预估容量装入 size 个元素，加 -prof gc 时 gc.alloc.rate.norm 近似为整个集合的内存占用；get* 为命中查找
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LongHashMapBenchmark {
+    private static final String VALUE = "v";
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    private long[] keys;
+    private LongHashMap<String> longMap;
+    private Map<Long, String> boxedMap;
+    private LongHashSet longSet;
+    private Set<Long> boxedSet;
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(18);
+        keys = new long[size];
+        for (int i = 0; i < size; i++) {
+            keys[i] = 1_300_000_000_000_000_000L + (random.nextLong() & 0xFFFF_FFFF_FFFFL);
+        }
+        longMap = buildLongMap();
+        boxedMap = buildHashMap();
+        longSet = buildLongSet();
+        boxedSet = buildHashSet();
+    }
+
+    private int index() {
+        next = next + 1 == keys.length ? 0 : next + 1;
+        return next;
+    }
+
+    @Benchmark
+    public LongHashMap<String> buildLongMap() {
+        LongHashMap<String> map = new LongHashMap<>(keys.length);
+        for (long key : keys) {
+            map.put(key, VALUE);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public Map<Long, String> buildHashMap() {
+        Map<Long, String> map = new HashMap<>((int) (keys.length / 0.75f) + 1);
+        for (long key : keys) {
+            map.put(key, VALUE);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public LongHashSet buildLongSet() {
+        LongHashSet set = new LongHashSet(keys.length);
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    public Set<Long> buildHashSet() {
+        Set<Long> set = new HashSet<>((int) (keys.length / 0.75f) + 1);
+        for (long key : keys) {
+            set.add(key);
+        }
+        return set;
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String getLongMap() {
+        return longMap.get(keys[index()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public String getHashMap() {
+        return boxedMap.get(keys[index()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean containsLongSet() {
+        return longSet.contains(keys[index()]);
+    }
+
+    @Benchmark
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public boolean containsHashSet() {
+        return boxedSet.contains(keys[index()]);
+    }
+}
@@ -0,0 +1,135 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 与 HashMap/HashSet 随机比对；键集中在少量取值上，保证大量删除后的回移(backward shift)都被覆盖
+ */
+class LongHashMapTest {
+    private static final long[] SPECIAL_KEYS = {0L, 1L, -1L, Long.MIN_VALUE, Long.MAX_VALUE};
+
+    @Test
+    void mapMatchesHashMapUnderRandomPutAndRemove() {
+        Random random = new Random(20261017);
+        LongHashMap<Long> map = new LongHashMap<>(4);
+        Map<Long, Long> expected = new HashMap<>();
+        for (int i = 0; i < 500_000; i++) {
+            long key = randomKey(random);
+            switch (random.nextInt(5)) {
+                case 0:
+                case 1:
+                    assertEquals(expected.put(key, (long) i), map.put(key, (long) i));
+                    break;
+                case 2:
+                    assertEquals(expected.remove(key), map.remove(key));
+                    break;
+                case 3:
+                    assertEquals(expected.computeIfAbsent(key, k -> k * 3), map.computeIfAbsent(key, k -> k * 3));
+                    break;
+                default:
+                    assertEquals(expected.putIfAbsent(key, -key), map.putIfAbsent(key, -key));
+            }
+            assertEquals(expected.size(), map.size());
+            long probe = randomKey(random);
+            assertEquals(expected.containsKey(probe), map.containsKey(probe));
+            assertEquals(expected.get(probe), map.get(probe));
+        }
+        assertSameEntries(expected, map);
+    }
+
+    @Test
+    void removeKeepsCollidingKeysReachable() {
+        //低 32 位相同的一组键，删除其中一半后其余键仍可查到
+        LongHashMap<String> map = new LongHashMap<>(64);
+        long[] keys = new long[40];
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (i + 1L) << 32;
+            map.put(keys[i], "v" + i);
+        }
+        for (int i = 0; i < keys.length; i += 2) {
+            assertEquals("v" + i, map.remove(keys[i]));
+        }
+        for (int i = 0; i < keys.length; i++) {
+            assertEquals(i % 2 == 0 ? null : "v" + i, map.get(keys[i]));
+        }
+        assertEquals(keys.length / 2, map.size());
+    }
+
+    @Test
+    void zeroKeyAndNullValues() {
+        LongHashMap<String> map = new LongHashMap<>();
+        assertNull(map.put(0L, null));
+        assertTrue(map.containsKey(0L));
+        assertEquals("d", map.getOrDefault(1L, "d"));
+        assertNull(map.getOrDefault(0L, "d"));
+        assertEquals(1, map.size());
+        assertNull(map.remove(0L));
+        assertFalse(map.containsKey(0L));
+        assertTrue(map.isEmpty());
+        assertNull(map.computeIfAbsent(5L, k -> null));
+        assertFalse(map.containsKey(5L));
+        map.put(7L, "x");
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertNull(map.get(7L));
+    }
+
+    @Test
+    void setMatchesHashSetUnderRandomAddAndRemove() {
+        Random random = new Random(17);
+        LongHashSet set = new LongHashSet(4);
+        Set<Long> expected = new HashSet<>();
+        for (int i = 0; i < 500_000; i++) {
+            long value = randomKey(random);
+            if (random.nextInt(3) == 0) {
+                assertEquals(expected.remove(value), set.remove(value));
+            } else {
+                assertEquals(expected.add(value), set.add(value));
+            }
+            assertEquals(expected.size(), set.size());
+            long probe = randomKey(random);
+            assertEquals(expected.contains(probe), set.contains(probe));
+        }
+        long[] values = set.toArray();
+        Arrays.sort(values);
+        assertArrayEquals(expected.stream().mapToLong(Long::longValue).sorted().toArray(), values);
+        Set<Long> visited = new HashSet<>();
+        set.forEach(visited::add);
+        assertEquals(expected, visited);
+        assertEquals(3, LongHashSet.of(0L, 5L, 5L, -5L).size());
+    }
+
+    private static long randomKey(Random random) {
+        int kind = random.nextInt(10);
+        if (kind == 0) {
+            return SPECIAL_KEYS[random.nextInt(SPECIAL_KEYS.length)];
+        }
+        if (kind < 4) {
+            //高位不同低位相同，哈希后仍可能聚集
+            return (long) random.nextInt(2_000) << 40;
+        }
+        return random.nextInt(5_000);
+    }
+
+    private static void assertSameEntries(Map<Long, Long> expected, LongHashMap<Long> map) {
+        Map<Long, Long> actual = new HashMap<>();
+        map.forEach(actual::put);
+        assertEquals(expected, actual);
+        long[] keys = map.keys();
+        Arrays.sort(keys);
+        assertArrayEquals(expected.keySet().stream().mapToLong(Long::longValue).sorted().toArray(), keys);
+    }
+}
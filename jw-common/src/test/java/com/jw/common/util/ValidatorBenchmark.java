@@ -0,0 +1,122 @@
+package com.jw.common.util;
+
+import org.apache.commons.codec.binary.Base64;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * isInteger/isNumeric/getUUID/isBase64 与替换前正则、replaceAll、解码再编码实现的对比
+ * 输入中合法与非法各占一部分；getUUID 两种写法都包含 UUID.randomUUID() 本身的开销
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ValidatorBenchmark {
+    private static final Pattern LEGACY_INTEGER = Pattern.compile("^[-\\+]?[\\d]*$");
+    private static final Pattern LEGACY_NUMBER = Pattern.compile("-?[0-9]+.？[0-9]*");
+
+    private final String[] numbers = new String[1024];
+    private final String[] base64s = new String[numbers.length];
+    private int next;
+
+    @Setup
+    public void setUp() {
+        Random random = new Random(19);
+        for (int i = 0; i < numbers.length; i++) {
+            switch (i & 3) {
+                case 0:
+                    numbers[i] = String.valueOf(random.nextLong());
+                    break;
+                case 1:
+                    numbers[i] = random.nextInt(100_000) + "." + random.nextInt(100);
+                    break;
+                case 2:
+                    numbers[i] = "12345678901234567" + (char) ('a' + random.nextInt(26));
+                    break;
+                default:
+                    numbers[i] = String.valueOf(random.nextInt(1000));
+            }
+            //约 100B ~ 1KB 的文本，四分之一混入非法字符
+            StringBuilder text = new StringBuilder();
+            for (int n = 30 + random.nextInt(300); n > 0; n--) {
+                text.append((char) (random.nextBoolean() ? 'a' + random.nextInt(26) : 0x4E00 + random.nextInt(0x5000)));
+            }
+            String encoded = Base64.encodeBase64String(text.toString().getBytes(StandardCharsets.UTF_8));
+            base64s[i] = (i & 3) == 3 ? encoded.substring(0, encoded.length() / 2) + "!" : encoded;
+        }
+    }
+
+    private int index() {
+        next = (next + 1) & (numbers.length - 1);
+        return next;
+    }
+
+    @Benchmark
+    public boolean isInteger() {
+        return CommonUtils.isInteger(numbers[index()]);
+    }
+
+    @Benchmark
+    public boolean legacyIsInteger() {
+        String str = numbers[index()];
+        return !CommonUtils.isBlank(str) && LEGACY_INTEGER.matcher(str).matches();
+    }
+
+    @Benchmark
+    public boolean isNumeric() {
+        return CommonUtils.isNumeric(numbers[index()]);
+    }
+
+    @Benchmark
+    public boolean legacyIsNumeric() {
+        String str = numbers[index()];
+        return !CommonUtils.isBlank(str) && LEGACY_NUMBER.matcher(str).matches();
+    }
+
+    @Benchmark
+    public String getUUID() {
+        return CommonUtils.getUUID();
+    }
+
+    @Benchmark
+    public String legacyGetUUID() {
+        return UUID.randomUUID().toString().replaceAll("-", "");
+    }
+
+    @Benchmark
+    public boolean isBase64() {
+        return Base64Util.isBase64(base64s[index()]);
+    }
+
+    @Benchmark
+    public boolean legacyIsBase64() {
+        String base64 = base64s[index()];
+        String decoded;
+        try {
+            decoded = new String(Base64.decodeBase64(base64), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            //末尾未使用的位不为0时原实现随之抛出
+            return false;
+        }
+        String encoded = Base64.encodeBase64String(decoded.getBytes(StandardCharsets.UTF_8))
+                .replaceAll("[\\s*\t\n\r]", "");
+        return base64.equals(encoded);
+    }
+}
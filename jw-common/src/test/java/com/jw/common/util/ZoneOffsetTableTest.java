@@ -0,0 +1,207 @@
+package com.jw.common.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.zone.ZoneOffsetTransition;
+import java.time.zone.ZoneRules;
+import java.util.ArrayList;
+import java.util.Calendar;
+import java.util.Date;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 与替换前基于 Calendar 的实现逐一比较，重点覆盖夏令时跳过和重叠的日期
+ */
+class ZoneOffsetTableTest {
+    private static final String[] ZONES = {"America/New_York", "America/Havana", "America/Sao_Paulo",
+            "Europe/London", "Europe/Moscow", "Australia/Lord_Howe", "Asia/Shanghai", "Asia/Tehran", "UTC"};
+    private static final long FROM = LocalDate.of(1902, 1, 1).toEpochDay() * ZoneOffsetTable.DAY_MILLIS;
+    private static final long TO = LocalDate.of(2098, 1, 1).toEpochDay() * ZoneOffsetTable.DAY_MILLIS;
+
+    @Test
+    void matchesCalendarAroundTransitions() {
+        for (String id : ZONES) {
+            ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of(id));
+            TimeZone zone = TimeZone.getTimeZone(id);
+            for (long instant : transitionSamples(ZoneId.of(id))) {
+                assertSameAsCalendar(table, zone, instant);
+            }
+        }
+    }
+
+    @Test
+    void matchesCalendarOnRandomInstants() {
+        Random random = new Random(20261017);
+        for (String id : ZONES) {
+            ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of(id));
+            TimeZone zone = TimeZone.getTimeZone(id);
+            for (int i = 0; i < 20_000; i++) {
+                assertSameAsCalendar(table, zone, FROM + (long) (random.nextDouble() * (TO - FROM)));
+            }
+        }
+    }
+
+    @Test
+    void overlapOnNewYorkFallBackDayResolvesLikeCalendar() {
+        ZoneOffsetTable table = ZoneOffsetTable.of(ZoneId.of("America/New_York"));
+        TimeZone zone = TimeZone.getTimeZone("America/New_York");
+        //2020-11-01 01:00~02:00 出现两次
+        long day = Instant.parse("2020-11-01T12:00:00Z").toEpochMilli();
+        for (int minute = 0; minute < 60; minute++) {
+            assertEquals(calendarTime(zone, day, 1, minute, 0), table.atTime(day, 1, minute, 0, 0));
+        }
+        //2020-03-08 02:00~03:00 被跳过
+        long gapDay = Instant.parse("2020-03-08T12:00:00Z").toEpochMilli();
+        for (int minute = 0; minute < 60; minute++) {
+            assertEquals(calendarTime(zone, gapDay, 2, minute, 0), table.atTime(gapDay, 2, minute, 0, 0));
+        }
+    }
+
+    @Test
+    void dateTimeUtilMatchesCalendarInDefaultZone() {
+        TimeZone original = TimeZone.getDefault();
+        try {
+            //先在原默认时区下使用一次，修改默认时区后无需手动刷新
+            DateTimeUtil.firstDay(new Date());
+            TimeZone.setDefault(TimeZone.getTimeZone("America/Havana"));
+            TimeZone zone = TimeZone.getDefault();
+            for (long instant : transitionSamples(ZoneId.of("America/Havana"))) {
+                Date date = new Date(instant);
+                assertEquals(calendarMonthStart(zone, instant), DateTimeUtil.firstDay(date).getTime());
+                assertEquals(calendarTime(zone, instant, 0, 0, 0), DateTimeUtil.earliestTime(date).getTime());
+                assertEquals(calendarTime(zone, instant, 0, 30, 0), DateTimeUtil.time(date, 0, 30, 0).getTime());
+                LocalDate local = DateTimeUtil.getDate(date);
+                assertEquals(calendarDate(zone, local), DateTimeUtil.toDate(local).getTime());
+            }
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    @Test
+    void systemDefaultFollowsTimeZoneDefault() {
+        TimeZone original = TimeZone.getDefault();
+        try {
+            TimeZone.setDefault(TimeZone.getTimeZone("Asia/Shanghai"));
+            assertEquals(ZoneId.of("Asia/Shanghai"), ZoneOffsetTable.systemDefault().getZone());
+            long instant = Instant.parse("2026-01-31T20:00:00Z").toEpochMilli();
+            //上海已是 2 月 1 日，纽约仍是 1 月 31 日
+            assertEquals(Instant.parse("2026-01-31T16:00:00Z").toEpochMilli(), DateTimeUtil.monthStartMillis(instant));
+            assertEquals("2026-02-01", FixedDateFormat.DATE.format(instant));
+
+            TimeZone.setDefault(TimeZone.getTimeZone("America/New_York"));
+            assertEquals(ZoneId.of("America/New_York"), ZoneOffsetTable.systemDefault().getZone());
+            assertEquals(Instant.parse("2026-01-01T05:00:00Z").toEpochMilli(), DateTimeUtil.monthStartMillis(instant));
+            assertEquals("2026-01-31", FixedDateFormat.DATE.format(instant));
+            assertEquals("2026-01-31", JsonUtil.toJsonString(new Date(instant)).substring(1, 11));
+        } finally {
+            TimeZone.setDefault(original);
+        }
+    }
+
+    private static void assertSameAsCalendar(ZoneOffsetTable table, TimeZone zone, long instant) {
+        String message = zone.getID() + " " + Instant.ofEpochMilli(instant);
+        assertEquals(calendarTime(zone, instant, 0, 0, 0), table.startOfDay(instant), message);
+        assertEquals(calendarEndOfDay(zone, instant), table.endOfDay(instant), message);
+        assertEquals(calendarMonthStart(zone, instant), table.monthStart(instant), message);
+        assertEquals(calendarMonthEnd(zone, instant), table.monthEnd(instant), message);
+        for (int hour = 0; hour < 24; hour++) {
+            assertEquals(calendarTime(zone, instant, hour, 30, 0), table.atTime(instant, hour, 30, 0, 0), message);
+        }
+    }
+
+    /**
+     * 每次偏移变化前后 36 小时内每小时一个样本
+     */
+    private static List<Long> transitionSamples(ZoneId zone) {
+        List<Long> samples = new ArrayList<>();
+        ZoneRules rules = zone.getRules();
+        ZoneOffsetTransition transition = rules.nextTransition(Instant.ofEpochMilli(FROM));
+        while (transition != null && transition.toEpochSecond() * 1000 < TO) {
+            long at = transition.toEpochSecond() * 1000;
+            for (long t = at - 36 * 3600_000L; t <= at + 36 * 3600_000L; t += 3600_000L) {
+                samples.add(t);
+            }
+            transition = rules.nextTransition(transition.getInstant());
+        }
+        return samples;
+    }
+
+    private static Calendar calendar(TimeZone zone, long instant) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.setTimeInMillis(instant);
+        return calendar;
+    }
+
+    /**
+     * 原 DateTimeUtil.time / earliestTime
+     */
+    private static long calendarTime(TimeZone zone, long instant, int hour, int minute, int second) {
+        Calendar calendar = calendar(zone, instant);
+        calendar.set(Calendar.HOUR_OF_DAY, hour);
+        calendar.set(Calendar.MINUTE, minute);
+        calendar.set(Calendar.SECOND, second);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 原 DateTimeUtil.lastestTime
+     */
+    private static long calendarEndOfDay(TimeZone zone, long instant) {
+        Calendar calendar = calendar(zone, instant);
+        calendar.set(Calendar.HOUR_OF_DAY, 23);
+        calendar.set(Calendar.MINUTE, 59);
+        calendar.set(Calendar.SECOND, 59);
+        calendar.set(Calendar.MILLISECOND, 999);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 原 DateTimeUtil.firstDay
+     */
+    private static long calendarMonthStart(TimeZone zone, long instant) {
+        Calendar calendar = calendar(zone, instant);
+        calendar.set(Calendar.DAY_OF_MONTH, 1);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 原 DateTimeUtil.lastDay
+     */
+    private static long calendarMonthEnd(TimeZone zone, long instant) {
+        Calendar calendar = calendar(zone, instant);
+        calendar.set(Calendar.DAY_OF_MONTH, calendar.getActualMaximum(Calendar.DAY_OF_MONTH));
+        calendar.set(Calendar.HOUR_OF_DAY, 23);
+        calendar.set(Calendar.SECOND, 59);
+        calendar.set(Calendar.MINUTE, 59);
+        calendar.set(Calendar.MILLISECOND, 999);
+        return calendar.getTimeInMillis();
+    }
+
+    /**
+     * 原 DateTimeUtil.toDate(LocalDate)
+     */
+    private static long calendarDate(TimeZone zone, LocalDate date) {
+        Calendar calendar = Calendar.getInstance(zone);
+        calendar.set(Calendar.YEAR, date.getYear());
+        calendar.set(Calendar.MONTH, date.getMonthValue() - 1);
+        calendar.set(Calendar.DAY_OF_MONTH, date.getDayOfMonth());
+        calendar.set(Calendar.HOUR_OF_DAY, 0);
+        calendar.set(Calendar.MINUTE, 0);
+        calendar.set(Calendar.SECOND, 0);
+        calendar.set(Calendar.MILLISECOND, 0);
+        return calendar.getTimeInMillis();
+    }
+}